@@ -0,0 +1,54 @@
+/**
+ * AdmissionRequest Class - Details of one patient to admit with ClinicQueue.addPatients
+ * The patient ID is not part of the request: the queue assigns it on admission.
+ *
+ * The check methods hold the admission rules for typed and imported details alike
+ * (ClinicQueueSystem and PatientCsv), so both accept exactly the same patients.
+ */
+public class AdmissionRequest {
+    private final String name;
+    private final int age;
+    private final String condition;
+    private final int priority; // 1 = Critical/Emergency, 2 = Urgent, 3 = Regular
+
+    // Constructor
+    public AdmissionRequest(String name, int age, String condition, int priority) {
+        this.name = name;
+        this.age = age;
+        this.condition = condition;
+        this.priority = priority;
+    }
+
+    // Getters
+
+    public String getName() {
+        return name;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    // ========== VALIDATION ==========
+    // Each check returns null if the value is valid, otherwise why not ("age must not be negative: -3")
+
+    public static String checkName(String name) {
+        return name == null || name.trim().isEmpty() ? "name is required" : null;
+    }
+
+    public static String checkAge(int age) {
+        return age < 0 ? "age must not be negative: " + age : null;
+    }
+
+    public static String checkPriority(int priority) {
+        return priority < 1 || priority > QueueStats.LEVELS ? "priority must be 1, 2 or 3: " + priority : null;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * AgingPolicy Class - When long waits raise a patient's priority (starvation guard)
+ * With a steady stream of Urgent arrivals a Regular patient could wait forever.
+ * Under this policy a patient who has waited (since arrival) at least
+ * - urgentAfterMillis is treated as at least Urgent (2)
+ * - criticalAfterMillis is treated as at least Critical (1)
+ * A threshold of 0 turns that step off. Escalation only ever raises priority, and
+ * keeps the patient's admission number, so among the patients of the new level the
+ * aged patient is ordered by when they arrived.
+ */
+public class AgingPolicy {
+    private static final long DEFAULT_RESOLUTION_MILLIS = 1000;
+
+    private final long urgentAfterMillis;
+    private final long criticalAfterMillis;
+    private final long resolutionMillis; // Escalations happen up to this much after their threshold
+
+    // Constructor with escalations checked to the second
+    public AgingPolicy(long urgentAfterMillis, long criticalAfterMillis) {
+        this(urgentAfterMillis, criticalAfterMillis, DEFAULT_RESOLUTION_MILLIS);
+    }
+
+    // Constructor with a custom timer resolution (tick of the TimerWheel)
+    public AgingPolicy(long urgentAfterMillis, long criticalAfterMillis, long resolutionMillis) {
+        if (urgentAfterMillis < 0 || criticalAfterMillis < 0) {
+            throw new IllegalArgumentException("Aging thresholds must not be negative");
+        }
+        if (resolutionMillis < 1) {
+            throw new IllegalArgumentException("Resolution must be at least 1 ms: " + resolutionMillis);
+        }
+        this.urgentAfterMillis = urgentAfterMillis;
+        this.criticalAfterMillis = criticalAfterMillis;
+        this.resolutionMillis = resolutionMillis;
+    }
+
+    public long getUrgentAfterMillis() {
+        return urgentAfterMillis;
+    }
+
+    public long getCriticalAfterMillis() {
+        return criticalAfterMillis;
+    }
+
+    public long getResolutionMillis() {
+        return resolutionMillis;
+    }
+
+    /**
+     * Priority a patient at priority should have after waiting waitMillis
+     * Time Complexity: O(1)
+     */
+    public int agedPriority(int priority, long waitMillis) {
+        if (criticalAfterMillis > 0 && waitMillis >= criticalAfterMillis) {
+            return Math.min(priority, 1);
+        }
+        if (urgentAfterMillis > 0 && waitMillis >= urgentAfterMillis) {
+            return Math.min(priority, 2);
+        }
+        return priority;
+    }
+
+    /**
+     * Wait after which a patient at priority escalates next, or -1 if never
+     * Time Complexity: O(1)
+     */
+    public long nextThreshold(int priority) {
+        long next = -1;
+        if (priority > 1 && criticalAfterMillis > 0) {
+            next = criticalAfterMillis;
+        }
+        if (priority > 2 && urgentAfterMillis > 0 && (next < 0 || urgentAfterMillis < next)) {
+            next = urgentAfterMillis;
+        }
+        return next;
+    }
+
+    @Override
+    public String toString() {
+        return "Urgent after " + describe(urgentAfterMillis) + ", Critical after " + describe(criticalAfterMillis);
+    }
+
+    private static String describe(long millis) {
+        if (millis == 0) {
+            return "never";
+        }
+        return millis < 60000 ? String.format("%.1f s", millis / 1000.0) : String.format("%.1f min", millis / 60000.0);
+    }
+}
@@ -0,0 +1,478 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ClinicHttpServer Class - Embedded HTTP/JSON API over a ClinicQueue
+ * Kiosks, doctor tablets and wall boards use the queue at the same time through
+ * the JDK's built-in HTTP server. Every request runs on its own virtual thread
+ * (Java 21+; older JDKs fall back to a cached thread pool).
+ *
+ * ClinicQueue itself is single-threaded, so the server guards it with a read-write
+ * lock: searches, peeks, pages and statistics share the read lock, changes take the
+ * write lock. It is a ReentrantReadWriteLock rather than synchronized so a waiting
+ * virtual thread releases its carrier thread.
+ *
+ * Endpoints (request bodies are flat JSON objects, responses are JSON):
+ *   POST   /patients                {name, age, condition, priority}  -> 201 patient
+ *   POST   /patients/next[?count=k]                                   -> 200 patient (list if count), 204 if empty
+ *   GET    /patients/P001                                             -> 200 patient, 404
+ *   GET    /patients/P001/position                                    -> 200 {id, position, estimatedWaitMillis}, 404
+ *   PUT    /patients/P001           {name, age, condition, priority}  -> 200 patient, 404
+ *   DELETE /patients/P001                                             -> 204, 404
+ *   GET    /patients?name=emma  |  /patients?priority=1               -> 200 list
+ *   GET    /queue[?offset=0&limit=20]                                 -> 200 page in treatment order
+ *   GET    /queue/next                                                -> 200 next patient (peek), 204 if empty
+ *   GET    /stats                                                     -> 200 statistics
+ *
+ * Usage: java ClinicHttpServer [port]   (default 8080)
+ */
+public class ClinicHttpServer {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    static {
+        // Responses are small: without TCP_NODELAY, Nagle plus delayed ACKs add ~40 ms to each one.
+        // Read once when the JDK server loads its configuration, so it must be set before that.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final ClinicQueue queue;
+    private final Lock readLock;
+    private final Lock writeLock;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // A request that cannot be served, answered with its status code and message
+    private static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    // Constructor (port 0 picks a free port, see getPort)
+    public ClinicHttpServer(ClinicQueue queue, int port) throws IOException {
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        this.queue = queue;
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/patients", exchange -> handle(exchange, this::patients));
+        server.createContext("/queue", exchange -> handle(exchange, this::queuePage));
+        server.createContext("/stats", exchange -> handle(exchange, this::stats));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // Stop accepting requests, give running ones up to a second, then stop the threads
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        ClinicHttpServer httpServer = new ClinicHttpServer(new ClinicQueue(), port);
+        Runtime.getRuntime().addShutdownHook(new Thread(httpServer::stop));
+        httpServer.start();
+        System.out.println("🌐 Clinic queue API listening on http://localhost:" + httpServer.getPort()
+                + " (" + (httpServer.executor instanceof ThreadPoolExecutor ? "thread pool" : "virtual threads") + ")");
+    }
+
+    // ========== ROUTES ==========
+
+    private interface Route {
+        void serve(HttpExchange exchange, List<String> path) throws IOException;
+    }
+
+    // Run a route and turn failures into JSON error responses
+    private void handle(HttpExchange exchange, Route route) throws IOException {
+        try {
+            List<String> path = new ArrayList<>();
+            for (String segment : exchange.getRequestURI().getPath().split("/")) {
+                if (!segment.isEmpty()) {
+                    path.add(segment);
+                }
+            }
+            route.serve(exchange, path);
+        } catch (HttpError e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, e.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // /patients, /patients/next, /patients/{id}, /patients/{id}/position
+    private void patients(HttpExchange exchange, List<String> path) throws IOException {
+        String method = exchange.getRequestMethod();
+        Map<String, String> params = queryParams(exchange);
+        if (path.size() == 1) {
+            if (method.equals("POST")) {
+                Map<String, String> body = readJsonObject(exchange);
+                String name = requireName(body);
+                int age = requireAge(body);
+                String condition = body.getOrDefault("condition", "");
+                int priority = requirePriority(body);
+                StringBuilder json;
+                writeLock.lock();
+                try {
+                    json = patientJson(new StringBuilder(), queue.admitNew(name, age, condition, priority));
+                } finally {
+                    writeLock.unlock();
+                }
+                send(exchange, 201, json);
+                return;
+            }
+            requireMethod(method, "GET");
+            if (!params.containsKey("name") && !params.containsKey("priority")) {
+                throw new HttpError(400, "Search needs a name or priority parameter");
+            }
+            StringBuilder json;
+            readLock.lock();
+            try {
+                json = patientListJson(params.containsKey("name")
+                        ? queue.searchByName(params.get("name"))
+                        : queue.searchByPriority(parseInt(params.get("priority"), "priority")));
+            } finally {
+                readLock.unlock();
+            }
+            send(exchange, 200, json);
+            return;
+        }
+        if (path.size() == 3 && path.get(2).equals("position")) {
+            requireMethod(method, "GET");
+            position(exchange, path.get(1));
+            return;
+        }
+        if (path.size() != 2) {
+            throw new HttpError(404, "No such resource");
+        }
+
+        if (path.get(1).equals("next")) {
+            requireMethod(method, "POST");
+            boolean batch = params.containsKey("count");
+            int count = batch ? parseInt(params.get("count"), "count") : 1;
+            if (count < 0) {
+                throw new HttpError(400, "count must not be negative");
+            }
+            StringBuilder json;
+            writeLock.lock();
+            try {
+                if (batch) {
+                    json = patientListJson(queue.callNextPatients(count));
+                } else {
+                    Patient next = queue.callNextPatient();
+                    json = next == null ? null : patientJson(new StringBuilder(), next);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            sendOrEmpty(exchange, json);
+            return;
+        }
+
+        String patientId = path.get(1);
+        int id = Patient.parseId(patientId);
+        switch (method) {
+            case "GET":
+                StringBuilder found;
+                readLock.lock();
+                try {
+                    found = patientJsonOrNull(queue.searchByID(id));
+                } finally {
+                    readLock.unlock();
+                }
+                sendPatient(exchange, found, patientId);
+                break;
+            case "PUT":
+                Map<String, String> body = readJsonObject(exchange);
+                String name = requireName(body);
+                int age = requireAge(body);
+                String condition = body.getOrDefault("condition", "");
+                int priority = requirePriority(body);
+                StringBuilder updated;
+                writeLock.lock();
+                try {
+                    boolean changed = queue.updatePatient(patientId, name, age, condition, priority);
+                    updated = changed ? patientJsonOrNull(queue.searchByID(id)) : null;
+                } finally {
+                    writeLock.unlock();
+                }
+                sendPatient(exchange, updated, patientId);
+                break;
+            case "DELETE":
+                boolean removed;
+                writeLock.lock();
+                try {
+                    removed = queue.removePatient(patientId);
+                } finally {
+                    writeLock.unlock();
+                }
+                if (!removed) {
+                    throw new HttpError(404, "Patient " + patientId + " is not waiting");
+                }
+                exchange.sendResponseHeaders(204, -1);
+                break;
+            default:
+                throw new HttpError(405, "Method " + method + " not allowed");
+        }
+    }
+
+    // Place in line and estimated wait (-1 until the queue has timed some calls)
+    private void position(HttpExchange exchange, String patientId) throws IOException {
+        int position;
+        long estimatedWait;
+        readLock.lock();
+        try {
+            position = queue.positionOf(patientId);
+            estimatedWait = queue.estimatedWait(patientId);
+        } finally {
+            readLock.unlock();
+        }
+        if (position < 0) {
+            throw new HttpError(404, "Patient " + patientId + " is not waiting");
+        }
+        StringBuilder json = new StringBuilder("{\"id\":");
+        FlatJson.appendString(json, patientId);
+        json.append(",\"position\":").append(position);
+        json.append(",\"estimatedWaitMillis\":").append(estimatedWait);
+        send(exchange, 200, json.append('}'));
+    }
+
+    // /queue (one page) and /queue/next (peek)
+    private void queuePage(HttpExchange exchange, List<String> path) throws IOException {
+        requireMethod(exchange.getRequestMethod(), "GET");
+        Map<String, String> params = queryParams(exchange);
+        boolean peek = path.size() == 2 && path.get(1).equals("next");
+        if (!peek && path.size() != 1) {
+            throw new HttpError(404, "No such resource");
+        }
+        int offset = params.containsKey("offset") ? parseInt(params.get("offset"), "offset") : 0;
+        int limit = params.containsKey("limit") ? parseInt(params.get("limit"), "limit") : ClinicQueue.DISPLAY_PAGE_SIZE;
+        StringBuilder json;
+        readLock.lock();
+        try {
+            if (peek) {
+                Patient next = queue.peekNextPatient();
+                json = next == null ? null : patientJson(new StringBuilder(), next);
+            } else {
+                json = patientListJson(queue.view(offset, limit));
+            }
+        } finally {
+            readLock.unlock();
+        }
+        if (peek) {
+            sendOrEmpty(exchange, json);
+        } else {
+            send(exchange, 200, json);
+        }
+    }
+
+    // /stats
+    private void stats(HttpExchange exchange, List<String> path) throws IOException {
+        requireMethod(exchange.getRequestMethod(), "GET");
+        QueueStats stats = new QueueStats();
+        readLock.lock();
+        try {
+            queue.getStats(stats);
+        } finally {
+            readLock.unlock();
+        }
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"timestamp\":").append(stats.getTimestamp());
+        json.append(",\"admitted\":").append(stats.getTotalPatientsAdmitted());
+        json.append(",\"served\":").append(stats.getTotalPatientsServed());
+        json.append(",\"waiting\":").append(stats.getWaiting());
+        json.append(",\"waitingCritical\":").append(stats.getWaiting(1));
+        json.append(",\"waitingUrgent\":").append(stats.getWaiting(2));
+        json.append(",\"waitingRegular\":").append(stats.getWaiting(3));
+        json.append(",\"averageWaitMillis\":").append(stats.getAverageWaitMillis());
+        json.append(",\"maxWaitMillis\":").append(stats.getMaxWaitMillis());
+        json.append(",\"averageCurrentWaitMillis\":").append(stats.getAverageCurrentWaitMillis());
+        send(exchange, 200, json.append('}'));
+    }
+
+    // ========== REQUEST HELPERS ==========
+
+    private static void requireMethod(String method, String expected) {
+        if (!method.equals(expected)) {
+            throw new HttpError(405, "Method " + method + " not allowed");
+        }
+    }
+
+    private static String requireName(Map<String, String> body) {
+        String name = body.get("name");
+        if (name == null || name.trim().isEmpty()) {
+            throw new HttpError(400, "name is required");
+        }
+        return name.trim();
+    }
+
+    private static int requireAge(Map<String, String> body) {
+        int age = parseInt(body.get("age"), "age");
+        if (age < 0) {
+            throw new HttpError(400, "age must not be negative");
+        }
+        return age;
+    }
+
+    private static int requirePriority(Map<String, String> body) {
+        int priority = parseInt(body.get("priority"), "priority");
+        if (priority < 1 || priority > QueueStats.LEVELS) {
+            throw new HttpError(400, "priority must be 1, 2 or 3");
+        }
+        return priority;
+    }
+
+    private static int parseInt(String value, String field) {
+        if (value == null) {
+            throw new HttpError(400, field + " is required");
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, field + " must be a whole number");
+        }
+    }
+
+    private static Map<String, String> queryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static Map<String, String> readJsonObject(HttpExchange exchange) throws IOException {
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (body.length > MAX_BODY_BYTES) {
+            throw new HttpError(413, "Request body too large");
+        }
+        return FlatJson.parse(new String(body, StandardCharsets.UTF_8));
+    }
+
+    // ========== RESPONSES ==========
+
+    // JSON is built while the lock is held (patients are live objects) and sent after it is released
+
+    private static void sendPatient(HttpExchange exchange, StringBuilder json, String patientId) throws IOException {
+        if (json == null) {
+            throw new HttpError(404, "Patient " + patientId + " is not waiting");
+        }
+        send(exchange, 200, json);
+    }
+
+    private static void sendOrEmpty(HttpExchange exchange, StringBuilder json) throws IOException {
+        if (json == null) {
+            exchange.sendResponseHeaders(204, -1); // Nobody waiting
+        } else {
+            send(exchange, 200, json);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        FlatJson.appendString(json, message == null ? "" : message);
+        send(exchange, status, json.append('}'));
+    }
+
+    private static void send(HttpExchange exchange, int status, CharSequence json) throws IOException {
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static StringBuilder patientListJson(List<Patient> patients) {
+        StringBuilder json = new StringBuilder(64 + patients.size() * 160).append('[');
+        for (int i = 0; i < patients.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            patientJson(json, patients.get(i));
+        }
+        return json.append(']');
+    }
+
+    private static StringBuilder patientJsonOrNull(Patient patient) {
+        return patient == null ? null : patientJson(new StringBuilder(), patient);
+    }
+
+    private static StringBuilder patientJson(StringBuilder json, Patient patient) {
+        json.append("{\"id\":");
+        FlatJson.appendString(json, patient.getPatientId());
+        json.append(",\"name\":");
+        FlatJson.appendString(json, patient.getName());
+        json.append(",\"age\":").append(patient.getAge());
+        json.append(",\"condition\":");
+        FlatJson.appendString(json, patient.getCondition());
+        json.append(",\"priority\":").append(patient.getPriority());
+        json.append(",\"priorityLabel\":");
+        FlatJson.appendString(json, patient.getPriorityLabel());
+        json.append(",\"status\":");
+        FlatJson.appendString(json, patient.getStatus());
+        json.append(",\"arrivalTime\":").append(patient.getArrivalTime());
+        return json.append('}');
+    }
+
+    // ========== THREADS ==========
+
+    // One virtual thread per request when the JDK has them (looked up by reflection so the
+    // project still compiles on JDKs before 21), otherwise a cached pool of platform threads
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClinicLoadTest - Load-test client for ClinicHttpServer
+ * Each simulated client (kiosk, doctor tablet, wall board) sends one request after
+ * another for a fixed time, with a clinic-like mix of operations:
+ *
+ *   35% add patient     25% call next     10% look up by ID    10% queue page
+ *   5% update           5% name search    5% peek               5% statistics
+ *
+ * Reports requests per second and p50 / p99 / p99.9 latency, overall and per operation.
+ * Without a URL it starts a server on a free local port first.
+ *
+ * Usage: java ClinicLoadTest [url] [clients] [seconds]   (default: local server, 32 clients, 10 s)
+ */
+public class ClinicLoadTest {
+    private static final String[] OPERATIONS = {"add", "next", "get", "page", "update", "search", "peek", "stats"};
+    private static final int[] WEIGHTS = {35, 25, 10, 10, 5, 5, 5, 5}; // Percent, same order
+    private static final String[] NAMES = {"Emma Smith", "Wei Tan", "Omar Rahman", "Grace Young", "Raj Kumar"};
+
+    // Latencies of one client, per operation, in nanoseconds
+    private static final class Samples {
+        final long[][] nanos = new long[OPERATIONS.length][1024];
+        final int[] count = new int[OPERATIONS.length];
+        int errors;
+
+        void add(int op, long latency) {
+            if (count[op] == nanos[op].length) {
+                nanos[op] = Arrays.copyOf(nanos[op], count[op] * 2);
+            }
+            nanos[op][count[op]++] = latency;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean local = args.length == 0 || !args[0].startsWith("http");
+        int argBase = local ? 0 : 1;
+        int clients = args.length > argBase ? Integer.parseInt(args[argBase]) : 32;
+        int seconds = args.length > argBase + 1 ? Integer.parseInt(args[argBase + 1]) : 10;
+
+        ClinicHttpServer server = null;
+        String baseUrl;
+        if (local) {
+            server = new ClinicHttpServer(new ClinicQueue(), 0);
+            server.start();
+            baseUrl = "http://localhost:" + server.getPort();
+        } else {
+            baseUrl = args[0].replaceAll("/+$", "");
+        }
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        System.out.println("\n🚦 CLINIC API LOAD TEST: " + clients + " clients for " + seconds + " s against " + baseUrl);
+
+        // Warm-up so JIT compilation does not land in the measured latencies
+        runClients(http, baseUrl, clients, Math.min(2, seconds));
+        long start = System.nanoTime();
+        List<Samples> results = runClients(http, baseUrl, clients, seconds);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        report(results, elapsedSeconds);
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    // Run the clients for the given time and collect their samples
+    private static List<Samples> runClients(HttpClient http, String baseUrl, int clients, int seconds)
+            throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService pool = ClinicHttpServer.newRequestExecutor();
+        List<Future<Samples>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> client(http, baseUrl, deadline)));
+        }
+        List<Samples> results = new ArrayList<>();
+        for (Future<Samples> future : futures) {
+            results.add(future.get());
+        }
+        pool.shutdown();
+        return results;
+    }
+
+    // One client: pick an operation, send it, time it, repeat until the deadline
+    private static Samples client(HttpClient http, String baseUrl, long deadline) {
+        Samples samples = new Samples();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> myPatients = new ArrayList<>(); // IDs this client admitted, for lookups and updates
+        while (System.nanoTime() < deadline) {
+            int op = pickOperation(random.nextInt(100));
+            HttpRequest request = buildRequest(baseUrl, op, random, myPatients);
+            long begin = System.nanoTime();
+            try {
+                HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                long latency = System.nanoTime() - begin;
+                if (response.statusCode() >= 500) {
+                    samples.errors++;
+                    continue;
+                }
+                samples.add(op, latency);
+                if (op == 0 && response.statusCode() == 201) {
+                    myPatients.add(idOf(response.body()));
+                }
+            } catch (Exception e) {
+                samples.errors++;
+            }
+        }
+        return samples;
+    }
+
+    private static int pickOperation(int roll) {
+        int op = 0;
+        while (roll >= WEIGHTS[op]) {
+            roll -= WEIGHTS[op];
+            op++;
+        }
+        return op;
+    }
+
+    private static HttpRequest buildRequest(String baseUrl, int op, ThreadLocalRandom random, List<String> myPatients) {
+        String name = NAMES[random.nextInt(NAMES.length)];
+        String knownId = myPatients.isEmpty() ? "P001" : myPatients.get(random.nextInt(myPatients.size()));
+        switch (OPERATIONS[op]) {
+            case "add":
+                return post(baseUrl + "/patients", patientBody(name, random));
+            case "next":
+                return post(baseUrl + "/patients/next", "");
+            case "get":
+                return get(baseUrl + "/patients/" + knownId);
+            case "page":
+                return get(baseUrl + "/queue?offset=0&limit=20");
+            case "update":
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/patients/" + knownId))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(patientBody(name, random))).build();
+            case "search":
+                return get(baseUrl + "/patients?name=" + name.substring(0, 4).replace(' ', '+'));
+            case "peek":
+                return get(baseUrl + "/queue/next");
+            default:
+                return get(baseUrl + "/stats");
+        }
+    }
+
+    private static String patientBody(String name, ThreadLocalRandom random) {
+        return "{\"name\":\"" + name + "\",\"age\":" + random.nextInt(1, 90)
+                + ",\"condition\":\"Load test\",\"priority\":" + random.nextInt(1, 4) + "}";
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    // The "id" field of a patient response
+    private static String idOf(String json) {
+        return FlatJson.parse(json).get("id");
+    }
+
+    // ========== REPORT ==========
+
+    private static void report(List<Samples> results, double elapsedSeconds) {
+        long[] all = new long[0];
+        int errors = 0;
+        System.out.println("════════════════════════════════════════════════════════════════");
+        System.out.printf("%-10s | %9s | %9s | %9s | %9s%n", "Operation", "Requests", "p50 (ms)", "p99 (ms)", "p99.9 (ms)");
+        System.out.println("════════════════════════════════════════════════════════════════");
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            long[] merged = new long[0];
+            for (Samples samples : results) {
+                merged = concat(merged, samples.nanos[op], samples.count[op]);
+            }
+            Arrays.sort(merged);
+            all = concat(all, merged, merged.length);
+            printRow(OPERATIONS[op], merged);
+        }
+        for (Samples samples : results) {
+            errors += samples.errors;
+        }
+        Arrays.sort(all);
+        System.out.println("────────────────────────────────────────────────────────────────");
+        printRow("all", all);
+        System.out.println("════════════════════════════════════════════════════════════════");
+        System.out.printf("Throughput: %.0f requests/sec   Errors: %d%n", all.length / elapsedSeconds, errors);
+    }
+
+    private static void printRow(String label, long[] sorted) {
+        System.out.printf("%-10s | %9d | %9.3f | %9.3f | %9.3f%n", label, sorted.length,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999));
+    }
+
+    // Nearest-rank percentile of sorted nanoseconds, in milliseconds
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, rank)] / 1e6;
+    }
+
+    private static long[] concat(long[] head, long[] tail, int tailLength) {
+        long[] joined = Arrays.copyOf(head, head.length + tailLength);
+        System.arraycopy(tail, 0, joined, head.length, tailLength);
+        return joined;
+    }
+}
@@ -0,0 +1,348 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ClinicNetwork Class - Several departments, each with its own ClinicQueue shard
+ * Admissions are routed to their department's shard, and each shard has its own lock,
+ * so desks and doctors of different departments never wait for each other:
+ *
+ *   ER                [lock] ClinicQueue ◄── ER desks / ER doctors
+ *   General Practice  [lock] ClinicQueue ◄── GP desks / GP doctors
+ *   Pediatrics        [lock] ClinicQueue ◄── ...
+ *
+ * Patient IDs come from one network-wide AtomicInteger, so "P042" names exactly one
+ * patient in the whole network.
+ *
+ * Work stealing: a doctor whose own department has nobody waiting may take a Critical
+ * patient from another department. The thief never holds two locks at once and first
+ * only tries the other locks (tryLock), so stealing cannot deadlock and never makes a
+ * busy department wait. Only Critical patients are stolen; the rest stay with their
+ * department.
+ *
+ * Thread-safety: every method may be called from any thread. There is no global lock;
+ * an operation locks one shard at a time. Returned Patient objects stay live and may
+ * be changed by later operations of their department.
+ */
+public class ClinicNetwork {
+    // One department: its queue shard and the lock guarding it
+    private static final class Department {
+        final String name;
+        final ClinicQueue queue;
+        final ReentrantLock lock = new ReentrantLock();
+        final LongAdder stolenFrom = new LongAdder(); // Critical patients taken by other departments
+        final LongAdder stolenBy = new LongAdder();   // Critical patients this department's doctors took
+
+        Department(String name, ClinicQueue queue) {
+            this.name = name;
+            this.queue = queue;
+        }
+    }
+
+    private final Map<String, Department> departments; // Fixed at construction, read without locking
+    private final Department[] shards;                  // Same departments, for index-based walks
+    private final AtomicInteger idSequence;
+    private final AtomicInteger stealCursor; // Spreads thieves over the other departments
+
+    // Constructor: one heap-backed shard per department name
+    public ClinicNetwork(String... departmentNames) {
+        if (departmentNames.length == 0) {
+            throw new IllegalArgumentException("A clinic network needs at least one department");
+        }
+        this.idSequence = new AtomicInteger(1); // Start from P001
+        this.stealCursor = new AtomicInteger();
+        Map<String, Department> byName = new LinkedHashMap<>();
+        for (String name : departmentNames) {
+            Department department = new Department(name, new ClinicQueue(new IndexedPatientHeap(), idSequence));
+            if (byName.put(name, department) != null) {
+                throw new IllegalArgumentException("Duplicate department: " + name);
+            }
+        }
+        this.departments = Collections.unmodifiableMap(byName);
+        this.shards = byName.values().toArray(new Department[0]);
+    }
+
+    public Set<String> getDepartments() {
+        return departments.keySet();
+    }
+
+    // ========== INSERT OPERATION ==========
+    /**
+     * Admit a patient to a department's queue and return it
+     * Time Complexity: O(log n), n = patients waiting in that department
+     */
+    public Patient addPatient(String department, String name, int age, String condition, int priority) {
+        Department target = department(department);
+        target.lock.lock();
+        try {
+            return target.queue.admitNew(name, age, condition, priority);
+        } finally {
+            target.lock.unlock();
+        }
+    }
+
+    /**
+     * Admit a group of patients to one department (see ClinicQueue.addPatients)
+     * Time Complexity: O(n + k)
+     */
+    public List<Patient> addPatients(String department, Collection<AdmissionRequest> admissions) {
+        Department target = department(department);
+        target.lock.lock();
+        try {
+            return target.queue.addPatients(admissions);
+        } finally {
+            target.lock.unlock();
+        }
+    }
+
+    // ========== DELETE OPERATION ==========
+    /**
+     * Call the next patient for a doctor of this department
+     * If the department has nobody waiting, the doctor takes a Critical patient from
+     * another department instead (work stealing). Returns null if there is no one to see.
+     * Time Complexity: O(log n) own department, O(d log n) when stealing from d departments
+     */
+    public Patient callNextPatient(String department) {
+        Department own = department(department);
+        own.lock.lock();
+        try {
+            if (!own.queue.isEmpty()) {
+                return own.queue.callNextPatient();
+            }
+        } finally {
+            own.lock.unlock();
+        }
+        return stealCritical(own);
+    }
+
+    /**
+     * Remove a waiting patient by ID from whichever department holds them
+     * Time Complexity: O(d + log n), d = departments
+     */
+    public boolean removePatient(String patientId) {
+        int id = Patient.parseId(patientId);
+        for (Department department : shards) {
+            department.lock.lock();
+            try {
+                if (department.queue.searchByID(id) != null) {
+                    return department.queue.removePatient(patientId);
+                }
+            } finally {
+                department.lock.unlock();
+            }
+        }
+        return false;
+    }
+
+    // ========== UPDATE OPERATION ==========
+    /**
+     * Update a waiting patient in whichever department holds them
+     * Time Complexity: O(d + log n)
+     */
+    public boolean updatePatient(String patientId, String newName, int newAge,
+                                 String newCondition, int newPriority) {
+        int id = Patient.parseId(patientId);
+        for (Department department : shards) {
+            department.lock.lock();
+            try {
+                if (department.queue.searchByID(id) != null) {
+                    return department.queue.updatePatient(patientId, newName, newAge, newCondition, newPriority);
+                }
+            } finally {
+                department.lock.unlock();
+            }
+        }
+        return false;
+    }
+
+    // ========== SEARCH OPERATIONS ==========
+    /**
+     * Find a waiting patient by ID in any department
+     * Time Complexity: O(d)
+     */
+    public Patient searchByID(String patientId) {
+        int id = Patient.parseId(patientId);
+        for (Department department : shards) {
+            department.lock.lock();
+            try {
+                Patient patient = department.queue.searchByID(id);
+                if (patient != null) {
+                    return patient;
+                }
+            } finally {
+                department.lock.unlock();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Name of the department a patient is waiting in, or null
+     * Time Complexity: O(d)
+     */
+    public String departmentOf(String patientId) {
+        int id = Patient.parseId(patientId);
+        for (Department department : shards) {
+            department.lock.lock();
+            try {
+                if (department.queue.searchByID(id) != null) {
+                    return department.name;
+                }
+            } finally {
+                department.lock.unlock();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Search all departments by name (partial match), one department after another
+     * Time Complexity: O(d + k)
+     */
+    public List<Patient> searchByName(String name) {
+        List<Patient> results = new ArrayList<>();
+        for (Department department : shards) {
+            department.lock.lock();
+            try {
+                results.addAll(department.queue.searchByName(name));
+            } finally {
+                department.lock.unlock();
+            }
+        }
+        return results;
+    }
+
+    // ========== STATISTICS ==========
+
+    /**
+     * Patients waiting in the whole network
+     * Each department is counted under its own lock, so the total is a sum of
+     * per-department snapshots rather than one instant.
+     */
+    public int getSize() {
+        int total = 0;
+        for (Department department : shards) {
+            total += getSize(department.name);
+        }
+        return total;
+    }
+
+    public int getSize(String department) {
+        Department target = department(department);
+        target.lock.lock();
+        try {
+            return target.queue.getSize();
+        } finally {
+            target.lock.unlock();
+        }
+    }
+
+    /**
+     * Fill into with one department's statistics
+     */
+    public QueueStats getStats(String department, QueueStats into) {
+        Department target = department(department);
+        target.lock.lock();
+        try {
+            return target.queue.getStats(into);
+        } finally {
+            target.lock.unlock();
+        }
+    }
+
+    /**
+     * Fill into with one department's wait-time and latency histograms
+     */
+    public QueueMetrics getMetrics(String department, QueueMetrics into) {
+        Department target = department(department);
+        target.lock.lock();
+        try {
+            return target.queue.getMetrics(into);
+        } finally {
+            target.lock.unlock();
+        }
+    }
+
+    /**
+     * Archive the finished visits of every department into one VisitArchive (null = stop)
+     */
+    public void setVisitArchive(VisitArchive archive) {
+        for (Department department : shards) {
+            department.lock.lock();
+            try {
+                department.queue.setVisitArchive(archive);
+            } finally {
+                department.lock.unlock();
+            }
+        }
+    }
+
+    // Critical patients other departments took from this one
+    public long getStolenFrom(String department) {
+        return department(department).stolenFrom.sum();
+    }
+
+    // Critical patients this department's doctors took from other departments
+    public long getStolenBy(String department) {
+        return department(department).stolenBy.sum();
+    }
+
+    // ========== WORK STEALING ==========
+
+    // Take the next Critical patient from another department, trying each lock without waiting first
+    private Patient stealCritical(Department thief) {
+        int start = Math.floorMod(stealCursor.getAndIncrement(), shards.length);
+        List<Department> busy = new ArrayList<>();
+        for (int i = 0; i < shards.length; i++) {
+            Department victim = shards[(start + i) % shards.length];
+            if (victim == thief) {
+                continue;
+            }
+            if (!victim.lock.tryLock()) {
+                busy.add(victim); // Someone is working there: check it after the others
+                continue;
+            }
+            try {
+                Patient stolen = takeCritical(thief, victim);
+                if (stolen != null) {
+                    return stolen;
+                }
+            } finally {
+                victim.lock.unlock();
+            }
+        }
+        for (Department victim : busy) {
+            victim.lock.lock();
+            try {
+                Patient stolen = takeCritical(thief, victim);
+                if (stolen != null) {
+                    return stolen;
+                }
+            } finally {
+                victim.lock.unlock();
+            }
+        }
+        return null;
+    }
+
+    // Caller holds victim's lock. The head of a queue is Critical whenever a Critical patient waits there
+    private static Patient takeCritical(Department thief, Department victim) {
+        if (victim.queue.getWaitingCount(1) == 0) {
+            return null;
+        }
+        victim.stolenFrom.increment();
+        thief.stolenBy.increment();
+        return victim.queue.callNextPatient();
+    }
+
+    // ========== HELPERS ==========
+
+    private Department department(String name) {
+        Department department = departments.get(name);
+        if (department == null) {
+            throw new IllegalArgumentException("Unknown department: " + name);
+        }
+        return department;
+    }
+}
@@ -0,0 +1,165 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ClinicNetworkStressTest - Hammers a ClinicNetwork with one desk and one doctor per department
+ * Department d admits perDesk / (d + 1) patients, so the doctors of the quiet
+ * departments run out of work early and start stealing Critical patients from the
+ * busy ones.
+ *
+ * Checks after every run:
+ * - every admitted patient was either served or removed, exactly once
+ * - IDs are unique across the whole network
+ * - a doctor only ever got a patient of another department if that patient was Critical
+ * - the stolen counters match the cross-department calls the doctors observed
+ *
+ * Usage: java ClinicNetworkStressTest [patientsPerDesk]   (exit code 1 on failure)
+ */
+public class ClinicNetworkStressTest {
+    private static final int DEFAULT_PATIENTS_PER_DESK = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        int perDesk = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PATIENTS_PER_DESK;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("\n🧪 CLINIC NETWORK STRESS TEST (" + cores + " cores)");
+        System.out.println("════════════════════════════════════════════════════════════════");
+        System.out.printf("%-11s | %10s | %9s | %8s | %12s%n", "Departments", "Patients", "Time (ms)", "Stolen", "ops/sec");
+        System.out.println("════════════════════════════════════════════════════════════════");
+
+        boolean allPassed = true;
+        for (int departments = 1; departments <= Math.max(4, cores); departments *= 2) {
+            allPassed &= run(departments, perDesk);
+        }
+        System.out.println("════════════════════════════════════════════════════════════════");
+        System.out.println(allPassed ? "✅ All runs passed: no patient lost, served twice or wrongly stolen."
+                                     : "❌ Stress test FAILED.");
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+
+    // One run with the given number of departments
+    private static boolean run(int departmentCount, int perDesk) throws Exception {
+        String[] names = new String[departmentCount];
+        for (int d = 0; d < departmentCount; d++) {
+            names[d] = "Dept" + d;
+        }
+        ClinicNetwork network = new ClinicNetwork(names);
+        Map<String, String> admittedTo = new ConcurrentHashMap<>(); // Patient ID -> department
+        Set<String> removed = ConcurrentHashMap.newKeySet();
+        Map<String, String> servedBy = new ConcurrentHashMap<>(); // Patient ID -> doctor's department
+        Map<String, Integer> priorityWhenCalled = new ConcurrentHashMap<>();
+        AtomicInteger servedTwice = new AtomicInteger();
+        AtomicInteger duplicateIds = new AtomicInteger();
+        AtomicBoolean desksDone = new AtomicBoolean(false);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2 * departmentCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> deskTasks = new ArrayList<>();
+        List<Future<?>> doctorTasks = new ArrayList<>();
+        int total = 0;
+
+        for (int d = 0; d < departmentCount; d++) {
+            final String department = names[d];
+            final int patients = perDesk / (d + 1);
+            total += patients;
+            deskTasks.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                start.await();
+                for (int i = 0; i < patients; i++) {
+                    Patient p = network.addPatient(department, department + "-" + i, 30, "Stress",
+                            1 + random.nextInt(3));
+                    if (admittedTo.put(p.getPatientId(), department) != null) {
+                        duplicateIds.incrementAndGet();
+                    }
+                    int roll = random.nextInt(20);
+                    if (roll == 0 && network.removePatient(p.getPatientId())) {
+                        removed.add(p.getPatientId()); // ~5% cancellations
+                    } else if (roll == 1) {
+                        network.updatePatient(p.getPatientId(), p.getName(), 31, "Re-triaged", 1 + random.nextInt(3));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int d = 0; d < departmentCount; d++) {
+            final String department = names[d];
+            doctorTasks.add(pool.submit(() -> {
+                start.await();
+                while (true) {
+                    Patient p = network.callNextPatient(department);
+                    if (p == null) {
+                        if (desksDone.get() && network.getSize() == 0) {
+                            return null;
+                        }
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    if (servedBy.putIfAbsent(p.getPatientId(), department) != null) {
+                        servedTwice.incrementAndGet();
+                    }
+                    priorityWhenCalled.put(p.getPatientId(), p.getPriority());
+                }
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> task : deskTasks) {
+            task.get();
+        }
+        desksDone.set(true);
+        for (Future<?> task : doctorTasks) {
+            task.get();
+        }
+        long elapsedMs = (System.nanoTime() - begin) / 1_000_000;
+        pool.shutdown();
+
+        // A doctor may call a patient before the desk recorded it, so steals are counted afterwards
+        Set<String> served = servedBy.keySet();
+        int stolenSeen = 0;
+        int wronglyStolen = 0;
+        for (Map.Entry<String, String> call : servedBy.entrySet()) {
+            if (!call.getValue().equals(admittedTo.get(call.getKey()))) {
+                stolenSeen++;
+                if (priorityWhenCalled.get(call.getKey()) != 1) {
+                    wronglyStolen++;
+                }
+            }
+        }
+
+        // Every admitted patient must end up in exactly one of served / removed
+        Set<String> overlap = new HashSet<>(served);
+        overlap.retainAll(removed);
+        Set<String> accounted = new HashSet<>(served);
+        accounted.addAll(removed);
+        long stolenBy = 0;
+        long stolenFrom = 0;
+        for (String department : names) {
+            stolenBy += network.getStolenBy(department);
+            stolenFrom += network.getStolenFrom(department);
+        }
+
+        List<String> failures = new ArrayList<>();
+        if (duplicateIds.get() > 0) failures.add(duplicateIds.get() + " duplicate ID(s) issued");
+        if (servedTwice.get() > 0) failures.add(servedTwice.get() + " patient(s) served twice");
+        if (!overlap.isEmpty()) failures.add(overlap.size() + " patient(s) both served and removed");
+        if (!accounted.equals(admittedTo.keySet())) failures.add((admittedTo.size() - accounted.size()) + " patient(s) lost");
+        if (network.getSize() != 0) failures.add("network not empty at the end");
+        if (wronglyStolen > 0) failures.add(wronglyStolen + " non-Critical patient(s) stolen");
+        if (stolenBy != stolenFrom || stolenBy != stolenSeen) {
+            failures.add("stolen counters " + stolenBy + "/" + stolenFrom + ", doctors saw " + stolenSeen);
+        }
+
+        long operations = (long) total * 2; // One admission plus one call or removal per patient
+        System.out.printf("%-11d | %10d | %9d | %8d | %12.0f%n",
+                departmentCount, total, elapsedMs, stolenSeen, operations * 1000.0 / Math.max(1, elapsedMs));
+        for (String failure : failures) {
+            System.out.println("   ❌ " + failure);
+        }
+        return failures.isEmpty();
+    }
+}
@@ -1,35 +1,118 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ClinicQueue Class - Manages the clinic patient queue using Priority Queue
- * Main Data Structure: Priority Queue (Heap-based implementation)
+ * Main Data Structure: Priority Queue (Indexed binary heap implementation)
  * 
  * This class demonstrates core operations:
  * - INSERT: Add patient to queue
  * - DELETE: Remove patient from queue
  * - UPDATE: Modify patient information
  * - SEARCH: Find patient by ID or name
+ *
+ * The operations report what happened as QueueEvents through an optional
+ * QueueEventDispatcher instead of printing; the console is just one listener.
  */
 public class ClinicQueue {
-    // Main data structure: Priority Queue (Min-Heap based on priority)
-    private PriorityQueue<Patient> patientQueue;
+    // Rows shown per page by displayQueue()
+    public static final int DISPLAY_PAGE_SIZE = 20;
     
-    // Supporting data structure for quick search by Patient ID
-    private HashMap<String, Patient> patientMap;
+    // Weight of the newest gap in the rolling average time between calls
+    private static final double CALL_INTERVAL_SMOOTHING = 1.0 / 16;
     
-    // Statistics tracking
+    // Main data structure: Priority Queue (Indexed Min-Heap by default, see PatientPriorityQueue)
+    private PatientPriorityQueue patientQueue;
+    
+    // Supporting data structure for quick search by Patient ID (numeric ID -> patient)
+    private IntPatientMap patientMap;
+    
+    // Supporting data structure for partial name search
+    private PatientNameIndex nameIndex;
+    
+    // Supporting data structure for queue positions (Fenwick tree per priority lane)
+    private QueuePositionIndex positionIndex;
+    
+    // Statistics tracking (maintained incrementally on every change)
     private int totalPatientsServed;
     private int totalPatientsAdmitted;
+    private int[] waitingByPriority; // [1] = Critical, [2] = Urgent, [3] = Regular
+    private long waitingArrivalSum; // Sum of arrival times of waiting patients
+    private long totalWaitMillis; // Total wait of all served patients
+    private long maxWaitMillis; // Longest wait of a served patient
     private int patientIdCounter; // For auto-generating patient IDs
+    private double callIntervalMillis; // Rolling average time between calls (0 = not measured yet)
+    private long lastCallTime = -1;    // Previous call while patients kept waiting (-1 = none)
+    private final AtomicInteger idSequence; // Shared with other shards of a ClinicNetwork, or null
+    
+    // Metrics (recorded without allocating, copied out by getMetrics)
+    private final LatencyHistogram[] waitHistograms;    // Wait in ms of served patients, per priority
+    private final LatencyHistogram[] latencyHistograms; // Nanoseconds per QueueMetrics.Operation
+    private int peakWaiting;
+    private int idLookups; // Picks the sampled searchByID calls (a lost update only moves a sample)
+    
+    // Priority aging (null = off): a timer per waiting patient for their next escalation
+    private AgingPolicy agingPolicy;
+    private TimerWheel<Patient> agingTimers;
+    private int totalEscalations;
+    
+    // Doctor-skill matching (null = off): sub-queues of patients by the skills they need
+    private SkillTable skillTable;
+    private SkillDispatchIndex dispatchIndex;
+    
+    // Source of arrival and call times (the system clock, or a simulated one for load tests)
+    private Clock clock;
+    
+    // Listeners for operation events (null = nobody is told; the queue itself never prints them)
+    private QueueEventDispatcher events;
+    
+    // Write-ahead journal for crash recovery (null = in-memory only)
+    private QueueJournal journal;
+    
+    // Column store of finished visits (null = forgotten once they leave the queue)
+    private VisitArchive archive;
+    
+    // Snapshot of the full state; the journal only keeps events after it
+    private Path snapshotPath;
+    private int snapshotInterval; // Journal events between automatic snapshots (0 = manual only)
+    private int eventsSinceSnapshot;
+    private ExecutorService snapshotWriter; // Writes automatic snapshots (created on first use)
+    private Future<?> pendingSnapshot;      // Automatic snapshot still being written, or null
     
     // Constructor
     public ClinicQueue() {
-        // PriorityQueue uses natural ordering (Comparable interface from Patient class)
-        this.patientQueue = new PriorityQueue<>();
-        this.patientMap = new HashMap<>();
+        // IndexedPatientHeap uses natural ordering (Comparable interface from Patient class)
+        this(new IndexedPatientHeap());
+    }
+    
+    // Constructor with a chosen queue strategy (e.g. new TriageBucketQueue())
+    public ClinicQueue(PatientPriorityQueue patientQueue) {
+        this(patientQueue, null);
+    }
+    
+    // Constructor for one department of a ClinicNetwork: IDs come from the network-wide sequence
+    ClinicQueue(PatientPriorityQueue patientQueue, AtomicInteger idSequence) {
+        this.idSequence = idSequence;
+        this.patientQueue = patientQueue;
+        this.patientMap = new IntPatientMap();
+        this.nameIndex = new PatientNameIndex();
+        this.positionIndex = new QueuePositionIndex();
         this.totalPatientsServed = 0;
         this.totalPatientsAdmitted = 0;
+        this.waitingByPriority = new int[QueueStats.LEVELS + 1];
         this.patientIdCounter = 1; // Start from P001
+        this.clock = Clock.systemUTC();
+        this.waitHistograms = QueueMetrics.newHistograms(QueueStats.LEVELS + 1);
+        this.latencyHistograms = QueueMetrics.newHistograms(QueueMetrics.Operation.values().length);
     }
     
     // ========== INSERT OPERATION ==========
@@ -38,150 +121,341 @@ public class ClinicQueue {
      * Time Complexity: O(log n) for heap insertion
      */
     public boolean addPatient(String name, int age, String condition, int priority) {
-        // Auto-generate patient ID in format P001, P002, etc.
-        String patientId = String.format("P%03d", patientIdCounter);
-        patientIdCounter++;
-        
-        // Create new patient with auto-generated ID
-        Patient patient = new Patient(patientId, name, age, condition, priority);
-        
-        patientQueue.offer(patient); // O(log n)
-        patientMap.put(patient.getPatientId(), patient);
-        totalPatientsAdmitted++;
-        
-        System.out.println("✅ Patient added successfully!");
-        System.out.println("   Auto-generated ID: " + patient.getPatientId());
-        System.out.println("   Patient: " + patient.getName());
-        System.out.println("   Priority: " + patient.getPriorityLabel());
-        System.out.println("   Current queue size: " + patientQueue.size());
+        admitNew(name, age, condition, priority);
         return true;
     }
     
+    // addPatient, returning the admitted patient (used by ClinicNetwork)
+    Patient admitNew(String name, int age, String condition, int priority) {
+        checkPriority(priority);
+        long start = System.nanoTime();
+        try {
+            // Auto-generate the numeric patient ID; it is shown as P001, P002, etc.
+            int patientId = reserveIds(1);
+
+            // Create new patient with auto-generated ID
+            Patient patient = new Patient(patientId, name, age, condition, priority, clock.millis());
+            if (journal != null) {
+                journal.logAdd(patient);
+            }
+
+            admit(patient); // O(log n)
+
+            if (publishing()) {
+                events.publish(QueueEvent.added(patient, patientQueue.size()));
+            }
+            maybeSnapshot();
+            return patient;
+        } finally {
+            recordLatency(QueueMetrics.Operation.ADD_PATIENT, start);
+        }
+    }
+    
+    /**
+     * Admit a group of patients at once (e.g. an ambulance convoy or the morning opening)
+     * One consecutive block of IDs is reserved, every patient gets the same arrival time
+     * (FIFO within the group follows the order given), and the group is merged into the
+     * queue in one step. Listeners get a single ADDED_BATCH event.
+     * Time Complexity: O(n + k) with the heap (bottom-up heapify), O(k) with triage lanes
+     *
+     * @return the admitted patients, in the order given
+     */
+    public List<Patient> addPatients(Collection<AdmissionRequest> admissions) {
+        long start = System.nanoTime();
+        try {
+            List<Patient> patients = new ArrayList<>(admissions.size());
+            if (admissions.isEmpty()) {
+                return patients;
+            }
+            for (AdmissionRequest admission : admissions) {
+                checkPriority(admission.getPriority()); // All or nothing: before any ID or journal record
+            }
+            // Reserve the whole ID block before building anything
+            int firstId = reserveIds(admissions.size());
+
+            long arrivalTime = clock.millis();
+            int patientId = firstId;
+            for (AdmissionRequest admission : admissions) {
+                patients.add(new Patient(patientId++, admission.getName(), admission.getAge(),
+                        admission.getCondition(), admission.getPriority(), arrivalTime));
+            }
+            if (journal != null) {
+                journal.logAddAll(patients);
+            }
+
+            patientQueue.offerAll(patients); // O(n + k) heapify instead of k separate inserts
+            for (Patient patient : patients) {
+                track(patient);
+            }
+            totalPatientsAdmitted += patients.size();
+
+            if (publishing()) {
+                events.publish(QueueEvent.addedBatch(patients, patientQueue.size()));
+            }
+            maybeSnapshot(patients.size());
+            return patients;
+        } finally {
+            recordLatency(QueueMetrics.Operation.ADD_PATIENTS, start);
+        }
+    }
+    
     // ========== DELETE OPERATION ==========
     /**
      * Remove and return the highest priority patient (next to be treated)
      * Time Complexity: O(log n) for heap removal
      */
     public Patient callNextPatient() {
-        if (patientQueue.isEmpty()) {
-            System.out.println("❌ Queue is empty! No patients waiting.");
-            return null;
+        long start = System.nanoTime();
+        try {
+            applyAging(); // Escalations that fell due change who is next
+            if (patientQueue.isEmpty()) {
+                if (publishing()) {
+                    events.publish(QueueEvent.queueEmpty());
+                }
+                return null;
+            }
+
+            long callTime = clock.millis();
+            if (journal != null) {
+                journal.logCall(patientQueue.peek().getId(), callTime);
+            }
+            Patient nextPatient = patientQueue.poll(); // O(log n) - removes root of heap
+            serve(nextPatient, callTime);
+            if (archive != null) {
+                archive.append(nextPatient, callTime, VisitArchive.Outcome.TREATED);
+            }
+
+            if (publishing()) {
+                events.publish(QueueEvent.called(nextPatient, patientQueue.size()));
+            }
+            maybeSnapshot();
+
+            return nextPatient;
+        } finally {
+            recordLatency(QueueMetrics.Operation.CALL_NEXT_PATIENT, start);
+        }
+    }
+    
+    /**
+     * Call the next k patients at once (e.g. several doctors free up at shift change)
+     * The group is taken off the queue in one bounded extraction, shares one call time
+     * and updates the served statistics once. Listeners get a single CALLED_BATCH event.
+     * Time Complexity: O(k log n) with the heap, O(k) with triage lanes
+     *
+     * @return up to k patients in treatment order (fewer if fewer are waiting)
+     */
+    public List<Patient> callNextPatients(int k) {
+        long start = System.nanoTime();
+        try {
+            if (k < 0) {
+                throw new IllegalArgumentException("Number of patients to call must not be negative: " + k);
+            }
+            applyAging();
+            if (patientQueue.isEmpty()) {
+                if (publishing()) {
+                    events.publish(QueueEvent.queueEmpty());
+                }
+                return new ArrayList<>();
+            }
+            if (k == 0) {
+                return new ArrayList<>();
+            }
+
+            long callTime = clock.millis();
+            if (journal != null) {
+                journal.logCallAll(patientQueue.view(0, k), callTime); // Same patients poll(k) takes next
+            }
+            List<Patient> called = patientQueue.poll(k);
+            serveAll(called, callTime);
+            if (archive != null) {
+                archive.appendAll(called, callTime, VisitArchive.Outcome.TREATED);
+            }
+
+            if (publishing()) {
+                events.publish(QueueEvent.calledBatch(called, patientQueue.size()));
+            }
+            maybeSnapshot(called.size());
+
+            return called;
+        } finally {
+            recordLatency(QueueMetrics.Operation.CALL_NEXT_PATIENTS, start);
+        }
+    }
+    
+    /**
+     * Call the most urgent patient this doctor has the skills for (see setSkillTable)
+     * A cardiologist may get a Critical chest-pain patient ahead of an earlier Critical
+     * fracture the orthopedist will take; patients needing no special skill go to
+     * whichever doctor calls first. Without a skill table this is callNextPatient().
+     * Time Complexity: O(l log n), l = distinct skill requirements waiting
+     *
+     * @return the patient, or null if nobody waiting may be seen by this doctor
+     */
+    public Patient callNextPatientFor(Doctor doctor) {
+        if (dispatchIndex == null) {
+            return callNextPatient();
+        }
+        long start = System.nanoTime();
+        try {
+            applyAging();
+            Patient nextPatient = dispatchIndex.next(doctor.getSkills()); // O(l log n), no scan of the heap
+            if (nextPatient == null) {
+                if (patientQueue.isEmpty() && publishing()) {
+                    events.publish(QueueEvent.queueEmpty());
+                }
+                return null;
+            }
+
+            long callTime = clock.millis();
+            if (journal != null) {
+                journal.logCall(nextPatient.getId(), callTime); // Replays like any call of this patient
+            }
+            patientQueue.remove(nextPatient); // O(log n) from the known heap slot
+            serve(nextPatient, callTime);
+            if (archive != null) {
+                archive.append(nextPatient, callTime, VisitArchive.Outcome.TREATED);
+            }
+
+            if (publishing()) {
+                events.publish(QueueEvent.called(nextPatient, patientQueue.size()));
+            }
+            maybeSnapshot();
+
+            return nextPatient;
+        } finally {
+            recordLatency(QueueMetrics.Operation.CALL_NEXT_PATIENT_FOR, start);
         }
-        
-        Patient nextPatient = patientQueue.poll(); // O(log n) - removes root of heap
-        patientMap.remove(nextPatient.getPatientId());
-        nextPatient.setStatus("In Treatment");
-        totalPatientsServed++;
-        
-        System.out.println("\n🏥 CALLING NEXT PATIENT:");
-        System.out.println("════════════════════════════════════════════════════════════════════════════════════════════════════");
-        System.out.println(nextPatient);
-        System.out.println("════════════════════════════════════════════════════════════════════════════════════════════════════");
-        System.out.println("Remaining patients in queue: " + patientQueue.size());
-        
-        return nextPatient;
     }
     
     /**
      * Remove a specific patient by ID
-     * Time Complexity: O(n) for searching in queue, O(log n) for removal
+     * Time Complexity: O(log n) - the patient's heap slot is known, no search needed
      */
     public boolean removePatient(String patientId) {
-        Patient patient = patientMap.get(patientId);
+        long start = System.nanoTime();
+        try {
+            Patient patient = patientMap.get(Patient.parseId(patientId));
 
-        if (patient == null) {
-            System.out.println("❌ Patient ID not found!");
-            return false;
-        }
+            if (patient == null) {
+                if (publishing()) {
+                    events.publish(QueueEvent.notFound(patientId));
+                }
+                return false;
+            }
 
-        // Remove from both data structures
-        boolean removedFromQueue = patientQueue.remove(patient); // O(n)
-        patientMap.remove(patientId); // O(1)
+            if (journal != null) {
+                journal.logRemove(patient.getId());
+            }
 
-        if (removedFromQueue) {
-            System.out.println("✅ Patient " + patientId + " removed from queue.");
-            return true;
-        } else {
-            System.out.println("⚠️ Patient was in map but not in queue (inconsistent state).");
-            return false;
+            // Remove from the queue and every lookup structure
+            boolean removedFromQueue = patientQueue.remove(patient); // O(log n)
+            untrack(patient); // O(1)
+
+            if (publishing()) {
+                events.publish(removedFromQueue ? QueueEvent.removed(patient.getId(), patientQueue.size())
+                                                : QueueEvent.notFound(patientId)); // Inconsistent state: map only
+            }
+            if (removedFromQueue) {
+                if (archive != null) {
+                    archive.append(patient, clock.millis(), VisitArchive.Outcome.REMOVED);
+                }
+                maybeSnapshot();
+            }
+            return removedFromQueue;
+        } finally {
+            recordLatency(QueueMetrics.Operation.REMOVE_PATIENT, start);
         }
     }
     
     // ========== UPDATE OPERATION ==========
     /**
      * Update patient information
-     * Time Complexity: O(n) to rebuild queue after update
+     * Time Complexity: O(log n) to re-position the patient if priority changes
      */
     public boolean updatePatient(String patientId, String newName, int newAge, 
                                  String newCondition, int newPriority) {
-        Patient patient = patientMap.get(patientId);
-        
-        if (patient == null) {
-            System.out.println("❌ Patient ID not found!");
-            return false;
-        }
-        
-        // Store old values for display
-        String oldName = patient.getName();
-        int oldPriority = patient.getPriority();
-        
-        // Remove from queue temporarily
-        patientQueue.remove(patient);
-        
-        // Update patient information
-        patient.setName(newName);
-        patient.setAge(newAge);
-        patient.setCondition(newCondition);
-        patient.setPriority(newPriority);
-        
-        // Re-add to queue (will be reordered based on new priority)
-        patientQueue.offer(patient);
-        
-        System.out.println("✅ Patient information updated successfully!");
-        System.out.println("   Patient ID: " + patientId);
-        if (!oldName.equals(newName)) {
-            System.out.println("   Name: " + oldName + " → " + newName);
-        }
-        if (oldPriority != newPriority) {
-            System.out.println("   Priority: " + getPriorityLabel(oldPriority) + " → " + patient.getPriorityLabel());
+        checkPriority(newPriority);
+        newCondition = Patient.conditionOrEmpty(newCondition); // Journaled as given, so normalize first
+        long start = System.nanoTime();
+        try {
+            Patient patient = patientMap.get(Patient.parseId(patientId));
+
+            if (patient == null) {
+                if (publishing()) {
+                    events.publish(QueueEvent.notFound(patientId));
+                }
+                return false;
+            }
+
+            // Store old values for listeners
+            Patient previous = publishing() ? patient.copy() : null;
+
+            if (journal != null) {
+                journal.logUpdate(patient.getId(), newName, newAge, newCondition, newPriority);
+            }
+
+            // Update patient information and re-position in queue (sift up or down)
+            applyChanges(patient, newName, newAge, newCondition, newPriority);
+
+            if (previous != null) {
+                events.publish(QueueEvent.updated(previous, patient, patientQueue.size()));
+            }
+            maybeSnapshot();
+
+            return true;
+        } finally {
+            recordLatency(QueueMetrics.Operation.UPDATE_PATIENT, start);
         }
-        
-        return true;
     }
     
     // ========== SEARCH OPERATIONS ==========
     /**
-     * Search for a patient by ID
-     * Time Complexity: O(1) using HashMap
+     * Search for a patient by ID ("P001")
+     * Time Complexity: O(1) - the text is parsed to the numeric ID, no string hashing
      */
     public Patient searchByID(String patientId) {
-        return patientMap.get(patientId);
+        return searchByID(Patient.parseId(patientId));
+    }
+    
+    /**
+     * Search for a patient by numeric ID (1 for "P001")
+     * Time Complexity: O(1), no allocation
+     */
+    public Patient searchByID(int patientId) {
+        if (++idLookups % QueueMetrics.SEARCH_BY_ID_SAMPLING != 0) {
+            return patientMap.get(patientId);
+        }
+        long start = System.nanoTime();
+        try {
+            return patientMap.get(patientId);
+        } finally {
+            recordLatency(QueueMetrics.Operation.SEARCH_BY_ID, start);
+        }
     }
     
     /**
      * Search for patients by name (partial match)
-     * Time Complexity: O(n)
+     * Time Complexity: O(k) using the n-gram name index, k = patients matched
      */
     public List<Patient> searchByName(String name) {
-     if (name == null || name.trim().isEmpty()) {
-            System.out.println("❌ Search name cannot be empty.");
-            return new ArrayList<>();
-        }
-        String lowerName = name.toLowerCase().trim();
-        List<Patient> results = new ArrayList<>();
-
-        for (Patient patient : patientMap.values()) {
-            if (patient.getName().toLowerCase().contains(lowerName)) {
-                results.add(patient);
+        long start = System.nanoTime();
+        try {
+            if (name == null || name.trim().isEmpty()) {
+                if (publishing()) {
+                    events.publish(QueueEvent.nameSearch("", 0));
+                }
+                return new ArrayList<>();
             }
-        }
+            String lowerName = name.toLowerCase().trim();
+            List<Patient> results = nameIndex.search(lowerName);
 
-        if (results.isEmpty()) {
-            System.out.println("🔍 No patients found with name containing: " + name);
-        } else {
-            System.out.println("🔍 Found " + results.size() + " patient(s) matching: " + name);
+            if (publishing()) {
+                events.publish(QueueEvent.nameSearch(name, results.size()));
+            }
+            return results;
+        } finally {
+            recordLatency(QueueMetrics.Operation.SEARCH_BY_NAME, start);
         }
-        return results;
     }
     
     /**
@@ -189,29 +463,103 @@ public class ClinicQueue {
      * Time Complexity: O(n)
      */
     public List<Patient> searchByPriority(int priority) {
-        List<Patient> results = new ArrayList<>();
-        for (Patient patient : patientMap.values()) {
-            if (patient.getPriority() == priority) {
-                results.add(patient);
+        long start = System.nanoTime();
+        try {
+            List<Patient> results = new ArrayList<>();
+            patientMap.forEach(patient -> {
+                if (patient.getPriority() == priority) {
+                    results.add(patient);
+                }
+            });
+
+            if (publishing()) {
+                events.publish(QueueEvent.prioritySearch(priority, results.size()));
             }
+            return results;
+        } finally {
+            recordLatency(QueueMetrics.Operation.SEARCH_BY_PRIORITY, start);
         }
-
-        if (results.isEmpty()) {
-            System.out.println("🔍 No patients found with priority: " + getPriorityLabel(priority));
-        } else {
-            System.out.println("🔍 Found " + results.size() + " patient(s) with priority: " + getPriorityLabel(priority));
+    }
+    
+    /**
+     * Get one page of waiting patients in treatment order (offset 0 = next patient)
+     * Only the first offset + limit patients are ordered, not the whole queue.
+     * Time Complexity: O(m log m) with the heap, O(m) with triage lanes, m = offset + limit
+     */
+    public List<Patient> view(int offset, int limit) {
+        long start = System.nanoTime();
+        try {
+            return patientQueue.view(offset, limit);
+        } finally {
+            recordLatency(QueueMetrics.Operation.VIEW, start);
         }
-        return results;
+    }
+    
+    // ========== QUEUE POSITION ==========
+    /**
+     * Place of a waiting patient in treatment order (1 = called next)
+     * Only counts, nothing is ordered: the patients in more urgent lanes plus the
+     * earlier admissions of the patient's own lane (see QueuePositionIndex).
+     * Time Complexity: O(log n)
+     *
+     * @return the position, or -1 if the patient is not waiting
+     */
+    public int positionOf(String patientId) {
+        Patient patient = patientMap.get(Patient.parseId(patientId));
+        if (patient == null) {
+            return -1;
+        }
+        int priority = patient.getPriority();
+        if (priority < 1 || priority > QueueStats.LEVELS) {
+            return -1; // Not indexed
+        }
+        int ahead = positionIndex.countBefore(priority, patient.getId());
+        for (int level = 1; level < priority; level++) {
+            ahead += waitingByPriority[level];
+        }
+        return ahead + 1;
+    }
+    
+    /**
+     * Estimated time until a waiting patient is called, in milliseconds
+     * Position in line times the rolling average time between calls (a doctor's
+     * service time divided by the doctors working). Patients who arrive later with a
+     * more urgent priority can still go ahead, so this is a guide, not a promise.
+     * Time Complexity: O(log n)
+     *
+     * @return the estimate, or -1 if the patient is not waiting or no calls were timed yet
+     */
+    public long estimatedWait(String patientId) {
+        int position = positionOf(patientId);
+        if (position < 0 || callIntervalMillis == 0) {
+            return -1;
+        }
+        return Math.round(position * callIntervalMillis);
+    }
+    
+    // Rolling average time between calls in ms (0 until two calls were timed)
+    public double getAverageCallIntervalMillis() {
+        return callIntervalMillis;
     }
     
     // ========== DISPLAY OPERATIONS ==========
     /**
-     * Display all patients in queue (ordered by priority)
+     * Display the first page of the queue (ordered by priority)
      */
     public void displayQueue() {
+        displayQueue(0, DISPLAY_PAGE_SIZE);
+    }
+    
+    /**
+     * Display one page of the queue (ordered by priority)
+     * Time Complexity: O(m log m), m = offset + limit (see view)
+     *
+     * @return true if more patients follow this page
+     */
+    public boolean displayQueue(int offset, int limit) {
         if (patientQueue.isEmpty()) {
             System.out.println("\n📋 Queue is currently empty.");
-            return;
+            return false;
         }
         
         System.out.println("\n📋 CURRENT QUEUE STATUS:");
@@ -219,17 +567,22 @@ public class ClinicQueue {
         System.out.println("Patient ID | Name                 | Age | Condition                 | Priority           | Status");
         System.out.println("════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
         
-        // Create a copy to display without removing from actual queue
-        PriorityQueue<Patient> tempQueue = new PriorityQueue<>(patientQueue);
-        int position = 1;
+        // Only the rows on this page are ordered, the queue itself is not touched
+        List<Patient> page = view(offset, limit);
+        int position = offset + 1;
         
-        while (!tempQueue.isEmpty()) {
-            Patient patient = tempQueue.poll();
+        for (Patient patient : page) {
             System.out.printf("%-2d. %s\n", position++, patient);
         }
         
         System.out.println("════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
-        System.out.println("Total patients in queue: " + patientQueue.size());
+        int shownUpTo = offset + page.size();
+        if (page.isEmpty()) {
+            System.out.println("No patients on this page. Total patients in queue: " + patientQueue.size());
+        } else {
+            System.out.println("Showing " + (offset + 1) + "-" + shownUpTo + " of " + patientQueue.size() + " patients in queue");
+        }
+        return shownUpTo < patientQueue.size();
     }
     
     /**
@@ -243,35 +596,55 @@ public class ClinicQueue {
         System.out.println("Current Patients in Queue         : " + patientQueue.size());
         System.out.println("────────────────────────────────────────────────────────────────");
         
-        // Priority breakdown
-        int critical = 0, urgent = 0, regular = 0;
-        for (Patient p : patientMap.values()) {
-            switch (p.getPriority()) {
-                case 1: critical++; break;
-                case 2: urgent++; break;
-                case 3: regular++; break;
+        // Priority breakdown (kept up to date by every operation, no scan needed)
+        System.out.println("Priority Breakdown:");
+        System.out.println("  • CRITICAL/EMERGENCY (1): " + waitingByPriority[1]);
+        System.out.println("  • URGENT (2):             " + waitingByPriority[2]);
+        System.out.println("  • REGULAR (3):            " + waitingByPriority[3]);
+        if (agingPolicy != null) {
+            System.out.println("Aging: " + agingPolicy + " (" + totalEscalations + " escalated)");
+        }
+        System.out.println("────────────────────────────────────────────────────────────────");
+        
+        QueueStats stats = getStats(new QueueStats());
+        System.out.println("Wait Times:");
+        System.out.println("  • Average wait (served):  " + formatMinutes(stats.getAverageWaitMillis()));
+        System.out.println("  • Longest wait (served):  " + formatMinutes(stats.getMaxWaitMillis()));
+        System.out.println("  • Average current wait:   " + formatMinutes(stats.getAverageCurrentWaitMillis()));
+        System.out.println("────────────────────────────────────────────────────────────────");
+        
+        // Read the live histograms: this thread is the only one recording into them
+        System.out.printf("%-18s %10s %10s %10s %10s%n", "Wait Percentiles:", "p50", "p90", "p99", "max");
+        String[] levels = {"", "CRITICAL (1)", "URGENT (2)", "REGULAR (3)"};
+        for (int level = 1; level <= QueueStats.LEVELS; level++) {
+            LatencyHistogram waits = waitHistograms[level];
+            System.out.printf("  • %-14s %10s %10s %10s %10s%n", levels[level],
+                    formatMinutes(waits.getValueAtPercentile(50)), formatMinutes(waits.getValueAtPercentile(90)),
+                    formatMinutes(waits.getValueAtPercentile(99)), formatMinutes(waits.getMax()));
+        }
+        System.out.println("Queue Depth: " + patientQueue.size() + " now, " + peakWaiting + " at peak");
+        System.out.println("────────────────────────────────────────────────────────────────");
+        
+        System.out.printf("%-24s %10s %8s %8s %8s%n", "Operation Latency (µs):", "samples", "p50", "p99", "max");
+        for (QueueMetrics.Operation operation : QueueMetrics.Operation.values()) {
+            LatencyHistogram latency = latencyHistograms[operation.ordinal()];
+            if (latency.getCount() > 0) {
+                System.out.printf("  • %-20s %10d %8.1f %8.1f %8.1f%n", operation.getMethodName(), latency.getCount(),
+                        latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+                        latency.getMax() / 1000.0);
             }
         }
-        System.out.println("Priority Breakdown:");
-        System.out.println("  • CRITICAL/EMERGENCY (1): " + critical);
-        System.out.println("  • URGENT (2):             " + urgent);
-        System.out.println("  • REGULAR (3):            " + regular);
         
         System.out.println("════════════════════════════════════════════════════════════════");
     }
     
     /**
-     * Peek at the next patient without removing
+     * Peek at the next patient without removing, or null if empty
+     * Prints nothing: the caller (e.g. ClinicQueueSystem) shows the patient.
+     * Time Complexity: O(1)
      */
     public Patient peekNextPatient() {
-        if (patientQueue.isEmpty()) {
-            System.out.println("❌ No patient in queue to peek.");
-            return null;
-        }
-        Patient next = patientQueue.peek();
-        System.out.println("🩺 NEXT PATIENT (peek):");
-        System.out.println(next);
-        return next;
+        return patientQueue.peek();
     }
     
     /**
@@ -288,13 +661,566 @@ public class ClinicQueue {
         return patientQueue.size();
     }
     
-    // Helper method to get priority label
-    private String getPriorityLabel(int priority) {
-        switch (priority) {
-            case 1: return "CRITICAL/EMERGENCY";
-            case 2: return "URGENT";
-            case 3: return "REGULAR";
-            default: return "UNKNOWN";
+    /**
+     * Copy the current statistics into a caller-owned QueueStats (no allocation)
+     * Time Complexity: O(1)
+     */
+    public QueueStats getStats(QueueStats into) {
+        into.set(clock.millis(), totalPatientsAdmitted, totalPatientsServed,
+                waitingByPriority[1], waitingByPriority[2], waitingByPriority[3], patientQueue.size(),
+                waitingArrivalSum, totalWaitMillis, maxWaitMillis);
+        return into;
+    }
+    
+    /**
+     * Copy the wait-time and latency histograms and the depth gauges into a caller-owned
+     * QueueMetrics (no allocation). Histograms cover this process: restored snapshots
+     * bring back the counters but not the distributions, journal replay does.
+     * Time Complexity: O(b), b = histogram buckets in use
+     */
+    public QueueMetrics getMetrics(QueueMetrics into) {
+        into.set(clock.millis(), waitHistograms, latencyHistograms, waitingByPriority,
+                patientQueue.size(), peakWaiting);
+        return into;
+    }
+    
+    public int getTotalPatientsAdmitted() {
+        return totalPatientsAdmitted;
+    }
+    
+    public int getTotalPatientsServed() {
+        return totalPatientsServed;
+    }
+    
+    // ========== PRIORITY AGING ==========
+    /**
+     * Turn on priority aging with a policy, or off with null
+     * Every waiting patient gets one timer for their next escalation; afterwards timers
+     * are only set when a patient is admitted, re-triaged or escalated, so the queue is
+     * never rescanned.
+     * Time Complexity: O(n) once
+     */
+    public void setAgingPolicy(AgingPolicy policy) {
+        this.agingPolicy = policy;
+        if (policy == null) {
+            agingTimers = null;
+            return;
+        }
+        agingTimers = new TimerWheel<>(policy.getResolutionMillis(), clock.millis());
+        patientMap.forEach(this::scheduleAging);
+    }
+    
+    public AgingPolicy getAgingPolicy() {
+        return agingPolicy;
+    }
+    
+    /**
+     * Escalate every waiting patient whose aging threshold has passed
+     * Runs before each call of the next patient(s); a display can also call it before
+     * showing the queue. Each escalation is journaled and published like an update.
+     * Time Complexity: O(t + e log n), t = timer ticks passed, e = timers expired
+     *
+     * @return number of patients escalated
+     */
+    public int applyAging() {
+        if (agingTimers == null) {
+            return 0;
+        }
+        int before = totalEscalations;
+        agingTimers.advance(clock.millis(), this::age);
+        return totalEscalations - before;
+    }
+    
+    // Patients whose priority was raised by aging so far
+    public int getTotalEscalations() {
+        return totalEscalations;
+    }
+    
+    // ========== DOCTOR MATCHING ==========
+    /**
+     * Match doctors to patients by skill with this table, or stop with null
+     * Every waiting patient's condition is looked up once here, later ones when they
+     * are admitted or their condition changes; callNextPatientFor only compares masks.
+     * Time Complexity: O(n log n) once
+     */
+    public void setSkillTable(SkillTable table) {
+        this.skillTable = table;
+        if (table == null) {
+            dispatchIndex = null;
+            return;
         }
+        dispatchIndex = new SkillDispatchIndex(table, patientMap);
+        patientMap.forEach(dispatchIndex::add);
+    }
+    
+    public SkillTable getSkillTable() {
+        return skillTable;
+    }
+    
+    // ========== CLOCK ==========
+    /**
+     * Take arrival, call and aging times from another clock (e.g. ClinicWorkload's
+     * simulated clock, so a whole day runs in seconds with realistic waits)
+     * Set it before admitting anyone: waits are measured against this clock.
+     */
+    public void setClock(Clock clock) {
+        this.clock = Objects.requireNonNull(clock);
+        if (agingPolicy != null) {
+            setAgingPolicy(agingPolicy); // Restart the timer wheel at the new time
+        }
+    }
+    
+    // ========== EVENTS ==========
+    /**
+     * Send operation events (added, called, removed, ...) to a dispatcher's listeners
+     * The operations themselves do no console I/O; pass null to stop publishing.
+     */
+    public void setEventDispatcher(QueueEventDispatcher events) {
+        this.events = events;
+    }
+    
+    // Only build events somebody will receive
+    private boolean publishing() {
+        return events != null && events.hasListeners();
+    }
+    
+    // ========== PERSISTENCE ==========
+    /**
+     * Recover this queue from a journal and log every later change to it
+     * Must be called on a new, empty queue.
+     * Time Complexity: O(e), e = events in the journal
+     *
+     * @return number of events replayed
+     */
+    public int attachJournal(QueueJournal journal) throws IOException {
+        return attachJournal(journal, null);
+    }
+    
+    /**
+     * Recover this queue from a snapshot plus the journal events written after it
+     * Time Complexity: O(n + e), n = patients in the snapshot, e = newer journal events
+     *
+     * @return number of journal events replayed on top of the snapshot
+     */
+    public int attachJournal(QueueJournal journal, Path snapshotPath) throws IOException {
+        if (this.journal != null || totalPatientsAdmitted > 0) {
+            throw new IllegalStateException("A journal can only be attached to a new queue");
+        }
+        long snapshotSequence = 0;
+        if (snapshotPath != null && Files.exists(snapshotPath)) {
+            snapshotSequence = QueueSnapshot.load(snapshotPath, this);
+        }
+        int events = journal.replay(this, snapshotSequence);
+        this.journal = journal;
+        this.snapshotPath = snapshotPath;
+        this.eventsSinceSnapshot = events;
+        return events;
+    }
+    
+    /**
+     * Take a snapshot automatically after this many journal events (0 = only when asked)
+     * The operation that reaches the interval only copies the waiting patients (O(n), no
+     * sorting or I/O); a background thread sorts and writes them, then compacts the journal
+     * up to that point. Events logged meanwhile stay in the journal.
+     */
+    public void setSnapshotInterval(int events) {
+        if (snapshotPath == null) {
+            throw new IllegalStateException("Attach a journal with a snapshot path first");
+        }
+        this.snapshotInterval = events;
+    }
+    
+    /**
+     * Write a snapshot of the whole queue and truncate the journal it replaces
+     * Time Complexity: O(n log n)
+     */
+    public void takeSnapshot() throws IOException {
+        if (journal == null || snapshotPath == null) {
+            throw new IllegalStateException("Attach a journal with a snapshot path first");
+        }
+        awaitSnapshot(); // An older automatic snapshot must not be renamed over this one
+        journal.sync();
+        QueueSnapshot.write(this, getPatientQueueOrder(), journal.getLastSequence(), snapshotPath);
+        journal.compact(); // Safe: events up to the snapshot's sequence are skipped on replay
+        eventsSinceSnapshot = 0;
+    }
+    
+    // Called after each journaled operation
+    private void maybeSnapshot() {
+        maybeSnapshot(1);
+    }
+    
+    private void maybeSnapshot(int journalEvents) {
+        if (journal == null) {
+            return;
+        }
+        eventsSinceSnapshot += journalEvents;
+        if (snapshotInterval > 0 && eventsSinceSnapshot >= snapshotInterval && !snapshotPending()) {
+            startSnapshot();
+        }
+    }
+    
+    // Copy the state now, write it on the snapshot thread. O(n), no sorting or I/O here
+    private void startSnapshot() {
+        long sequence = journal.getLastSequence();
+        Patient[] waiting = new Patient[patientMap.size()];
+        int[] count = {0};
+        patientMap.forEach(patient -> waiting[count[0]++] = patient.copy());
+        QueueSnapshot.Image image = new QueueSnapshot.Image(this, waiting, sequence);
+        eventsSinceSnapshot = 0;
+        
+        if (snapshotWriter == null) {
+            snapshotWriter = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "queue-snapshot-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        QueueJournal snapshotJournal = journal;
+        Path path = snapshotPath;
+        pendingSnapshot = snapshotWriter.submit(() -> {
+            image.write(path);
+            snapshotJournal.compact(sequence); // Events up to sequence are in the snapshot
+            return null;
+        });
+    }
+    
+    // True while an automatic snapshot is being written; reports one that failed
+    private boolean snapshotPending() {
+        if (pendingSnapshot == null) {
+            return false;
+        }
+        if (!pendingSnapshot.isDone()) {
+            return true;
+        }
+        awaitSnapshot();
+        return false;
+    }
+    
+    /**
+     * Wait until an automatic snapshot being written in the background is finished
+     * (e.g. before closing the journal). No-op if none is.
+     */
+    public void awaitSnapshot() {
+        Future<?> pending = pendingSnapshot;
+        if (pending == null) {
+            return;
+        }
+        pendingSnapshot = null;
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    pending.get();
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true; // Finish waiting; the files must not change after we return
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException
+                    ? new UncheckedIOException("Cannot write snapshot " + snapshotPath, (IOException) cause)
+                    : new IllegalStateException("Cannot write snapshot " + snapshotPath, cause);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Write pending journal events to disk (no-op without a journal)
+     */
+    public void syncJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.sync();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot sync journal " + journal.getPath(), e);
+        }
+    }
+    
+    /**
+     * Keep a row for every patient who is called or removed from now on (null = stop)
+     * Journal replay does not add rows: those visits were archived when they happened.
+     */
+    public void setVisitArchive(VisitArchive archive) {
+        this.archive = archive;
+    }
+    
+    public VisitArchive getVisitArchive() {
+        return archive;
+    }
+    
+    // Journal and snapshot a QueueReplicator ships to new followers
+    QueueJournal getJournal() {
+        return journal;
+    }
+    
+    Path getSnapshotPath() {
+        return snapshotPath;
+    }
+    
+    /**
+     * Log every later change to a new journal, keeping the state this queue already has
+     * (a promoted QueueFollower: its state came from the old leader, not from a replay).
+     * A snapshot is written at once, so the new journal and snapshot recover this state.
+     */
+    void continueWithJournal(QueueJournal journal, Path snapshotPath) throws IOException {
+        if (this.journal != null) {
+            throw new IllegalStateException("This queue already has a journal");
+        }
+        this.journal = journal;
+        this.snapshotPath = snapshotPath;
+        takeSnapshot();
+    }
+    
+    // Snapshot restore: a waiting patient with all fields already set
+    void restorePatient(Patient patient) {
+        patientQueue.offer(patient);
+        track(patient);
+    }
+    
+    void restoreCounters(int patientIdCounter, int totalPatientsAdmitted, int totalPatientsServed,
+                         long totalWaitMillis, long maxWaitMillis) {
+        this.patientIdCounter = patientIdCounter;
+        skipIdsBelow(patientIdCounter);
+        this.totalPatientsAdmitted = totalPatientsAdmitted;
+        this.totalPatientsServed = totalPatientsServed;
+        this.totalWaitMillis = totalWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+    
+    List<Patient> getPatientQueueOrder() {
+        return patientQueue.toSortedList();
+    }
+    
+    long getTotalWaitMillis() {
+        return totalWaitMillis;
+    }
+    
+    long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+    
+    int getPatientIdCounter() {
+        return patientIdCounter;
+    }
+    
+    // Journal replay: same state changes as the public operations, without output or logging
+    void applyAdd(int patientId, String name, int age, String condition, int priority, long arrivalTime) {
+        admit(new Patient(patientId, name, age, condition, priority, arrivalTime));
+        patientIdCounter = Math.max(patientIdCounter, patientId + 1);
+        skipIdsBelow(patientIdCounter);
+    }
+    
+    void applyCall(int patientId, long callTime) {
+        Patient patient = patientMap.get(patientId);
+        if (patient != null) {
+            patientQueue.remove(patient);
+            serve(patient, callTime);
+        }
+    }
+    
+    void applyRemove(int patientId) {
+        Patient patient = patientMap.get(patientId);
+        if (patient != null) {
+            patientQueue.remove(patient);
+            untrack(patient);
+        }
+    }
+    
+    void applyUpdate(int patientId, String name, int age, String condition, int priority) {
+        Patient patient = patientMap.get(patientId);
+        if (patient != null) {
+            applyChanges(patient, name, age, condition, priority);
+        }
+    }
+    
+    // Patients waiting with one priority level (used by ClinicNetwork to find Critical patients)
+    int getWaitingCount(int priority) {
+        return priority >= 1 && priority <= QueueStats.LEVELS ? waitingByPriority[priority] : 0;
+    }
+    
+    // ========== INTERNAL BOOKKEEPING ==========
+    
+    // Set the timer for a waiting patient's next aging step, if there is one. O(1)
+    private void scheduleAging(Patient patient) {
+        long threshold = agingPolicy.nextThreshold(patient.getPriority());
+        if (threshold >= 0) {
+            agingTimers.schedule(patient.getArrivalTime() + threshold, patient);
+        }
+    }
+    
+    // Aging timer expired. Timers are not cancelled, so check the patient still needs it
+    private void age(Patient patient) {
+        if (patientMap.get(patient.getId()) != patient) {
+            return; // Called or removed since the timer was set
+        }
+        long wait = clock.millis() - patient.getArrivalTime();
+        int aged = agingPolicy.agedPriority(patient.getPriority(), wait);
+        if (aged >= patient.getPriority()) {
+            return; // Re-triaged since; that change set its own timer
+        }
+        Patient previous = publishing() ? patient.copy() : null;
+        if (journal != null) {
+            journal.logUpdate(patient.getId(), patient.getName(), patient.getAge(), patient.getCondition(), aged);
+        }
+        applyChanges(patient, patient.getName(), patient.getAge(), patient.getCondition(), aged); // O(log n)
+        totalEscalations++;
+        if (previous != null) {
+            events.publish(QueueEvent.updated(previous, patient, patientQueue.size()));
+        }
+        maybeSnapshot();
+    }
+    
+    // Take count consecutive patient IDs and return the first one
+    private int reserveIds(int count) {
+        int firstId = idSequence != null ? idSequence.getAndAdd(count) : patientIdCounter;
+        patientIdCounter = Math.max(patientIdCounter, firstId + count);
+        return firstId;
+    }
+    
+    // Replay and restore: never hand out an ID that is already in use again
+    private void skipIdsBelow(int nextId) {
+        if (idSequence != null) {
+            idSequence.accumulateAndGet(nextId, Math::max);
+        }
+    }
+    // Shared by the public operations, journal replay and snapshot restore
+    
+    // Queue a new patient and start tracking it
+    private void admit(Patient patient) {
+        patientQueue.offer(patient);
+        track(patient);
+        totalPatientsAdmitted++;
+    }
+    
+    // Finish a patient already taken off the queue by a doctor
+    private void serve(Patient patient, long callTime) {
+        untrack(patient);
+        timeCalls(callTime, 1);
+        patient.setStatus("In Treatment");
+        totalPatientsServed++;
+        long wait = Math.max(0, callTime - patient.getArrivalTime());
+        totalWaitMillis += wait;
+        maxWaitMillis = Math.max(maxWaitMillis, wait);
+        recordWait(patient.getPriority(), wait);
+    }
+    
+    // Finish a group of patients taken off the queue together: the served totals change once
+    private void serveAll(List<Patient> patients, long callTime) {
+        long waitSum = 0;
+        long longestWait = 0;
+        for (Patient patient : patients) {
+            untrack(patient);
+            patient.setStatus("In Treatment");
+            long wait = Math.max(0, callTime - patient.getArrivalTime());
+            recordWait(patient.getPriority(), wait);
+            waitSum += wait;
+            longestWait = Math.max(longestWait, wait);
+        }
+        timeCalls(callTime, patients.size());
+        totalPatientsServed += patients.size();
+        totalWaitMillis += waitSum;
+        maxWaitMillis = Math.max(maxWaitMillis, longestWait);
+    }
+    
+    // Change fields of a waiting patient, keeping the name index, queue order and counters right
+    private void applyChanges(Patient patient, String name, int age, String condition, int priority) {
+        int oldPriority = patient.getPriority();
+        if (priority != oldPriority) {
+            // Re-position first: a strategy that rejects the priority throws before anything else changed
+            patientQueue.changePriority(patient, priority);
+            countWaiting(oldPriority, -1);
+            positionIndex.remove(oldPriority, patient.getId());
+            countWaiting(priority, +1);
+            positionIndex.add(priority, patient.getId());
+            if (agingTimers != null) {
+                scheduleAging(patient);
+            }
+        }
+        boolean renamed = !patient.getName().equals(name);
+        boolean newCondition = !Objects.equals(patient.getCondition(), condition);
+        patient.setName(name);
+        patient.setAge(age);
+        patient.setCondition(condition);
+        if (renamed) {
+            nameIndex.update(patient);
+        }
+        if (dispatchIndex != null && (newCondition || priority != oldPriority)) {
+            dispatchIndex.update(patient, newCondition, priority != oldPriority);
+        }
+    }
+    
+    // Add a queued patient to the lookup structures and statistics
+    private void track(Patient patient) {
+        patientMap.put(patient);
+        nameIndex.add(patient);
+        positionIndex.add(patient.getPriority(), patient.getId());
+        countWaiting(patient.getPriority(), +1);
+        waitingArrivalSum += patient.getArrivalTime();
+        peakWaiting = Math.max(peakWaiting, patientQueue.size());
+        if (agingTimers != null) {
+            scheduleAging(patient);
+        }
+        if (dispatchIndex != null) {
+            dispatchIndex.add(patient);
+        }
+    }
+    
+    // Remove a patient that left the queue from the lookup structures and statistics
+    private void untrack(Patient patient) {
+        patientMap.remove(patient.getId());
+        nameIndex.remove(patient);
+        positionIndex.remove(patient.getPriority(), patient.getId());
+        countWaiting(patient.getPriority(), -1);
+        waitingArrivalSum -= patient.getArrivalTime();
+    }
+    
+    // Reject a priority before it is journaled: a record replay cannot apply would stop every recovery
+    private static void checkPriority(int priority) {
+        if (priority < 1 || priority > QueueStats.LEVELS) {
+            throw new IllegalArgumentException("Priority must be 1, 2 or 3: " + priority);
+        }
+    }
+    
+    private void countWaiting(int priority, int delta) {
+        if (priority >= 1 && priority <= QueueStats.LEVELS) {
+            waitingByPriority[priority] += delta;
+        }
+    }
+    
+    /**
+     * Fold the gap since the previous call into the rolling average, spread over the
+     * count patients called now (exponential moving average, ~16 calls of memory).
+     * Gaps after the queue ran empty are idle time, not service time, so they are skipped.
+     */
+    private void timeCalls(long callTime, int count) {
+        if (lastCallTime >= 0 && callTime >= lastCallTime && count > 0) {
+            double interval = (double) (callTime - lastCallTime) / count;
+            double weight = 1 - Math.pow(1 - CALL_INTERVAL_SMOOTHING, count);
+            callIntervalMillis = callIntervalMillis == 0 ? interval
+                                                         : callIntervalMillis + weight * (interval - callIntervalMillis);
+        }
+        lastCallTime = patientQueue.isEmpty() ? -1 : callTime;
+    }
+    
+    private void recordWait(int priority, long waitMillis) {
+        if (priority >= 1 && priority <= QueueStats.LEVELS) {
+            waitHistograms[priority].record(waitMillis);
+        }
+    }
+    
+    private void recordLatency(QueueMetrics.Operation operation, long startNanos) {
+        latencyHistograms[operation.ordinal()].record(System.nanoTime() - startNanos);
+    }
+    
+    // Format milliseconds as minutes for the statistics screen
+    private static String formatMinutes(long millis) {
+        return String.format("%.1f min", millis / 60000.0);
     }
 }
@@ -0,0 +1,168 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * ClinicQueueRecoveryTest - Restarts a journaled ClinicQueue and compares the result
+ * Runs random admissions, group admissions, calls, removals and re-triages against a
+ * queue with a journal and automatic snapshots, for both queue strategies. Invalid
+ * priorities are tried too: they must be rejected without leaving a journal record.
+ * Then a new queue recovers from the snapshot and journal files.
+ *
+ * Checks after every run:
+ * - the recovered queue holds the same patients in the same treatment order
+ * - admitted/served counters and the next patient ID match
+ *
+ * Usage: java ClinicQueueRecoveryTest [operations]   (exit code 1 on failure)
+ */
+public class ClinicQueueRecoveryTest {
+    private static final int DEFAULT_OPERATIONS = 50_000;
+
+    public static void main(String[] args) throws Exception {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_OPERATIONS;
+
+        System.out.println("\n🧪 JOURNAL RECOVERY TEST (" + operations + " operations per run)");
+        System.out.println("════════════════════════════════════════════════════════════════");
+        System.out.printf("%-20s | %9s | %8s | %12s | %s%n", "Strategy", "Waiting", "Rejected", "Recover (ms)", "Result");
+        System.out.println("════════════════════════════════════════════════════════════════");
+
+        boolean allPassed = run("IndexedPatientHeap", new IndexedPatientHeap(), new IndexedPatientHeap(), operations);
+        allPassed &= run("TriageBucketQueue", new TriageBucketQueue(), new TriageBucketQueue(), operations);
+        System.out.println("════════════════════════════════════════════════════════════════");
+        System.out.println(allPassed ? "✅ All runs passed: recovered queues match the originals."
+                                     : "❌ Recovery test FAILED.");
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+
+    // One run: operate on a journaled queue, then recover a second queue from its files
+    private static boolean run(String label, PatientPriorityQueue strategy, PatientPriorityQueue recoveredStrategy,
+                               int operations) throws IOException {
+        Path directory = Files.createTempDirectory("clinic-recovery");
+        Path journalPath = directory.resolve("clinic-queue.journal");
+        Path snapshotPath = directory.resolve("clinic-queue.snapshot");
+        try {
+            ClinicQueue queue = new ClinicQueue(strategy);
+            QueueJournal journal = QueueJournal.open(journalPath, QueueJournal.FsyncPolicy.NEVER);
+            queue.attachJournal(journal, snapshotPath);
+            queue.setSnapshotInterval(operations / 7 + 1); // Recover from a snapshot plus a journal tail
+            int rejected = operate(queue, new Random(label.hashCode()), operations);
+            queue.awaitSnapshot(); // Automatic snapshots are written in the background
+            journal.close();
+
+            ClinicQueue recovered = new ClinicQueue(recoveredStrategy);
+            long start = System.nanoTime();
+            QueueJournal reopened = QueueJournal.open(journalPath, QueueJournal.FsyncPolicy.NEVER);
+            String failure;
+            try {
+                recovered.attachJournal(reopened, snapshotPath);
+                failure = compare(queue, recovered);
+            } catch (RuntimeException e) {
+                failure = "recovery threw " + e;
+            } finally {
+                reopened.close();
+            }
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.printf("%-20s | %9d | %8d | %12d | %s%n", label, queue.getSize(), rejected, elapsedMs,
+                    failure == null ? "✅ OK" : "❌ " + failure);
+            return failure == null;
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    // Random clinic traffic; returns how many invalid operations were (correctly) rejected
+    private static int operate(ClinicQueue queue, Random random, int operations) {
+        String[] conditions = {"Chest Pain", "Fever", "Fracture", "Headache", "Checkup"};
+        int rejected = 0;
+        for (int i = 0; i < operations; i++) {
+            int roll = random.nextInt(100);
+            int lastId = queue.getPatientIdCounter() - 1;
+            String someId = Patient.formatId(1 + random.nextInt(Math.max(1, lastId)));
+            if (roll < 40) {
+                queue.addPatient("Patient " + i, random.nextInt(90), conditions[random.nextInt(conditions.length)],
+                        1 + random.nextInt(3));
+            } else if (roll < 45) {
+                List<AdmissionRequest> group = new ArrayList<>();
+                for (int k = random.nextInt(8); k >= 0; k--) {
+                    group.add(new AdmissionRequest("Group " + i + "-" + k, 30, "Accident", 1 + random.nextInt(3)));
+                }
+                queue.addPatients(group);
+            } else if (roll < 70) {
+                queue.callNextPatient();
+            } else if (roll < 75) {
+                queue.callNextPatients(random.nextInt(4));
+            } else if (roll < 82) {
+                queue.removePatient(someId);
+            } else if (roll < 97) {
+                Patient patient = queue.searchByID(someId);
+                if (patient != null) {
+                    queue.updatePatient(someId, patient.getName(), patient.getAge(), "Re-triaged", 1 + random.nextInt(3));
+                }
+            } else {
+                rejected += tryInvalid(queue, someId, random);
+            }
+        }
+        return rejected;
+    }
+
+    // An out-of-range priority must throw before anything is journaled
+    private static int tryInvalid(ClinicQueue queue, String someId, Random random) {
+        int priority = random.nextBoolean() ? 0 : 4 + random.nextInt(5);
+        try {
+            switch (random.nextInt(3)) {
+                case 0:
+                    queue.addPatient("Invalid", 40, "Typo", priority);
+                    break;
+                case 1:
+                    queue.addPatients(List.of(new AdmissionRequest("Valid", 40, "Ok", 2),
+                            new AdmissionRequest("Invalid", 40, "Typo", priority)));
+                    break;
+                default:
+                    queue.updatePatient(someId, "Invalid", 40, "Typo", priority);
+                    break;
+            }
+        } catch (IllegalArgumentException e) {
+            return 1;
+        }
+        throw new IllegalStateException("Priority " + priority + " was accepted");
+    }
+
+    // null if both queues hold the same state, otherwise the first difference
+    private static String compare(ClinicQueue original, ClinicQueue recovered) {
+        List<Patient> expected = original.getPatientQueueOrder();
+        List<Patient> actual = recovered.getPatientQueueOrder();
+        if (expected.size() != actual.size()) {
+            return "waiting " + actual.size() + ", expected " + expected.size();
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            Patient e = expected.get(i);
+            Patient a = actual.get(i);
+            if (e.getId() != a.getId() || e.getPriority() != a.getPriority() || !e.getName().equals(a.getName())
+                    || !e.getCondition().equals(a.getCondition()) || e.getArrivalTime() != a.getArrivalTime()) {
+                return "position " + (i + 1) + " is " + a.getPatientId() + ", expected " + e.getPatientId();
+            }
+        }
+        if (original.getTotalPatientsAdmitted() != recovered.getTotalPatientsAdmitted()
+                || original.getTotalPatientsServed() != recovered.getTotalPatientsServed()
+                || original.getPatientIdCounter() != recovered.getPatientIdCounter()) {
+            return "counters differ";
+        }
+        QueueStats expectedStats = original.getStats(new QueueStats());
+        QueueStats actualStats = recovered.getStats(new QueueStats());
+        for (int level = 1; level <= QueueStats.LEVELS; level++) {
+            if (expectedStats.getWaiting(level) != actualStats.getWaiting(level)) {
+                return "waiting at priority " + level + " differs";
+            }
+        }
+        return null;
+    }
+}
@@ -1,4 +1,8 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.function.IntFunction;
 
 /**
  * Clinic Queue Management System
@@ -12,15 +16,30 @@ import java.util.*;
  * for managing patient queues in a clinic environment.
  */
 public class ClinicQueueSystem {
+    // Journal + snapshot files that let the waiting room survive a restart
+    private static final Path JOURNAL_PATH = Paths.get("clinic-queue.journal");
+    private static final Path SNAPSHOT_PATH = Paths.get("clinic-queue.snapshot");
+    private static final int SNAPSHOT_EVERY_EVENTS = 1000;
+    
     private static ClinicQueue clinicQueue;
+    private static QueueJournal journal;
+    private static QueueEventDispatcher events;
     private static Scanner scanner;
     
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         clinicQueue = new ClinicQueue();
         scanner = new Scanner(System.in);
         
-        // Add some sample data for demonstration
-        addSampleData();
+        // Queue operations only publish events; this console prints them on the dispatcher thread
+        events = new QueueEventDispatcher();
+        events.addListener(new ConsoleQueueListener());
+        clinicQueue.setEventDispatcher(events);
+        
+        // Restore the queue from disk; only a brand-new clinic gets sample data
+        recoverQueue();
+        if (clinicQueue.getTotalPatientsAdmitted() == 0) {
+            addSampleData();
+        }
         
         // Main program loop
         boolean running = true;
@@ -45,7 +64,7 @@ public class ClinicQueueSystem {
                     searchPatient();
                     break;
                 case 6:
-                    clinicQueue.displayQueue();
+                    displayQueue();
                     break;
                 case 7:
                     viewNextPatient();
@@ -70,6 +89,25 @@ public class ClinicQueueSystem {
         }
         
         scanner.close();
+        clinicQueue.takeSnapshot(); // Next startup loads the snapshot instead of replaying events
+        journal.close();
+        events.close();
+    }
+    
+    /**
+     * Load the latest snapshot and replay the journal events written after it
+     */
+    private static void recoverQueue() throws IOException {
+        journal = QueueJournal.open(JOURNAL_PATH, QueueJournal.FsyncPolicy.GROUP);
+        long start = System.nanoTime();
+        int events = clinicQueue.attachJournal(journal, SNAPSHOT_PATH);
+        clinicQueue.setSnapshotInterval(SNAPSHOT_EVERY_EVENTS);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        
+        if (clinicQueue.getTotalPatientsAdmitted() > 0) {
+            System.out.println("🔄 Recovered " + clinicQueue.getSize() + " waiting patient(s) from snapshot + "
+                    + events + " journal event(s) in " + elapsedMs + " ms");
+        }
     }
     
     /**
@@ -112,22 +150,18 @@ public class ClinicQueueSystem {
         System.out.println("╚════════════════════════════════════════════════════════════════════╝");
         System.out.println("\n📝 Patient ID will be auto-generated by the system.\n");
         
-        String name = getStringInput("Enter Patient Name: ");
-        int age = getIntInput("Enter Age: ");
+        String name = getNameInput("Enter Patient Name: ");
+        int age = getIntInput("Enter Age: ", AdmissionRequest::checkAge);
         String condition = getStringInput("Enter Medical Condition: ");
         
         System.out.println("\n📌 Priority Levels:");
         System.out.println("   [1] CRITICAL/EMERGENCY - Life-threatening conditions");
         System.out.println("   [2] URGENT - Serious conditions requiring prompt attention");
         System.out.println("   [3] REGULAR - Standard medical consultation");
-        int priority = getIntInput("Select Priority (1-3): ");
-        
-        while (priority < 1 || priority > 3) {
-            System.out.println("❌ Invalid priority! Please enter 1, 2, or 3.");
-            priority = getIntInput("Select Priority (1-3): ");
-        }
+        int priority = getIntInput("Select Priority (1-3): ", AdmissionRequest::checkPriority);
         
         clinicQueue.addPatient(name, age, condition, priority);
+        showEvents();
     }
     
     /**
@@ -139,12 +173,27 @@ public class ClinicQueueSystem {
         System.out.println("╚════════════════════════════════════════════════════════════════════╝");
         
         Patient nextPatient = clinicQueue.callNextPatient();
+        showEvents();
         
         if (nextPatient != null) {
             System.out.println("\n✅ Please proceed to the consultation room.");
         }
     }
     
+    /**
+     * Display the queue one page at a time
+     */
+    private static void displayQueue() {
+        int offset = 0;
+        while (clinicQueue.displayQueue(offset, ClinicQueue.DISPLAY_PAGE_SIZE)) {
+            String answer = getStringInput("\nPress Enter for the next page, or Q to stop: ");
+            if (answer.equalsIgnoreCase("q")) {
+                break;
+            }
+            offset += ClinicQueue.DISPLAY_PAGE_SIZE;
+        }
+    }
+    
     /**
      * Remove a specific patient from queue (DELETE operation)
      */
@@ -156,6 +205,7 @@ public class ClinicQueueSystem {
         
         String patientId = getStringInput("\nEnter Patient ID to remove: ");
         clinicQueue.removePatient(patientId);
+        showEvents();
     }
     
     /**
@@ -182,16 +232,16 @@ public class ClinicQueueSystem {
         String newName = getStringInput("New Name [" + patient.getName() + "]: ");
         if (newName.isEmpty()) newName = patient.getName();
         
-        String ageInput = getStringInput("New Age [" + patient.getAge() + "]: ");
-        int newAge = ageInput.isEmpty() ? patient.getAge() : Integer.parseInt(ageInput);
+        int newAge = getIntInput("New Age [" + patient.getAge() + "]: ", patient.getAge(), AdmissionRequest::checkAge);
         
         String newCondition = getStringInput("New Condition [" + patient.getCondition() + "]: ");
         if (newCondition.isEmpty()) newCondition = patient.getCondition();
         
-        String priorityInput = getStringInput("New Priority (1-3) [" + patient.getPriority() + "]: ");
-        int newPriority = priorityInput.isEmpty() ? patient.getPriority() : Integer.parseInt(priorityInput);
+        int newPriority = getIntInput("New Priority (1-3) [" + patient.getPriority() + "]: ", patient.getPriority(),
+                AdmissionRequest::checkPriority);
         
         clinicQueue.updatePatient(patientId, newName, newAge, newCondition, newPriority);
+        showEvents();
     }
     
     /**
@@ -234,6 +284,9 @@ public class ClinicQueueSystem {
         if (patient != null) {
             System.out.println("\n✅ Patient found:");
             System.out.println(patient.toDetailedString());
+            long wait = clinicQueue.estimatedWait(patientId);
+            System.out.println("📍 Position in queue: " + clinicQueue.positionOf(patientId)
+                    + (wait >= 0 ? String.format(" (estimated wait: %.0f min)", wait / 60000.0) : ""));
         } else {
             System.out.println("\n❌ Patient not found!");
         }
@@ -245,6 +298,7 @@ public class ClinicQueueSystem {
     private static void searchByName() {
         String name = getStringInput("Enter Patient Name (partial match allowed): ");
         List<Patient> results = clinicQueue.searchByName(name);
+        showEvents();
         
         if (results.isEmpty()) {
             System.out.println("\n❌ No patients found with name: " + name);
@@ -269,6 +323,7 @@ public class ClinicQueueSystem {
         
         int priority = getIntInput("Enter priority level (1-3): ");
         List<Patient> results = clinicQueue.searchByPriority(priority);
+        showEvents();
         
         if (results.isEmpty()) {
             System.out.println("\n❌ No patients found with this priority level.");
@@ -313,7 +368,7 @@ public class ClinicQueueSystem {
         System.out.println("\n📝 Core Operations Implemented:");
         System.out.println("   ✓ INSERT    - Add patient to queue (O(log n))");
         System.out.println("   ✓ DELETE    - Remove patient from queue (O(log n))");
-        System.out.println("   ✓ UPDATE    - Modify patient information (O(n))");
+        System.out.println("   ✓ UPDATE    - Modify patient information (O(log n))");
         System.out.println("   ✓ SEARCH    - Find patient by ID/Name/Priority (O(1) to O(n))");
         System.out.println("\n🎨 Key Features:");
         System.out.println("   • Priority-based patient queuing (Emergency > Urgent > Regular)");
@@ -364,10 +419,19 @@ public class ClinicQueueSystem {
         clinicQueue.addPatient("Mike Johnson", 62, "Difficulty Breathing", 2);
         clinicQueue.addPatient("Emma Wilson", 35, "Regular Checkup", 3);
         clinicQueue.addPatient("David Brown", 50, "Severe Headache", 2);
+        showEvents();
     }
     
     // ========== UTILITY METHODS ==========
     
+    /**
+     * Wait until the console listener has printed the last operation's messages,
+     * so they appear before whatever this screen prints next
+     */
+    private static void showEvents() {
+        events.awaitIdle();
+    }
+    
     /**
      * Get string input from user
      */
@@ -391,6 +455,58 @@ public class ClinicQueueSystem {
         }
     }
     
+    /**
+     * Get a patient name, asking again until it passes AdmissionRequest.checkName
+     */
+    private static String getNameInput(String prompt) {
+        while (true) {
+            String name = getStringInput(prompt);
+            String error = AdmissionRequest.checkName(name);
+            if (error == null) {
+                return name;
+            }
+            System.out.println("❌ Invalid input! " + error);
+        }
+    }
+    
+    /**
+     * Get integer input, asking again until it passes check (an AdmissionRequest rule,
+     * the same ones CSV import applies)
+     */
+    private static int getIntInput(String prompt, IntFunction<String> check) {
+        while (true) {
+            int value = getIntInput(prompt);
+            String error = check.apply(value);
+            if (error == null) {
+                return value;
+            }
+            System.out.println("❌ Invalid input! " + error);
+        }
+    }
+    
+    /**
+     * Get integer input that passes check, keeping currentValue when the user just presses Enter
+     */
+    private static int getIntInput(String prompt, int currentValue, IntFunction<String> check) {
+        while (true) {
+            System.out.print(prompt);
+            String input = scanner.nextLine().trim();
+            if (input.isEmpty()) {
+                return currentValue;
+            }
+            try {
+                int value = Integer.parseInt(input);
+                String error = check.apply(value);
+                if (error == null) {
+                    return value;
+                }
+                System.out.println("❌ Invalid input! " + error);
+            } catch (NumberFormatException e) {
+                System.out.println("❌ Invalid input! Please enter a valid number.");
+            }
+        }
+    }
+    
     /**
      * Clear screen (platform-independent)
      */
@@ -0,0 +1,566 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ClinicWorkload - Synthetic clinic days and trace replay against a real ClinicQueue
+ * A discrete-event simulation: arrivals, doctors, cancellations and re-triages are
+ * events on a simulated clock, and each one calls the public ClinicQueue operation a
+ * real desk or doctor would. The queue reads its time from the same clock
+ * (ClinicQueue.setClock), so a twelve-hour day runs in well under a second and the
+ * wait statistics are still in clinic minutes.
+ *
+ * Generated day (all rates configurable):
+ * - arrivals per priority level are Poisson processes; an arrival is a burst (ambulance,
+ *   school bus) with burstProbability, admitted together with addPatients
+ * - a fraction of patients give up after an exponential patience and are removed
+ * - a fraction are re-triaged after an exponential delay (one level more urgent;
+ *   Critical patients improve to Urgent)
+ * - each doctor calls the next patient when free; treatment times are exponential
+ *   with a mean per priority level
+ *
+ * A generated day can be saved as a WorkloadTrace, and a trace recorded from a live
+ * queue (WorkloadTrace.Recorder) can be replayed, as fast as possible or speedup
+ * times faster than it happened. Both report throughput, queue depth over time, and
+ * the queue's own wait-time and latency statistics.
+ *
+ * Usage:
+ *   java ClinicWorkload [hours] [doctors] [seed]            (generate and run a day)
+ *   java ClinicWorkload save trace.tsv [hours] [doctors]    (also write the day as a trace)
+ *   java ClinicWorkload replay trace.tsv [speedup]          (0 = as fast as possible)
+ */
+public class ClinicWorkload {
+    private static final long MINUTE_MILLIS = 60_000;
+    private static final int DEPTH_SAMPLES = 24; // Rows of the depth-over-time table
+
+    private static final String[] NAMES = {"John Doe", "Sarah Smith", "Mike Johnson", "Emma Wilson", "Wei Tan",
+            "Aisha Rahman", "Omar Ahmad", "Maria Garcia", "Raj Kumar", "Grace Young"};
+    private static final String[] CONDITIONS = {"Fever", "Chest Pain", "Checkup", "Fracture", "Cough", "Headache"};
+
+    // Arrivals per hour for each priority level ([1] = Critical ... [3] = Regular)
+    private final double[] arrivalsPerHour = {0, 2, 6, 16};
+    // Mean treatment minutes for each priority level
+    private final double[] serviceMinutes = {0, 30, 15, 8};
+    private double burstProbability = 0.02;
+    private double meanBurstSize = 5;
+    private double cancellationRate = 0.05;
+    private double meanPatienceMinutes = 90;
+    private double retriageRate = 0.08;
+    private double meanRetriageMinutes = 30;
+    private int doctors = 5;
+    private double hours = 12;
+    private long seed = 42;
+
+    // ========== PROFILE ==========
+
+    public void setArrivalsPerHour(int priority, double perHour) {
+        arrivalsPerHour[checkPriority(priority)] = requireNonNegative(perHour, "Arrival rate");
+    }
+
+    public void setServiceMinutes(int priority, double meanMinutes) {
+        serviceMinutes[checkPriority(priority)] = requireNonNegative(meanMinutes, "Service time");
+    }
+
+    // Chance that an arrival brings a group, and the mean size of such a group
+    public void setBursts(double probability, double meanSize) {
+        this.burstProbability = requireFraction(probability, "Burst probability");
+        this.meanBurstSize = Math.max(1, meanSize);
+    }
+
+    // Fraction of patients who leave before being seen, and how long they wait before giving up
+    public void setCancellations(double rate, double meanPatienceMinutes) {
+        this.cancellationRate = requireFraction(rate, "Cancellation rate");
+        this.meanPatienceMinutes = requireNonNegative(meanPatienceMinutes, "Patience");
+    }
+
+    // Fraction of patients whose priority is changed while waiting, and after how long
+    public void setRetriages(double rate, double meanMinutes) {
+        this.retriageRate = requireFraction(rate, "Re-triage rate");
+        this.meanRetriageMinutes = requireNonNegative(meanMinutes, "Re-triage delay");
+    }
+
+    public void setDoctors(int doctors) {
+        if (doctors < 1) {
+            throw new IllegalArgumentException("At least one doctor is needed: " + doctors);
+        }
+        this.doctors = doctors;
+    }
+
+    public void setHours(double hours) {
+        this.hours = requireNonNegative(hours, "Length of the day");
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    // ========== GENERATED DAY ==========
+
+    // Simulation events, in time order (ties in the order they were scheduled)
+    private static final int ARRIVAL = 0, DOCTOR_FREE = 1, CANCEL = 2, RETRIAGE = 3;
+
+    private static final class Event {
+        final long time;
+        final long order;
+        final int kind;
+        final int value; // Priority (ARRIVAL) or patient ID (CANCEL, RETRIAGE)
+
+        Event(long time, long order, int kind, int value) {
+            this.time = time;
+            this.order = order;
+            this.kind = kind;
+            this.value = value;
+        }
+    }
+
+    // Pending simulation events, earliest first
+    private static final class Agenda {
+        private final PriorityQueue<Event> events = new PriorityQueue<>(
+                Comparator.comparingLong((Event e) -> e.time).thenComparingLong(e -> e.order));
+        private long scheduled;
+
+        void add(long time, int kind, int value) {
+            events.add(new Event(time, scheduled++, kind, value));
+        }
+
+        Event poll() {
+            return events.poll();
+        }
+
+        boolean isEmpty() {
+            return events.isEmpty();
+        }
+    }
+
+    /**
+     * Run one generated day against queue (which must be new) and report on it
+     * Time Complexity: O(e log e + e log n), e = simulated events, n = patients waiting
+     *
+     * @param speedup simulated time per real time (0 = as fast as possible)
+     */
+    public Report run(ClinicQueue queue, double speedup) {
+        Random random = new Random(seed);
+        Driver driver = new Driver(queue, speedup, (long) (hours * 60 * MINUTE_MILLIS));
+        Agenda agenda = new Agenda();
+
+        long start = driver.start;
+        long end = start + driver.duration;
+        for (int priority = 1; priority <= QueueStats.LEVELS; priority++) {
+            if (arrivalsPerHour[priority] > 0) {
+                agenda.add(start + nextArrival(random, priority), ARRIVAL, priority);
+            }
+        }
+        int idleDoctors = doctors;
+
+        while (!agenda.isEmpty()) {
+            Event event = agenda.poll();
+            if (event.time > end && event.kind != DOCTOR_FREE) {
+                continue; // Day is over: no new arrivals, cancellations or re-triages
+            }
+            driver.advanceTo(event.time);
+            switch (event.kind) {
+                case ARRIVAL: {
+                    int group = random.nextDouble() < burstProbability ? 1 + geometric(random, meanBurstSize - 1) : 1;
+                    List<Patient> admitted = admit(queue, random, event.value, group);
+                    for (Patient patient : admitted) {
+                        driver.trace.add(WorkloadTrace.Operation.add(event.time - start, patient));
+                        if (random.nextDouble() < cancellationRate) {
+                            agenda.add(event.time + exponential(random, meanPatienceMinutes), CANCEL, patient.getId());
+                        }
+                        if (random.nextDouble() < retriageRate) {
+                            agenda.add(event.time + exponential(random, meanRetriageMinutes), RETRIAGE, patient.getId());
+                        }
+                    }
+                    driver.admitted += admitted.size();
+                    agenda.add(event.time + nextArrival(random, event.value), ARRIVAL, event.value);
+                    for (; idleDoctors > 0; idleDoctors--) {
+                        agenda.add(event.time, DOCTOR_FREE, 0); // Idle doctors see the newcomers
+                    }
+                    break;
+                }
+                case DOCTOR_FREE: {
+                    Patient next = queue.isEmpty() ? null : queue.callNextPatient();
+                    if (next == null) {
+                        idleDoctors++;
+                        break;
+                    }
+                    driver.trace.add(WorkloadTrace.Operation.call(event.time - start, 1));
+                    driver.served++;
+                    agenda.add(event.time + exponential(random, serviceMinutes[next.getPriority()]), DOCTOR_FREE, 0);
+                    break;
+                }
+                case CANCEL:
+                    if (queue.removePatient(Patient.formatId(event.value))) {
+                        driver.trace.add(WorkloadTrace.Operation.remove(event.time - start, event.value));
+                        driver.cancelled++;
+                    }
+                    break;
+                case RETRIAGE: {
+                    Patient patient = queue.searchByID(event.value);
+                    if (patient != null) {
+                        int priority = patient.getPriority() > 1 ? patient.getPriority() - 1 : 2;
+                        queue.updatePatient(patient.getPatientId(), patient.getName(), patient.getAge(),
+                                patient.getCondition(), priority);
+                        driver.trace.add(WorkloadTrace.Operation.update(event.time - start, patient));
+                        driver.retriaged++;
+                    }
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Unknown simulation event " + event.kind);
+            }
+        }
+        return driver.finish();
+    }
+
+    // Admit one patient, or a group arriving together
+    private static List<Patient> admit(ClinicQueue queue, Random random, int priority, int group) {
+        if (group == 1) {
+            return List.of(queue.admitNew(pick(random, NAMES), 1 + random.nextInt(90), pick(random, CONDITIONS),
+                    priority));
+        }
+        List<AdmissionRequest> admissions = new ArrayList<>(group);
+        for (int i = 0; i < group; i++) {
+            admissions.add(new AdmissionRequest(pick(random, NAMES), 1 + random.nextInt(90),
+                    pick(random, CONDITIONS), priority));
+        }
+        return queue.addPatients(admissions);
+    }
+
+    private long nextArrival(Random random, int priority) {
+        return exponential(random, 60.0 / arrivalsPerHour[priority]);
+    }
+
+    // Exponentially distributed delay in milliseconds for a mean given in minutes
+    private static long exponential(Random random, double meanMinutes) {
+        return (long) (-Math.log(1 - random.nextDouble()) * meanMinutes * MINUTE_MILLIS);
+    }
+
+    // Number of failures before a success, with the given mean
+    private static int geometric(Random random, double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        double p = 1 / (1 + mean);
+        return (int) Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // ========== REPLAY ==========
+    /**
+     * Replay a recorded trace against queue (which must be new)
+     * The traced IDs are mapped to the IDs this queue hands out, so operations on a
+     * patient reach the same patient. Operations are run at the traced times divided by
+     * speedup; the queue sees the traced times either way.
+     * Time Complexity: O(e log n), e = traced operations
+     */
+    public static Report replay(WorkloadTrace trace, ClinicQueue queue, double speedup) {
+        Driver driver = new Driver(queue, speedup, trace.getDurationMillis());
+        Map<Integer, String> replayed = new HashMap<>(); // Traced ID -> ID in this queue
+        for (WorkloadTrace.Operation operation : trace.getOperations()) {
+            driver.advanceTo(driver.start + operation.getTime());
+            switch (operation.getType()) {
+                case ADD: {
+                    Patient patient = queue.admitNew(operation.getName(), operation.getAge(),
+                            operation.getCondition(), operation.getPriority());
+                    replayed.put(operation.getId(), patient.getPatientId());
+                    driver.admitted++;
+                    break;
+                }
+                case CALL:
+                    if (operation.getCount() == 1) {
+                        driver.served += queue.callNextPatient() != null ? 1 : 0;
+                    } else {
+                        driver.served += queue.callNextPatients(operation.getCount()).size();
+                    }
+                    break;
+                case REMOVE: {
+                    String patientId = replayed.get(operation.getId());
+                    if (patientId != null && queue.removePatient(patientId)) {
+                        driver.cancelled++;
+                    }
+                    break;
+                }
+                case UPDATE: {
+                    String patientId = replayed.get(operation.getId());
+                    if (patientId != null && queue.updatePatient(patientId, operation.getName(), operation.getAge(),
+                            operation.getCondition(), operation.getPriority())) {
+                        driver.retriaged++;
+                    }
+                    break;
+                }
+                case SEARCH_NAME:
+                    queue.searchByName(operation.getQuery());
+                    break;
+                case SEARCH_PRIORITY:
+                    queue.searchByPriority(operation.getPriority());
+                    break;
+            }
+            driver.operations++;
+        }
+        return driver.finish();
+    }
+
+    // ========== DRIVER ==========
+
+    /**
+     * Clock the queue reads while a workload runs: moved forward by the driver only
+     */
+    static final class SimulatedClock extends Clock {
+        private volatile long millis;
+
+        SimulatedClock(long millis) {
+            this.millis = millis;
+        }
+
+        void set(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this; // Only instants are used; zones are applied by whoever formats them
+        }
+    }
+
+    // Moves the simulated clock, paces it against real time, samples the depth and counts
+    private static final class Driver {
+        final ClinicQueue queue;
+        final SimulatedClock clock;
+        final double speedup;
+        final long start;
+        final long duration;
+        final long realStart;
+        final long sampleEvery;
+        final List<WorkloadTrace.Operation> trace = new ArrayList<>();
+        final List<int[]> depth = new ArrayList<>(); // [waiting, critical, urgent, regular] per sample
+        final QueueStats stats = new QueueStats();
+        long nextSample;
+        long operations;
+        int admitted;
+        int served;
+        int cancelled;
+        int retriaged;
+
+        Driver(ClinicQueue queue, double speedup, long duration) {
+            if (speedup < 0) {
+                throw new IllegalArgumentException("Speed-up must not be negative: " + speedup);
+            }
+            this.queue = queue;
+            this.speedup = speedup;
+            this.start = System.currentTimeMillis();
+            this.duration = duration;
+            this.clock = new SimulatedClock(start);
+            this.sampleEvery = Math.max(1, duration / DEPTH_SAMPLES);
+            this.nextSample = start;
+            queue.setClock(clock);
+            this.realStart = System.nanoTime();
+        }
+
+        void advanceTo(long time) {
+            while (nextSample <= time) {
+                clock.set(nextSample);
+                queue.getStats(stats);
+                depth.add(new int[]{stats.getWaiting(), stats.getWaiting(1), stats.getWaiting(2), stats.getWaiting(3)});
+                nextSample += sampleEvery;
+            }
+            clock.set(time);
+            if (speedup > 0) {
+                long due = realStart + (long) ((time - start) * 1_000_000 / speedup);
+                for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+        }
+
+        Report finish() {
+            if (operations == 0) {
+                operations = trace.size();
+            }
+            return new Report(queue, clock.millis() - start, System.nanoTime() - realStart, operations,
+                    admitted, served, cancelled, retriaged, sampleEvery, depth, new WorkloadTrace(trace));
+        }
+    }
+
+    // ========== REPORT ==========
+    /**
+     * Outcome of a run: counts, throughput and the depth samples, plus the queue's own statistics
+     */
+    public static final class Report {
+        private final ClinicQueue queue;
+        private final long simulatedMillis;
+        private final long realNanos;
+        private final long operations;
+        private final int admitted;
+        private final int served;
+        private final int cancelled;
+        private final int retriaged;
+        private final long sampleEvery;
+        private final List<int[]> depth;
+        private final WorkloadTrace trace;
+
+        Report(ClinicQueue queue, long simulatedMillis, long realNanos, long operations, int admitted, int served,
+               int cancelled, int retriaged, long sampleEvery, List<int[]> depth, WorkloadTrace trace) {
+            this.queue = queue;
+            this.simulatedMillis = simulatedMillis;
+            this.realNanos = realNanos;
+            this.operations = operations;
+            this.admitted = admitted;
+            this.served = served;
+            this.cancelled = cancelled;
+            this.retriaged = retriaged;
+            this.sampleEvery = sampleEvery;
+            this.depth = depth;
+            this.trace = trace;
+        }
+
+        public int getAdmitted() {
+            return admitted;
+        }
+
+        public int getServed() {
+            return served;
+        }
+
+        public int getCancelled() {
+            return cancelled;
+        }
+
+        public int getRetriaged() {
+            return retriaged;
+        }
+
+        public long getOperations() {
+            return operations;
+        }
+
+        // Queue operations per real second
+        public double getOperationsPerSecond() {
+            return operations / Math.max(1e-9, realNanos / 1e9);
+        }
+
+        // Patients treated per simulated hour
+        public double getServedPerHour() {
+            return served / Math.max(1e-9, simulatedMillis / 3_600_000.0);
+        }
+
+        // Waiting patients at each sample: [total, critical, urgent, regular]
+        public List<int[]> getDepthSamples() {
+            return Collections.unmodifiableList(depth);
+        }
+
+        // Operations of a generated day as a trace (empty for a replay)
+        public WorkloadTrace getTrace() {
+            return trace;
+        }
+
+        public void print() {
+            System.out.println("\n🏥 CLINIC WORKLOAD:");
+            System.out.println("════════════════════════════════════════════════════════════════");
+            System.out.printf("Simulated time                    : %.1f h in %.2f s (%.0fx)%n",
+                    simulatedMillis / 3_600_000.0, realNanos / 1e9, simulatedMillis * 1e6 / Math.max(1, realNanos));
+            System.out.printf("Queue operations                  : %d (%.0f ops/s)%n", operations,
+                    getOperationsPerSecond());
+            System.out.printf("Admitted / Served                 : %d / %d (%.1f served per hour)%n", admitted,
+                    served, getServedPerHour());
+            System.out.println("Cancelled / Re-triaged            : " + cancelled + " / " + retriaged);
+            System.out.println("────────────────────────────────────────────────────────────────");
+
+            int peak = 1;
+            for (int[] sample : depth) {
+                peak = Math.max(peak, sample[0]);
+            }
+            System.out.printf("%-12s %6s %5s %5s %5s%n", "Queue Depth:", "total", "C", "U", "R");
+            for (int i = 0; i < depth.size(); i++) {
+                int[] sample = depth.get(i);
+                System.out.printf("  +%5.1f h   %6d %5d %5d %5d  %s%n", i * sampleEvery / 3_600_000.0, sample[0],
+                        sample[1], sample[2], sample[3], "█".repeat((int) Math.round(30.0 * sample[0] / peak)));
+            }
+            queue.displayStatistics();
+        }
+    }
+
+    // ========== MAIN ==========
+
+    public static void main(String[] args) throws IOException {
+        String mode = args.length > 0 && !Character.isDigit(args[0].charAt(0)) ? args[0] : "run";
+        ClinicQueue queue = new ClinicQueue();
+        if (mode.equals("replay")) {
+            if (args.length < 2) {
+                System.out.println("Usage: java ClinicWorkload replay trace.tsv [speedup]");
+                System.exit(2);
+            }
+            WorkloadTrace trace = WorkloadTrace.read(Paths.get(args[1]));
+            double speedup = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+            replay(trace, queue, speedup).print();
+            return;
+        }
+        if (!mode.equals("run") && !(mode.equals("save") && args.length >= 2)) {
+            System.out.println("Usage: java ClinicWorkload [save trace.tsv] [hours] [doctors] [seed]");
+            System.exit(2);
+        }
+        int first = mode.equals("run") ? 0 : 2;
+        ClinicWorkload workload = new ClinicWorkload();
+        if (args.length > first) {
+            workload.setHours(Double.parseDouble(args[first]));
+        }
+        if (args.length > first + 1) {
+            workload.setDoctors(Integer.parseInt(args[first + 1]));
+        }
+        if (args.length > first + 2) {
+            workload.setSeed(Long.parseLong(args[first + 2]));
+        }
+        Report report = workload.run(queue, 0);
+        report.print();
+        if (mode.equals("save")) {
+            report.getTrace().write(Paths.get(args[1]));
+            System.out.println("💾 " + report.getTrace().size() + " operations saved to " + args[1]);
+        }
+    }
+
+    // ========== VALIDATION ==========
+
+    private static int checkPriority(int priority) {
+        if (priority < 1 || priority > QueueStats.LEVELS) {
+            throw new IllegalArgumentException("Priority must be 1-" + QueueStats.LEVELS + ": " + priority);
+        }
+        return priority;
+    }
+
+    private static double requireNonNegative(double value, String what) {
+        if (!(value >= 0)) {
+            throw new IllegalArgumentException(what + " must not be negative: " + value);
+        }
+        return value;
+    }
+
+    private static double requireFraction(double value, String what) {
+        if (!(value >= 0 && value <= 1)) {
+            throw new IllegalArgumentException(what + " must be between 0 and 1: " + value);
+        }
+        return value;
+    }
+}
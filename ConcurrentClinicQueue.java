@@ -0,0 +1,429 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConcurrentClinicQueue Class - Thread-safe clinic queue shared by many desks and doctors
+ * Main Data Structure: Lock-free skip list (ConcurrentSkipListMap) keyed by a packed long
+ *
+ *   key = [ priority (high 32 bits) | admission number (low 32 bits) ]
+ *
+ * The priority bits split the key space into one lane per triage level, and the
+ * admission number keeps FIFO order inside each lane. Because all three lanes live
+ * in one ordered map, "take the first key" is a single linearizable step:
+ * callNextPatient never serves a patient twice and never skips a waiting patient
+ * of higher priority.
+ *
+ * Each skip list entry is a Ticket, and patientMap holds the patient's current one.
+ * A doctor owns a patient once patientMap.remove(id, ticket) succeeds. Re-triage
+ * puts the new ticket in before it switches patientMap and removes the old entry,
+ * so the patient never disappears from the skip list. Doctors drop entries whose
+ * ticket is no longer current. A doctor that reaches the new ticket before the
+ * switch finishes the update and then calls the patient.
+ *
+ * Thread-safety:
+ * - Patient IDs come from an AtomicInteger (no lock)
+ * - INSERT and CALL NEXT are lock-free
+ * - REMOVE and UPDATE lock only the one patient they change
+ * - Counters are LongAdders, so desks and doctors do not contend on one field
+ *
+ * Unlike ClinicQueue, this class prints nothing: callers on many threads decide
+ * what to show. Patient objects returned by searches may be updated concurrently,
+ * so their fields are a best-effort view.
+ */
+public class ConcurrentClinicQueue {
+    private static final int LEVELS = 3;
+
+    // Main data structure: ordered lanes, see class comment for the key layout
+    private final ConcurrentSkipListMap<Long, Ticket> patientQueue;
+
+    // Supporting data structure for quick search by Patient ID (numeric ID -> current ticket)
+    private final ConcurrentHashMap<Integer, Ticket> patientMap;
+
+    // Statistics tracking
+    private final LongAdder totalPatientsServed;
+    private final LongAdder totalPatientsAdmitted;
+    private final LongAdder[] waitingByPriority; // [0] = Critical, [1] = Urgent, [2] = Regular
+    private final AtomicInteger patientIdCounter; // For auto-generating patient IDs
+
+    // A queued patient at one skip list key; every re-triage issues a new ticket
+    private static final class Ticket {
+        final Patient patient;
+        final long key;
+        final int version; // Number of re-triages before this ticket
+        volatile boolean switchedByDoctor; // A doctor finished the update that issued this ticket
+
+        Ticket(Patient patient, long key, int version) {
+            this.patient = patient;
+            this.key = key;
+            this.version = version;
+        }
+    }
+
+    // Constructor
+    public ConcurrentClinicQueue() {
+        this.patientQueue = new ConcurrentSkipListMap<>();
+        this.patientMap = new ConcurrentHashMap<>();
+        this.totalPatientsServed = new LongAdder();
+        this.totalPatientsAdmitted = new LongAdder();
+        this.waitingByPriority = new LongAdder[LEVELS];
+        for (int i = 0; i < LEVELS; i++) {
+            waitingByPriority[i] = new LongAdder();
+        }
+        this.patientIdCounter = new AtomicInteger(1); // Start from P001
+    }
+
+    // ========== INSERT OPERATION ==========
+    /**
+     * Add a new patient with an auto-generated ID and return it
+     * Time Complexity: O(log n) expected, lock-free
+     */
+    public Patient addPatient(String name, int age, String condition, int priority) {
+        checkPriority(priority);
+        int admissionNumber = patientIdCounter.getAndIncrement();
+        Patient patient = new Patient(admissionNumber, name, age, condition, priority);
+        long key = keyOf(priority, admissionNumber);
+
+        // Visible by ID first, so a desk that just admitted the patient can always find them
+        Ticket ticket = new Ticket(patient, key, 0);
+        patientMap.put(admissionNumber, ticket);
+        waitingByPriority[priority - 1].increment();
+        totalPatientsAdmitted.increment();
+        patientQueue.put(key, ticket); // Linearization point: patient can now be called
+        return patient;
+    }
+
+    /**
+     * Admit a group of patients and return them in the order given
+     * The IDs are reserved as one consecutive block with a single atomic step, so a
+     * concurrent addPatient can never interleave an ID into the group. The skip list
+     * has no multi-key insert: each patient becomes callable on its own, exactly as if
+     * the group had been admitted one by one in the order given.
+     * Time Complexity: O(k log n) expected, lock-free
+     */
+    public List<Patient> addPatients(Collection<AdmissionRequest> admissions) {
+        for (AdmissionRequest admission : admissions) {
+            checkPriority(admission.getPriority()); // Reject the whole group before admitting anyone
+        }
+        List<Patient> patients = new ArrayList<>(admissions.size());
+        int admissionNumber = patientIdCounter.getAndAdd(admissions.size());
+        for (AdmissionRequest admission : admissions) {
+            int priority = admission.getPriority();
+            Patient patient = new Patient(admissionNumber, admission.getName(), admission.getAge(),
+                    admission.getCondition(), priority);
+            Ticket ticket = new Ticket(patient, keyOf(priority, admissionNumber), 0);
+            patientMap.put(admissionNumber, ticket);
+            waitingByPriority[priority - 1].increment();
+            patientQueue.put(ticket.key, ticket);
+            patients.add(patient);
+            admissionNumber++;
+        }
+        totalPatientsAdmitted.add(patients.size());
+        return patients;
+    }
+
+    // ========== DELETE OPERATION ==========
+    /**
+     * Remove and return the highest priority patient, or null if nobody is waiting
+     * Time Complexity: O(log n) expected, lock-free
+     */
+    public Patient callNextPatient() {
+        Ticket ticket = pollCurrentTicket();
+        if (ticket == null) {
+            return null;
+        }
+        Patient nextPatient = ticket.patient;
+        waitingByPriority[priorityOf(ticket.key) - 1].decrement();
+        totalPatientsServed.increment();
+        synchronized (nextPatient) {
+            nextPatient.setStatus("In Treatment");
+        }
+        return nextPatient;
+    }
+
+    /**
+     * Remove and return up to k highest priority patients, in treatment order
+     * Each patient is taken with its own linearizable poll, so two doctors calling
+     * groups at the same time never get the same patient; the counters are updated
+     * once for the whole group.
+     * Time Complexity: O(k log n) expected, lock-free
+     */
+    public List<Patient> callNextPatients(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Number of patients to call must not be negative: " + k);
+        }
+        List<Patient> called = new ArrayList<>(Math.min(k, 64));
+        int[] calledByLane = new int[LEVELS];
+        while (called.size() < k) {
+            Ticket ticket = pollCurrentTicket();
+            if (ticket == null) {
+                break;
+            }
+            Patient nextPatient = ticket.patient;
+            calledByLane[priorityOf(ticket.key) - 1]++;
+            synchronized (nextPatient) {
+                nextPatient.setStatus("In Treatment");
+            }
+            called.add(nextPatient);
+        }
+        for (int lane = 0; lane < LEVELS; lane++) {
+            if (calledByLane[lane] > 0) {
+                waitingByPriority[lane].add(-calledByLane[lane]);
+            }
+        }
+        totalPatientsServed.add(called.size());
+        return called;
+    }
+
+    // Take the first current ticket off the skip list, or null if nobody is waiting.
+    // Old tickets left behind by a re-triage are dropped on the way.
+    private Ticket pollCurrentTicket() {
+        while (true) {
+            Map.Entry<Long, Ticket> head = patientQueue.pollFirstEntry();
+            if (head == null) {
+                return null;
+            }
+            Ticket ticket = head.getValue();
+            int id = ticket.patient.getId();
+            if (patientMap.remove(id, ticket)) {
+                return ticket; // Linearization point
+            }
+            // A newer ticket whose update has not switched yet was first in line:
+            // finish the update here, then call the patient at the new priority
+            Ticket current = patientMap.get(id);
+            if (current != null && ticket.version > current.version && patientMap.replace(id, current, ticket)) {
+                ticket.switchedByDoctor = true;
+                patientMap.remove(id, ticket); // Cannot fail: this ticket is already off the skip list
+                return ticket;
+            }
+        }
+    }
+
+    /**
+     * Remove a specific patient by ID, returns false if not waiting
+     * Time Complexity: O(log n) expected, locks only this patient
+     */
+    public boolean removePatient(String patientId) {
+        int id = Patient.parseId(patientId);
+        Ticket ticket = patientMap.get(id);
+        if (ticket == null) {
+            return false;
+        }
+        synchronized (ticket.patient) {
+            // Re-read under the lock: an update may have moved the patient to a new key
+            ticket = patientMap.get(id);
+            if (ticket == null || !patientMap.remove(id, ticket)) {
+                return false; // Already called by a doctor
+            }
+            patientQueue.remove(ticket.key, ticket);
+            waitingByPriority[priorityOf(ticket.key) - 1].decrement();
+            return true;
+        }
+    }
+
+    // ========== UPDATE OPERATION ==========
+    /**
+     * Update patient information, returns false if the patient is not waiting
+     * A new priority moves the patient to a new key without ever taking them out
+     * of the skip list: the new ticket is inserted first, patientMap switches to it
+     * (the linearization point), and only then is the old entry removed.
+     * Time Complexity: O(log n) expected, locks only this patient
+     */
+    public boolean updatePatient(String patientId, String newName, int newAge,
+                                 String newCondition, int newPriority) {
+        checkPriority(newPriority);
+        int id = Patient.parseId(patientId);
+        Ticket ticket = patientMap.get(id);
+        if (ticket == null) {
+            return false;
+        }
+        Patient patient = ticket.patient;
+        synchronized (patient) {
+            ticket = patientMap.get(id);
+            if (ticket == null) {
+                return false; // Called by a doctor before the update arrived
+            }
+            int oldPriority = priorityOf(ticket.key);
+            if (newPriority != oldPriority) {
+                // Same admission number, new lane: arrival order is kept inside the new priority
+                Ticket moved = new Ticket(patient, keyOf(newPriority, admissionOf(ticket.key)), ticket.version + 1);
+                patientQueue.put(moved.key, moved);
+                if (!patientMap.replace(id, ticket, moved)
+                        && patientMap.get(id) != moved && !moved.switchedByDoctor) {
+                    patientQueue.remove(moved.key, moved);
+                    return false; // Called by a doctor at the old priority
+                }
+                patientQueue.remove(ticket.key, ticket);
+                waitingByPriority[oldPriority - 1].decrement();
+                waitingByPriority[newPriority - 1].increment();
+            }
+            // A doctor calling the patient right now waits on this lock before showing them
+            patient.setName(newName);
+            patient.setAge(newAge);
+            patient.setCondition(newCondition);
+            patient.setPriority(newPriority);
+            return true;
+        }
+    }
+
+    // ========== SEARCH OPERATIONS ==========
+    /**
+     * Search for a waiting patient by ID
+     * Time Complexity: O(1)
+     */
+    public Patient searchByID(String patientId) {
+        Ticket ticket = patientMap.get(Patient.parseId(patientId));
+        return ticket == null ? null : ticket.patient;
+    }
+
+    /**
+     * Search for waiting patients by name (partial, case-insensitive)
+     * Time Complexity: O(n), weakly consistent
+     */
+    public List<Patient> searchByName(String name) {
+        List<Patient> results = new ArrayList<>();
+        if (name == null || name.trim().isEmpty()) {
+            return results;
+        }
+        String lowerName = name.toLowerCase().trim();
+        for (Ticket ticket : patientMap.values()) {
+            if (ticket.patient.getName().toLowerCase().contains(lowerName)) {
+                results.add(ticket.patient);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Search for waiting patients by priority level, in treatment order
+     * Time Complexity: O(log n + k), k = results found
+     */
+    public List<Patient> searchByPriority(int priority) {
+        if (priority < 1 || priority > LEVELS) {
+            return new ArrayList<>();
+        }
+        // Each priority is a contiguous key range of the skip list
+        List<Patient> results = new ArrayList<>();
+        for (Ticket ticket : patientQueue.subMap(keyOf(priority, 0), keyOf(priority + 1, 0)).values()) {
+            if (isCurrent(ticket)) {
+                results.add(ticket.patient);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Get one page of waiting patients in treatment order (offset 0 = next patient)
+     * Walks the skip list from its head, so only offset + limit entries are visited.
+     * Time Complexity: O(offset + limit), weakly consistent
+     */
+    public List<Patient> view(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        List<Patient> page = new ArrayList<>(Math.min(limit, 64));
+        int skip = offset;
+        for (Ticket ticket : patientQueue.values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            if (!isCurrent(ticket)) {
+                continue; // Mid re-triage: the patient is shown at their current key only
+            }
+            if (skip > 0) {
+                skip--;
+            } else {
+                page.add(ticket.patient);
+            }
+        }
+        return page;
+    }
+    
+    /**
+     * Peek at the next patient without removing, or null if empty
+     * Time Complexity: O(1), plus the entries of any re-triage in flight
+     */
+    public Patient peekNextPatient() {
+        for (Ticket ticket : patientQueue.values()) {
+            if (isCurrent(ticket)) {
+                return ticket.patient;
+            }
+        }
+        return null;
+    }
+
+    // ========== STATISTICS ==========
+
+    public boolean isEmpty() {
+        return patientQueue.isEmpty();
+    }
+
+    /**
+     * Get queue size (exact when no operation is in flight)
+     * Time Complexity: O(1)
+     */
+    public int getSize() {
+        long size = 0;
+        for (LongAdder waiting : waitingByPriority) {
+            size += waiting.sum();
+        }
+        return (int) size;
+    }
+
+    public long getTotalPatientsAdmitted() {
+        return totalPatientsAdmitted.sum();
+    }
+
+    public long getTotalPatientsServed() {
+        return totalPatientsServed.sum();
+    }
+
+    public long getWaitingCount(int priority) {
+        checkPriority(priority);
+        return waitingByPriority[priority - 1].sum();
+    }
+
+    /**
+     * Display queue statistics
+     */
+    public void displayStatistics() {
+        System.out.println("\n📊 CLINIC QUEUE STATISTICS:");
+        System.out.println("════════════════════════════════════════════════════════════════");
+        System.out.println("Total Patients Admitted Today    : " + getTotalPatientsAdmitted());
+        System.out.println("Total Patients Served Today       : " + getTotalPatientsServed());
+        System.out.println("Current Patients in Queue         : " + getSize());
+        System.out.println("────────────────────────────────────────────────────────────────");
+        System.out.println("Priority Breakdown:");
+        System.out.println("  • CRITICAL/EMERGENCY (1): " + getWaitingCount(1));
+        System.out.println("  • URGENT (2):             " + getWaitingCount(2));
+        System.out.println("  • REGULAR (3):            " + getWaitingCount(3));
+        System.out.println("════════════════════════════════════════════════════════════════");
+    }
+
+    // ========== KEY HELPERS ==========
+
+    private static long keyOf(int priority, int admissionNumber) {
+        return Patient.sortKey(priority, admissionNumber); // Patient IDs are the admission numbers
+    }
+
+    // False for the old or new entry of a patient who is being re-triaged
+    private boolean isCurrent(Ticket ticket) {
+        return patientMap.get(ticket.patient.getId()) == ticket;
+    }
+
+    private static int priorityOf(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static int admissionOf(long key) {
+        return (int) key;
+    }
+
+    private static void checkPriority(int priority) {
+        if (priority < 1 || priority > LEVELS) {
+            throw new IllegalArgumentException("Priority must be 1, 2 or 3: " + priority);
+        }
+    }
+}
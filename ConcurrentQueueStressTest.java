@@ -0,0 +1,184 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ConcurrentQueueStressTest - Hammers ConcurrentClinicQueue from many threads at once
+ * Admission desks add patients (and sometimes cancel or re-triage one they admitted)
+ * while doctor stations call patients as fast as they can.
+ *
+ * Checks after every run:
+ * - every admitted patient was either served or removed, exactly once
+ * - no patient was served twice, and the queue ends empty
+ * - admitted/served counters match what the threads observed
+ * - a Critical patient being re-triaged over and over is still called before
+ *   every Regular patient (the update never hides them from the doctors)
+ *
+ * Usage: java ConcurrentQueueStressTest [patientsPerDesk]   (exit code 1 on failure)
+ */
+public class ConcurrentQueueStressTest {
+    private static final int DEFAULT_PATIENTS_PER_DESK = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        int perDesk = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PATIENTS_PER_DESK;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("\n🧪 CONCURRENT QUEUE STRESS TEST (" + cores + " cores)");
+        System.out.println("════════════════════════════════════════════════════════════════");
+        System.out.printf("%-7s | %-7s | %10s | %9s | %12s%n", "Desks", "Doctors", "Patients", "Time (ms)", "ops/sec");
+        System.out.println("════════════════════════════════════════════════════════════════");
+
+        boolean allPassed = true;
+        for (int threads = 1; threads <= Math.max(4, cores); threads *= 2) {
+            allPassed &= run(threads, threads, perDesk);
+        }
+        System.out.println("════════════════════════════════════════════════════════════════");
+        allPassed &= retriageRun(perDesk);
+        System.out.println(allPassed ? "✅ All runs passed: no patient lost or served twice."
+                                     : "❌ Stress test FAILED.");
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+
+    // One run with the given number of admission desks and doctor stations
+    private static boolean run(int desks, int doctors, int perDesk) throws Exception {
+        ConcurrentClinicQueue queue = new ConcurrentClinicQueue();
+        Set<String> admitted = ConcurrentHashMap.newKeySet();
+        Set<String> removed = ConcurrentHashMap.newKeySet();
+        Set<String> served = ConcurrentHashMap.newKeySet();
+        AtomicInteger servedTwice = new AtomicInteger();
+        AtomicBoolean desksDone = new AtomicBoolean(false);
+
+        ExecutorService pool = Executors.newFixedThreadPool(desks + doctors);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> deskTasks = new ArrayList<>();
+        List<Future<?>> doctorTasks = new ArrayList<>();
+
+        for (int d = 0; d < desks; d++) {
+            final int desk = d;
+            deskTasks.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                start.await();
+                for (int i = 0; i < perDesk; i++) {
+                    Patient p = queue.addPatient("Desk" + desk + "-" + i, 30, "Stress", 1 + random.nextInt(3));
+                    admitted.add(p.getPatientId());
+                    int roll = random.nextInt(20);
+                    if (roll == 0 && queue.removePatient(p.getPatientId())) {
+                        removed.add(p.getPatientId()); // ~5% cancellations
+                    } else if (roll == 1) {
+                        queue.updatePatient(p.getPatientId(), p.getName(), 31, "Re-triaged", 1 + random.nextInt(3));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int d = 0; d < doctors; d++) {
+            doctorTasks.add(pool.submit(() -> {
+                start.await();
+                while (true) {
+                    Patient p = queue.callNextPatient();
+                    if (p == null) {
+                        if (desksDone.get() && queue.isEmpty()) {
+                            return null;
+                        }
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    if (!served.add(p.getPatientId())) {
+                        servedTwice.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> task : deskTasks) {
+            task.get();
+        }
+        desksDone.set(true);
+        for (Future<?> task : doctorTasks) {
+            task.get();
+        }
+        long elapsedMs = (System.nanoTime() - begin) / 1_000_000;
+        pool.shutdown();
+
+        // Every admitted patient must end up in exactly one of served / removed
+        int total = desks * perDesk;
+        Set<String> overlap = new HashSet<>(served);
+        overlap.retainAll(removed);
+        Set<String> accounted = new HashSet<>(served);
+        accounted.addAll(removed);
+
+        List<String> failures = new ArrayList<>();
+        if (admitted.size() != total) failures.add("duplicate IDs issued: " + admitted.size() + " unique of " + total);
+        if (servedTwice.get() > 0) failures.add(servedTwice.get() + " patient(s) served twice");
+        if (!overlap.isEmpty()) failures.add(overlap.size() + " patient(s) both served and removed");
+        if (!accounted.equals(admitted)) failures.add((admitted.size() - accounted.size()) + " patient(s) lost");
+        if (!queue.isEmpty() || queue.getSize() != 0) failures.add("queue not empty at the end");
+        if (queue.getTotalPatientsAdmitted() != total) failures.add("admitted counter = " + queue.getTotalPatientsAdmitted());
+        if (queue.getTotalPatientsServed() != served.size()) failures.add("served counter = " + queue.getTotalPatientsServed());
+
+        long operations = (long) total * 2; // One admission plus one call or removal per patient
+        System.out.printf("%-7d | %-7d | %10d | %9d | %12.0f%n",
+                desks, doctors, total, elapsedMs, operations * 1000.0 / Math.max(1, elapsedMs));
+        for (String failure : failures) {
+            System.out.println("   ❌ " + failure);
+        }
+        return failures.isEmpty();
+    }
+
+    // One desk keeps moving a Critical patient between Critical and Urgent while a doctor
+    // calls the next patient: the doctor must get that patient, never a Regular one
+    private static boolean retriageRun(int rounds) throws Exception {
+        AtomicReference<ConcurrentClinicQueue> current = new AtomicReference<>(new ConcurrentClinicQueue());
+        AtomicReference<String> critical = new AtomicReference<>("P001");
+        AtomicBoolean done = new AtomicBoolean(false);
+        Thread desk = new Thread(() -> {
+            int priority = 1;
+            while (!done.get()) {
+                priority = 3 - priority; // 2, 1, 2, 1, ...
+                current.get().updatePatient(critical.get(), "Critical", 50, "Re-triaged", priority);
+            }
+        });
+        desk.start();
+
+        int wrongOrder = 0;
+        int lost = 0;
+        long begin = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            ConcurrentClinicQueue queue = new ConcurrentClinicQueue();
+            Patient patient = queue.addPatient("Critical", 50, "Chest Pain", 1);
+            for (int i = 0; i < 3; i++) {
+                queue.addPatient("Regular" + i, 30, "Checkup", 3);
+            }
+            critical.set(patient.getPatientId());
+            current.set(queue);
+            for (int spin = ThreadLocalRandom.current().nextInt(64); spin > 0; spin--) {
+                Thread.onSpinWait(); // Let the call land anywhere inside an update
+            }
+            Patient called = queue.callNextPatient();
+            if (called != patient) {
+                wrongOrder++;
+            }
+            if (queue.callNextPatients(10).size() != 3) {
+                lost++;
+            }
+        }
+        done.set(true);
+        desk.join();
+        long elapsedMs = (System.nanoTime() - begin) / 1_000_000;
+
+        System.out.printf("Re-triage while calling: %d rounds in %d ms%n", rounds, elapsedMs);
+        if (wrongOrder > 0) {
+            System.out.println("   ❌ " + wrongOrder + " call(s) skipped the Critical patient");
+        }
+        if (lost > 0) {
+            System.out.println("   ❌ " + lost + " round(s) lost or duplicated a Regular patient");
+        }
+        return wrongOrder == 0 && lost == 0;
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * ConsoleQueueListener Class - Prints ClinicQueue events for the console UI
+ * The messages are built in a buffer and written with one print per batch, so
+ * stdout is locked once per batch instead of several times per operation.
+ */
+public class ConsoleQueueListener implements QueueEventListener {
+    private static final String LINE =
+            "════════════════════════════════════════════════════════════════════════════════════════════════════";
+
+    private final StringBuilder out = new StringBuilder();
+
+    @Override
+    public void onEvent(QueueEvent event) {
+        Patient patient = event.getPatient();
+        switch (event.getType()) {
+            case ADDED:
+                line("✅ Patient added successfully!");
+                line("   Auto-generated ID: " + patient.getPatientId());
+                line("   Patient: " + patient.getName());
+                line("   Priority: " + patient.getPriorityLabel());
+                line("   Current queue size: " + event.getQueueSize());
+                break;
+            case ADDED_BATCH:
+                int lastId = event.getId() + event.getResultCount() - 1;
+                line("✅ " + event.getResultCount() + " patients added successfully!");
+                line("   Auto-generated IDs: " + event.getPatientId() + " to " + Patient.formatId(lastId));
+                line("   Current queue size: " + event.getQueueSize());
+                break;
+            case CALLED:
+                line("\n🏥 CALLING NEXT PATIENT:");
+                line(LINE);
+                line(patient.toString());
+                line(LINE);
+                line("Remaining patients in queue: " + event.getQueueSize());
+                break;
+            case CALLED_BATCH:
+                line("\n🏥 CALLING NEXT " + event.getResultCount() + " PATIENTS:");
+                line(LINE);
+                for (Patient called : event.getPatients()) {
+                    line(called.toString());
+                }
+                line(LINE);
+                line("Remaining patients in queue: " + event.getQueueSize());
+                break;
+            case QUEUE_EMPTY:
+                line("❌ Queue is empty! No patients waiting.");
+                break;
+            case REMOVED:
+                line("✅ Patient " + event.getPatientId() + " removed from queue.");
+                break;
+            case UPDATED:
+                Patient previous = event.getPrevious();
+                line("✅ Patient information updated successfully!");
+                line("   Patient ID: " + patient.getPatientId());
+                if (!previous.getName().equals(patient.getName())) {
+                    line("   Name: " + previous.getName() + " → " + patient.getName());
+                }
+                if (previous.getPriority() != patient.getPriority()) {
+                    line("   Priority: " + previous.getPriorityLabel() + " → " + patient.getPriorityLabel());
+                }
+                break;
+            case NOT_FOUND:
+                line("❌ Patient ID not found!");
+                break;
+            case NAME_SEARCH:
+                if (event.getQuery().isEmpty()) {
+                    line("❌ Search name cannot be empty.");
+                } else if (event.getResultCount() == 0) {
+                    line("🔍 No patients found with name containing: " + event.getQuery());
+                } else {
+                    line("🔍 Found " + event.getResultCount() + " patient(s) matching: " + event.getQuery());
+                }
+                break;
+            case PRIORITY_SEARCH:
+                String label = Patient.priorityLabel(event.getPriority());
+                if (event.getResultCount() == 0) {
+                    line("🔍 No patients found with priority: " + label);
+                } else {
+                    line("🔍 Found " + event.getResultCount() + " patient(s) with priority: " + label);
+                }
+                break;
+        }
+    }
+
+    @Override
+    public void onBatchEnd() {
+        if (out.length() > 0) {
+            System.out.print(out);
+            System.out.flush();
+            out.setLength(0);
+        }
+    }
+
+    private void line(String text) {
+        out.append(text).append(System.lineSeparator());
+    }
+}
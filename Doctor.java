@@ -0,0 +1,33 @@
+/**
+ * Doctor Class - A doctor and the skills they have (a SkillTable mask)
+ * Used with ClinicQueue.callNextPatientFor to call the most urgent patient this
+ * doctor is qualified to see.
+ */
+public class Doctor {
+    private final String name;
+    private final long skills;
+
+    // Constructor: skills from SkillTable.mask("cardiology", ...); 0 = general practice only
+    public Doctor(String name, long skills) {
+        this.name = name;
+        this.skills = skills;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSkills() {
+        return skills;
+    }
+
+    // Whether this doctor has every skill in required
+    public boolean canSee(long required) {
+        return (required & ~skills) == 0;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
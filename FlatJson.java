@@ -0,0 +1,185 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * FlatJson Class - Minimal JSON support for the HTTP API, without a library
+ * Parses one flat object ({"name": "Ann", "age": 30}) into field -> text, and
+ * writes JSON string literals. Nested objects and arrays are not accepted as input.
+ */
+final class FlatJson {
+    private final String text;
+    private int pos;
+
+    private FlatJson(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parse a flat JSON object; numbers and true/false keep their literal text, null is skipped
+     * Time Complexity: O(L), L = text length
+     */
+    static Map<String, String> parse(String text) {
+        return new FlatJson(text).object();
+    }
+
+    // Append value as a quoted JSON string
+    static void appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    // ========== PARSER ==========
+
+    private Map<String, String> object() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        expect('{');
+        if (peek() == '}') {
+            pos++;
+            return end(fields);
+        }
+        while (true) {
+            String key = string();
+            expect(':');
+            String value = value();
+            if (value != null) {
+                fields.put(key, value);
+            }
+            char next = next();
+            if (next == '}') {
+                return end(fields);
+            }
+            if (next != ',') {
+                throw error("Expected , or }");
+            }
+        }
+    }
+
+    private Map<String, String> end(Map<String, String> fields) {
+        if (peek() != 0) {
+            throw error("Unexpected text after the object");
+        }
+        return fields;
+    }
+
+    private String value() {
+        char c = peek();
+        if (c == '"') {
+            return string();
+        }
+        if (c == '{' || c == '[') {
+            throw error("Only flat objects are supported");
+        }
+        int start = pos;
+        while (pos < text.length() && ",}".indexOf(text.charAt(pos)) < 0 && !Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+        String literal = text.substring(start, pos);
+        if (literal.isEmpty()) {
+            throw error("Missing value");
+        }
+        return literal.equals("null") ? null : literal;
+    }
+
+    private String string() {
+        expect('"');
+        StringBuilder out = new StringBuilder();
+        while (pos < text.length()) {
+            char c = text.charAt(pos++);
+            if (c == '"') {
+                return out.toString();
+            }
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            if (pos >= text.length()) {
+                break;
+            }
+            char escaped = text.charAt(pos++);
+            switch (escaped) {
+                case 'n':
+                    out.append('\n');
+                    break;
+                case 't':
+                    out.append('\t');
+                    break;
+                case 'r':
+                    out.append('\r');
+                    break;
+                case 'b':
+                    out.append('\b');
+                    break;
+                case 'f':
+                    out.append('\f');
+                    break;
+                case 'u':
+                    if (pos + 4 > text.length()) {
+                        throw error("Bad \\u escape");
+                    }
+                    try {
+                        out.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Bad \\u escape");
+                    }
+                    pos += 4;
+                    break;
+                default:
+                    out.append(escaped); // \" \\ \/
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    // Next non-blank character without consuming it, 0 at the end
+    private char peek() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+        return pos < text.length() ? text.charAt(pos) : 0;
+    }
+
+    private char next() {
+        char c = peek();
+        if (c == 0) {
+            throw error("Unexpected end of JSON");
+        }
+        pos++;
+        return c;
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) {
+            throw error("Expected " + expected);
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid JSON at " + pos + ": " + message);
+    }
+}
@@ -0,0 +1,353 @@
+import java.util.*;
+
+/**
+ * IndexedPatientHeap Class - Binary min-heap of patients that tracks each patient's slot
+ * Every Patient stores its current array index, so the heap can find any patient
+ * directly instead of scanning the array.
+ *
+ * This makes the operations that java.util.PriorityQueue does in O(n) run in O(log n):
+ * - REMOVE: Remove an arbitrary patient
+ * - CHANGE PRIORITY: Decrease/increase-key after re-triage
+ *
+ * Next to the patients the heap keeps their packed sort keys (Patient.sortKey) in a
+ * parallel long[]: sifting compares two array slots with one primitive comparison
+ * instead of loading both Patient objects and comparing their fields.
+ */
+public class IndexedPatientHeap implements PatientPriorityQueue {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Complete binary tree stored as an array: parent (i-1)/2, children 2i+1 and 2i+2
+    private Patient[] heap;
+    private long[] keys; // keys[i] = heap[i].getSortKey(), the only thing compared while sifting
+    private int size;
+
+    // Constructor
+    public IndexedPatientHeap() {
+        this.heap = new Patient[DEFAULT_CAPACITY];
+        this.keys = new long[DEFAULT_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Insert a patient
+     * Time Complexity: O(log n)
+     */
+    @Override
+    public void offer(Patient patient) {
+        if (patient.getQueueIndex() != Patient.NOT_QUEUED) {
+            throw new IllegalStateException("Patient " + patient.getPatientId() + " is already queued");
+        }
+        if (size == heap.length) {
+            grow(size * 2);
+        }
+        heap[size] = patient;
+        keys[size] = patient.getSortKey();
+        patient.setQueueIndex(size);
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+     * Insert a batch of patients
+     * A batch at least as large as the heap is appended as-is and the whole array is
+     * re-ordered bottom-up (Floyd's heapify); a smaller batch is sifted up one by one.
+     * Time Complexity: O(n + k) for a large batch, O(k log n) for a small one
+     */
+    @Override
+    public void offerAll(List<Patient> patients) {
+        int count = patients.size();
+        if (count < size) {
+            for (Patient patient : patients) {
+                offer(patient);
+            }
+            return;
+        }
+        for (Patient patient : patients) {
+            if (patient.getQueueIndex() != Patient.NOT_QUEUED) {
+                throw new IllegalStateException("Patient " + patient.getPatientId() + " is already queued");
+            }
+        }
+        if (size + count > heap.length) {
+            grow(Math.max(size + count, heap.length * 2));
+        }
+        for (Patient patient : patients) {
+            heap[size] = patient;
+            keys[size] = patient.getSortKey();
+            patient.setQueueIndex(size);
+            size++;
+        }
+        heapify();
+    }
+
+    /**
+     * Remove and return the highest priority patient
+     * Time Complexity: O(log n)
+     */
+    @Override
+    public Patient poll() {
+        if (size == 0) {
+            return null;
+        }
+        Patient root = heap[0];
+        removeAt(0);
+        return root;
+    }
+
+    /**
+     * Remove and return up to count highest priority patients, in treatment order
+     * Emptying the whole heap sorts it once and clears the array instead of sifting
+     * down after every removal.
+     * Time Complexity: O(k log n), O(n log n) when k >= n
+     */
+    @Override
+    public List<Patient> poll(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+        if (count >= size) {
+            Patient[] all = Arrays.copyOf(heap, size);
+            Arrays.sort(all);
+            for (Patient patient : all) {
+                patient.setQueueIndex(Patient.NOT_QUEUED);
+            }
+            Arrays.fill(heap, 0, size, null);
+            size = 0;
+            return new ArrayList<>(Arrays.asList(all)); // Mutable, like the partial path
+        }
+        List<Patient> polled = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            polled.add(heap[0]);
+            removeAt(0);
+        }
+        return polled;
+    }
+
+    /**
+     * Return the highest priority patient without removing it
+     * Time Complexity: O(1)
+     */
+    @Override
+    public Patient peek() {
+        return size == 0 ? null : heap[0];
+    }
+
+    /**
+     * Remove a specific patient using its stored heap slot
+     * Time Complexity: O(log n)
+     */
+    @Override
+    public boolean remove(Patient patient) {
+        int index = patient.getQueueIndex();
+        if (index < 0 || index >= size || heap[index] != patient) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Change a queued patient's priority and restore heap order (decrease/increase-key)
+     * Time Complexity: O(log n)
+     */
+    @Override
+    public boolean changePriority(Patient patient, int newPriority) {
+        int index = patient.getQueueIndex();
+        if (index < 0 || index >= size || heap[index] != patient) {
+            return false;
+        }
+        int oldPriority = patient.getPriority();
+        patient.setPriority(newPriority);
+        keys[index] = patient.getSortKey();
+        if (newPriority < oldPriority) {
+            siftUp(index);
+        } else if (newPriority > oldPriority) {
+            siftDown(index);
+        }
+        return true;
+    }
+
+    /**
+     * Check whether a patient is currently in this heap
+     * Time Complexity: O(1)
+     */
+    @Override
+    public boolean contains(Patient patient) {
+        int index = patient.getQueueIndex();
+        return index >= 0 && index < size && heap[index] == patient;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Return all queued patients in treatment order without modifying the heap
+     * Time Complexity: O(n log n)
+     */
+    @Override
+    public List<Patient> toSortedList() {
+        Patient[] copy = Arrays.copyOf(heap, size);
+        Arrays.sort(copy);
+        return new ArrayList<>(Arrays.asList(copy)); // Mutable, like every other list the queues return
+    }
+
+    /**
+     * Return one page of patients in treatment order without sorting the whole heap
+     * A small "frontier" heap holds the slots whose parent was already emitted; its
+     * smallest slot is always the next patient in order. Only the first offset + limit
+     * patients are ever looked at.
+     * Time Complexity: O(m log m), m = offset + limit
+     */
+    @Override
+    public List<Patient> view(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        int end = (int) Math.min(size, (long) offset + limit);
+        List<Patient> page = new ArrayList<>(Math.max(0, end - offset));
+        if (offset >= end) {
+            return page;
+        }
+
+        // Each step removes one slot and adds at most two, so end + 1 slots always fit
+        int[] frontier = new int[end + 1];
+        int count = 0;
+        frontier[count++] = 0;
+        for (int rank = 0; rank < end; rank++) {
+            int slot = frontier[0];
+            frontier[0] = frontier[--count];
+            frontierDown(frontier, count);
+            if (rank >= offset) {
+                page.add(heap[slot]);
+            }
+            int child = 2 * slot + 1;
+            for (int c = child; c <= child + 1 && c < size; c++) {
+                frontier[count] = c;
+                frontierUp(frontier, count++);
+            }
+        }
+        return page;
+    }
+
+    // ========== HEAP MAINTENANCE ==========
+
+    private void grow(int capacity) {
+        heap = Arrays.copyOf(heap, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+    }
+
+    // Restore heap order over the whole array: sift down every internal node, last one first
+    private void heapify() {
+        for (int index = (size >>> 1) - 1; index >= 0; index--) {
+            siftDown(index);
+        }
+    }
+
+    // Remove the element at index by moving the last element into its slot
+    private void removeAt(int index) {
+        Patient removed = heap[index];
+        size--;
+        Patient last = heap[size];
+        heap[size] = null;
+        removed.setQueueIndex(Patient.NOT_QUEUED);
+
+        if (index == size) {
+            return; // Removed the last element, nothing to re-order
+        }
+        heap[index] = last;
+        keys[index] = keys[size];
+        last.setQueueIndex(index);
+        // The moved element may belong above or below its new slot
+        siftDown(index);
+        if (heap[index] == last) {
+            siftUp(index);
+        }
+    }
+
+    // Sift a newly added frontier slot up, ordering slots by the patients they hold
+    private void frontierUp(int[] frontier, int index) {
+        int slot = frontier[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (keys[slot] >= keys[frontier[parent]]) {
+                break;
+            }
+            frontier[index] = frontier[parent];
+            index = parent;
+        }
+        frontier[index] = slot;
+    }
+
+    // Sift the frontier root down after it was replaced by the last slot
+    private void frontierDown(int[] frontier, int count) {
+        if (count == 0) {
+            return;
+        }
+        int slot = frontier[0];
+        int index = 0;
+        int half = count >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < count && keys[frontier[right]] < keys[frontier[child]]) {
+                child = right;
+            }
+            if (keys[slot] <= keys[frontier[child]]) {
+                break;
+            }
+            frontier[index] = frontier[child];
+            index = child;
+        }
+        frontier[index] = slot;
+    }
+
+    // "Bubble up": swap with parent while smaller than parent
+    private void siftUp(int index) {
+        Patient patient = heap[index];
+        long key = keys[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (key >= keys[parent]) {
+                break;
+            }
+            Patient parentPatient = heap[parent];
+            heap[index] = parentPatient;
+            keys[index] = keys[parent];
+            parentPatient.setQueueIndex(index);
+            index = parent;
+        }
+        heap[index] = patient;
+        keys[index] = key;
+        patient.setQueueIndex(index);
+    }
+
+    // "Bubble down": swap with the smaller child while larger than it
+    private void siftDown(int index) {
+        Patient patient = heap[index];
+        long key = keys[index];
+        int half = size >>> 1; // Nodes at or beyond half are leaves
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && keys[right] < keys[child]) {
+                child = right;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            keys[index] = keys[child];
+            heap[index].setQueueIndex(index);
+            index = child;
+        }
+        heap[index] = patient;
+        keys[index] = key;
+        patient.setQueueIndex(index);
+    }
+}
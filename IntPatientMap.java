@@ -0,0 +1,178 @@
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * IntPatientMap Class - Open-addressing hash map from numeric patient ID to Patient
+ * Replaces HashMap<String, Patient>: keys are plain ints in one array and patients in
+ * a parallel array, so put/get/remove allocate nothing and never hash a String.
+ *
+ *   keys    : [  0 | 17 |  3 |  0 | 42 | ... ]   0 = empty slot (IDs start at 1)
+ *   patients: [ -- | p17| p3 | -- | p42| ... ]
+ *
+ * Collisions use linear probing. Removal shifts later entries of the same probe run
+ * back into the hole (no tombstones), so lookups never slow down after many removals.
+ * The table doubles when it is half full.
+ */
+public class IntPatientMap {
+    private static final int EMPTY = 0;
+    private static final int DEFAULT_CAPACITY = 16; // Always a power of two
+
+    private int[] keys;
+    private Patient[] patients;
+    private int size;
+    private int mask;  // capacity - 1
+    private int shift; // 32 - log2(capacity)
+
+    // Constructor
+    public IntPatientMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Constructor sized for an expected number of patients
+    public IntPatientMap(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < expectedSize * 2L) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Get the patient with this ID, or null
+     * Time Complexity: O(1) expected
+     */
+    public Patient get(int id) {
+        int slot = slotOf(id);
+        while (true) {
+            int key = keys[slot];
+            if (key == id) {
+                return patients[slot];
+            }
+            if (key == EMPTY) {
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Add or replace the patient stored under its own ID
+     * Time Complexity: O(1) amortized
+     *
+     * @return the patient previously stored under that ID, or null
+     */
+    public Patient put(Patient patient) {
+        int id = patient.getId();
+        int slot = slotOf(id);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == id) {
+                Patient previous = patients[slot];
+                patients[slot] = patient;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = id;
+        patients[slot] = patient;
+        if (++size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Remove and return the patient with this ID, or null
+     * Time Complexity: O(1) expected
+     */
+    public Patient remove(int id) {
+        if (id == EMPTY) {
+            return null; // Would match an empty slot
+        }
+        int slot = slotOf(id);
+        while (keys[slot] != id) {
+            if (keys[slot] == EMPTY) {
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+        Patient removed = patients[slot];
+        size--;
+
+        // Backward-shift deletion: pull later entries of this run into the hole
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = slotOf(keys[next]);
+            // Move the entry unless its home slot lies (cyclically) between the hole and it
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                patients[hole] = patients[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        patients[hole] = null;
+        return removed;
+    }
+
+    public boolean containsKey(int id) {
+        return get(id) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Visit every stored patient (in table order, not admission order)
+     * Time Complexity: O(capacity)
+     */
+    public void forEach(Consumer<Patient> action) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                action.accept(patients[slot]);
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(patients, null);
+        size = 0;
+    }
+
+    // ========== TABLE HELPERS ==========
+
+    // Fibonacci hashing: consecutive IDs spread over the whole table
+    private int slotOf(int id) {
+        return (id * 0x9E3779B9) >>> shift;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        patients = new Patient[capacity];
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Patient[] oldPatients = patients;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotOf(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                patients[slot] = oldPatients[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram Class - Fixed-size histogram of non-negative values (HdrHistogram-style)
+ * Values below 128 each get their own bucket; above that every power of two is split
+ * into 64 buckets, so any recorded value is reported within 1.6% of its true size:
+ *
+ *   0 1 2 ... 127 | 128 130 ... 254 | 256 260 ... 508 | ... | up to Long.MAX_VALUE
+ *     exact           64 buckets        64 buckets
+ *
+ * The 3712 counters are allocated once; record() only finds a bucket with a few bit
+ * operations and increments it (one atomic add, plus one more for a new maximum), so it
+ * never allocates. Counters are atomic, so threads holding only a read lock (e.g.
+ * concurrent searches) can record into the same histogram. The total count is not kept
+ * separately; reading it adds up the buckets in use.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // Exact buckets for 0-127
+    private static final int HALF = SUB_BUCKETS / 2;              // Buckets per power of two above that
+    static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * HALF;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong max;
+
+    // Constructor
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Count one value (negative values count as 0)
+     * Time Complexity: O(1), no allocation
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(indexOf(v));
+        if (v > max.get()) {
+            max.accumulateAndGet(v, Math::max);
+        }
+    }
+
+    /**
+     * Number of recorded values
+     * Time Complexity: O(b), b = buckets up to the maximum
+     */
+    public long getCount() {
+        long count = 0;
+        int top = indexOf(max.get());
+        for (int i = 0; i <= top; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Smallest value that percent % of the recorded values are at or below
+     * (the top of its bucket, never more than the maximum)
+     * Time Complexity: O(b), b = buckets up to the answer
+     */
+    public long getValueAtPercentile(double percent) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, percent) / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueAt(i), max.get());
+            }
+        }
+        return max.get(); // Copied while another thread was recording
+    }
+
+    /**
+     * Copy this histogram into another one (e.g. a QueueMetrics snapshot), no allocation
+     * Only buckets up to the larger of the two maximums are touched.
+     * Time Complexity: O(b)
+     */
+    public void copyInto(LatencyHistogram into) {
+        long currentMax = max.get();
+        int top = Math.max(indexOf(currentMax), indexOf(into.max.get()));
+        for (int i = 0; i <= top; i++) {
+            into.counts.setPlain(i, counts.get(i)); // The copy is read by the thread that made it
+        }
+        into.max.set(currentMax);
+    }
+
+    public void reset() {
+        int top = indexOf(max.get());
+        for (int i = 0; i <= top; i++) {
+            counts.set(i, 0);
+        }
+        max.set(0);
+    }
+
+    // ========== BUCKETS ==========
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // >= SUB_BUCKET_BITS
+        int shift = exponent - (SUB_BUCKET_BITS - 1);          // Keep the top 7 bits
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * HALF + (int) (value >>> shift) - HALF;
+    }
+
+    // Largest value that falls into bucket index
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - SUB_BUCKETS) / HALF + SUB_BUCKET_BITS;
+        int shift = exponent - (SUB_BUCKET_BITS - 1);
+        long top = (index - SUB_BUCKETS) % HALF + HALF;
+        return ((top + 1) << shift) - 1;
+    }
+}
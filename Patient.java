@@ -3,28 +3,53 @@
  * This class stores patient information and implements Comparable for priority ordering
  */
 public class Patient implements Comparable<Patient> {
-    private String patientId;
+    // Marker for a patient that is not currently stored in a PatientPriorityQueue
+    static final int NOT_QUEUED = -1;
+    
+    private final int id; // Numeric patient ID; "P001" is only rendered for display
     private String name;
     private int age;
     private String condition;
     private int priority; // 1 = Critical/Emergency, 2 = Urgent, 3 = Regular
-    private long arrivalTime; // Timestamp for FIFO within same priority
+    private long arrivalTime; // Timestamp for wait-time statistics
     private String status; // "Waiting", "In Treatment", "Completed"
+    private int queueIndex; // Slot in the PatientPriorityQueue holding this patient, maintained by that queue
+    private long requiredSkills; // Doctor skills the condition needs (SkillTable mask, 0 = any doctor)
     
-    // Constructor
+    // Constructor, patientId in display form ("P001")
     public Patient(String patientId, String name, int age, String condition, int priority) {
-        this.patientId = patientId;
+        this(parseValidId(patientId), name, age, condition, priority);
+    }
+    
+    // Constructor for the queues, which number patients themselves (id 1 is shown as "P001")
+    Patient(int id, String name, int age, String condition, int priority) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Patient ID must be positive: " + id);
+        }
+        this.id = id;
         this.name = name;
         this.age = age;
-        this.condition = condition;
+        this.condition = conditionOrEmpty(condition);
         this.priority = priority;
         this.arrivalTime = System.currentTimeMillis();
         this.status = "Waiting";
+        this.queueIndex = NOT_QUEUED;
+    }
+    
+    // Constructor for a patient restored from the journal with its original arrival time
+    Patient(int id, String name, int age, String condition, int priority, long arrivalTime) {
+        this(id, name, age, condition, priority);
+        this.arrivalTime = arrivalTime;
     }
     
     // Getters
+    public int getId() {
+        return id;
+    }
+    
+    // Display form of the ID ("P001"), built on every call: hot paths use getId()
     public String getPatientId() {
-        return patientId;
+        return formatId(id);
     }
     
     public String getName() {
@@ -61,7 +86,7 @@ public class Patient implements Comparable<Patient> {
     }
     
     public void setCondition(String condition) {
-        this.condition = condition;
+        this.condition = conditionOrEmpty(condition);
     }
     
     public void setPriority(int priority) {
@@ -72,18 +97,118 @@ public class Patient implements Comparable<Patient> {
         this.status = status;
     }
     
+    // Queue slot bookkeeping (only PatientPriorityQueue implementations should call these)
+    int getQueueIndex() {
+        return queueIndex;
+    }
+    
+    void setQueueIndex(int queueIndex) {
+        this.queueIndex = queueIndex;
+    }
+    
+    // Skill mask looked up once from the queue's SkillTable (only ClinicQueue should set it)
+    long getRequiredSkills() {
+        return requiredSkills;
+    }
+    
+    void setRequiredSkills(long requiredSkills) {
+        this.requiredSkills = requiredSkills;
+    }
+    
+    // Treatment order in one number (computed, so it can never go stale), see sortKey(priority, id)
+    long getSortKey() {
+        return sortKey(priority, id);
+    }
+    
+    // ========== PATIENT ID FORMAT ==========
+    
+    /**
+     * Render a numeric ID as shown to people: "P" plus at least three digits (1 -> "P001")
+     * Same output as String.format("P%03d", id), without parsing a format string
+     */
+    public static String formatId(int id) {
+        if (id < 10) {
+            return "P00" + id;
+        }
+        if (id < 100) {
+            return "P0" + id;
+        }
+        return "P" + id;
+    }
+    
+    // No condition given (null) is stored as "", which the journal, snapshot and archive can encode
+    static String conditionOrEmpty(String condition) {
+        return condition == null ? "" : condition;
+    }
+    
+    // parseId for the public constructor: an unparseable ID is a caller error
+    private static int parseValidId(String patientId) {
+        int id = parseId(patientId);
+        if (id < 0) {
+            throw new IllegalArgumentException("Invalid patient ID: " + patientId);
+        }
+        return id;
+    }
+    
+    /**
+     * Parse the display form back to the numeric ID
+     * Only the exact form formatId produces is accepted ("P001", not "p1" or "P0001"),
+     * so every patient still has exactly one valid ID string.
+     * Time Complexity: O(length), no allocation
+     *
+     * @return the ID, or -1 if the text is not a valid patient ID
+     */
+    public static int parseId(String text) {
+        if (text == null) {
+            return -1;
+        }
+        int length = text.length();
+        if (length < 4 || length > 11 || text.charAt(0) != 'P') {
+            return -1;
+        }
+        if (length > 4 && text.charAt(1) == '0') {
+            return -1; // Padded beyond three digits
+        }
+        long id = 0;
+        for (int i = 1; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id > 0 && id <= Integer.MAX_VALUE ? (int) id : -1;
+    }
+    
+    // ========== ORDERING ==========
+    
+    /**
+     * Treatment order packed into one long: smaller key = treated first
+     *
+     *   key = [ priority (high 32 bits) | admission number = patient ID (low 32 bits) ]
+     *
+     * IDs are handed out in admission order, so the low bits keep FIFO order within a
+     * priority level, also for patients admitted in the same millisecond and when the
+     * wall clock jumps back. Same layout as the ConcurrentClinicQueue skip list keys.
+     */
+    static long sortKey(int priority, int id) {
+        return ((long) priority << 32) | (id & 0xFFFFFFFFL);
+    }
+    
     // Compare patients based on priority (lower number = higher priority)
-    // If same priority, earlier arrival time gets priority (FIFO)
+    // If same priority, earlier admission gets priority (FIFO)
     @Override
     public int compareTo(Patient other) {
-        if (this.priority != other.priority) {
-            return Integer.compare(this.priority, other.priority);
-        }
-        return Long.compare(this.arrivalTime, other.arrivalTime);
+        return Long.compare(getSortKey(), other.getSortKey());
     }
     
     // Get priority label
     public String getPriorityLabel() {
+        return priorityLabel(priority);
+    }
+    
+    // Label of any priority level, also used for events that outlive the patient's current state
+    static String priorityLabel(int priority) {
         switch (priority) {
             case 1: return "CRITICAL/EMERGENCY";
             case 2: return "URGENT";
@@ -92,16 +217,23 @@ public class Patient implements Comparable<Patient> {
         }
     }
     
+    // Detached copy of the current fields, safe to hand to another thread
+    Patient copy() {
+        Patient copy = new Patient(id, name, age, condition, priority, arrivalTime);
+        copy.status = status;
+        return copy;
+    }
+    
     @Override
     public String toString() {
         return String.format("%-10s | %-20s | Age: %-3d | %-25s | Priority: %-18s | Status: %s",
-                patientId, name, age, condition, getPriorityLabel(), status);
+                getPatientId(), name, age, condition, getPriorityLabel(), status);
     }
     
     // Detailed display for individual patient
     public String toDetailedString() {
         return "\n========== PATIENT DETAILS ==========\n" +
-               "Patient ID    : " + patientId + "\n" +
+               "Patient ID    : " + getPatientId() + "\n" +
                "Name          : " + name + "\n" +
                "Age           : " + age + "\n" +
                "Condition     : " + condition + "\n" +
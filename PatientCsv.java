@@ -0,0 +1,555 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * PatientCsv Class - Bulk import and export of patients as CSV files
+ * Import reads the file through a FileChannel in 1 MB chunks cut at line breaks.
+ * Worker threads parse and validate the chunks in parallel; the calling thread admits
+ * them with ClinicQueue.addPatients, one batch per chunk, in file order:
+ *
+ *   FileChannel ─► chunk 1 ─► worker ─┐
+ *              ─► chunk 2 ─► worker ─┼─► (in file order) addPatients ─► ClinicQueue
+ *              ─► chunk 3 ─► worker ─┘
+ *
+ * At most two chunks per worker are in flight, so memory stays bounded however long
+ * the file is (apart from the admitted patients themselves).
+ *
+ * Import format: a header row naming the columns, then one patient per row. Columns
+ * name, age and priority are required, condition is optional and other columns (such
+ * as those of an export) are ignored:
+ *
+ *   name,age,condition,priority
+ *   John Doe,45,Chest Pain,1
+ *   "Smith, Jane",30,"Fever, cough",3
+ *
+ * Rows are checked with the console's rules (AdmissionRequest.checkName, checkAge,
+ * checkPriority) after age and priority parse as whole numbers. Invalid rows are
+ * skipped and reported with their line number. Quoted fields may hold commas and "" but not line
+ * breaks (export writes those as spaces).
+ */
+public class PatientCsv {
+    static final int CHUNK_BYTES = 1 << 20;
+    private static final int MAX_ERRORS_KEPT = 100; // Per import; the rest are only counted
+
+    /**
+     * Outcome of one import
+     */
+    public static final class ImportReport {
+        private int imported;
+        private int rejected;
+        private long rows;
+        private long elapsedNanos;
+        private final List<String> errors = new ArrayList<>();
+
+        public int getImported() {
+            return imported;
+        }
+
+        public int getRejected() {
+            return rejected;
+        }
+
+        // Data rows read (blank lines included, header excluded)
+        public long getRows() {
+            return rows;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        // "line 12: age is not a number: forty", for the first MAX_ERRORS_KEPT rejected rows
+        public List<String> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Imported %,d patient(s), rejected %,d row(s) in %,d ms",
+                    imported, rejected, getElapsedMillis());
+        }
+    }
+
+    // Positions of the columns named in the header (-1 = absent)
+    private static final class Columns {
+        final int count;
+        final int name;
+        final int age;
+        final int condition;
+        final int priority;
+
+        Columns(List<String> header) {
+            this.count = header.size();
+            this.name = header.indexOf("name");
+            this.age = header.indexOf("age");
+            this.condition = header.indexOf("condition");
+            this.priority = header.indexOf("priority");
+        }
+    }
+
+    // One parsed chunk: its valid admissions and why the other rows were rejected
+    private static final class Chunk {
+        final List<AdmissionRequest> admissions = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        final IntList errorLines = new IntList();
+        int lines;
+        int rejected;
+
+        void reject(String reason) {
+            rejected++;
+            if (errors.size() < MAX_ERRORS_KEPT) {
+                errorLines.add(lines);
+                errors.add(reason);
+            }
+        }
+    }
+
+    // Growable int array (line numbers of rejected rows)
+    private static final class IntList {
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+    }
+
+    private PatientCsv() {
+    }
+
+    // ========== IMPORT ==========
+    /**
+     * Admit every valid row of a CSV file, parsing on all processors
+     * Time Complexity: O(r) parsing spread over the workers, plus addPatients per chunk
+     */
+    public static ImportReport importPatients(ClinicQueue queue, Path path) throws IOException {
+        return importPatients(queue, path, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Admit every valid row of a CSV file, parsing with the given number of threads
+     * The queue is only touched by the calling thread.
+     */
+    public static ImportReport importPatients(ClinicQueue queue, Path path, int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Import needs at least one thread: " + threads);
+        }
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread worker = new Thread(task, "csv-import");
+            worker.setDaemon(true);
+            return worker;
+        });
+        Deque<Future<Chunk>> inFlight = new ArrayDeque<>();
+        long linesBefore = 1; // The header
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            byte[] block = new byte[CHUNK_BYTES];
+            int filled = 0;
+            boolean eof = false;
+            Columns columns = null;
+            while (true) {
+                ByteBuffer target = ByteBuffer.wrap(block, filled, block.length - filled);
+                while (target.hasRemaining() && !eof) {
+                    eof = channel.read(target) < 0;
+                }
+                filled = target.position();
+                int end = eof ? filled : lastLineBreak(block, filled) + 1;
+                if (end == 0) {
+                    if (eof) {
+                        break;
+                    }
+                    block = Arrays.copyOf(block, block.length * 2); // One line longer than a chunk
+                    continue;
+                }
+                int from = 0;
+                if (columns == null) {
+                    int headerEnd = indexOf(block, (byte) '\n', 0, end);
+                    from = headerEnd < 0 ? end : headerEnd + 1;
+                    columns = parseHeader(new String(block, 0, headerEnd < 0 ? end : headerEnd,
+                            StandardCharsets.UTF_8), path);
+                }
+
+                byte[] data = block;
+                int chunkStart = from;
+                int chunkEnd = end;
+                Columns layout = columns;
+                inFlight.add(workers.submit(() -> parse(data, chunkStart, chunkEnd, layout)));
+                while (inFlight.size() >= 2 * threads) {
+                    linesBefore = admit(inFlight.poll(), queue, report, linesBefore);
+                }
+
+                // The partial line after the last break starts the next chunk
+                int carry = filled - end;
+                block = new byte[Math.max(CHUNK_BYTES, 2 * carry)];
+                System.arraycopy(data, end, block, 0, carry);
+                filled = carry;
+                if (eof && filled == 0) {
+                    break;
+                }
+            }
+            if (columns == null) {
+                throw new IOException("CSV file " + path + " is empty");
+            }
+            while (!inFlight.isEmpty()) {
+                linesBefore = admit(inFlight.poll(), queue, report, linesBefore);
+            }
+        } finally {
+            for (Future<Chunk> pending : inFlight) {
+                pending.cancel(true);
+            }
+            workers.shutdownNow();
+        }
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    // Wait for the oldest chunk and admit it as one batch. Returns the lines read so far
+    private static long admit(Future<Chunk> future, ClinicQueue queue, ImportReport report, long linesBefore)
+            throws IOException {
+        Chunk chunk;
+        try {
+            chunk = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("CSV import interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("CSV import failed", e.getCause());
+        }
+        queue.addPatients(chunk.admissions);
+        report.imported += chunk.admissions.size();
+        report.rejected += chunk.rejected;
+        report.rows += chunk.lines;
+        for (int i = 0; i < chunk.errors.size() && report.errors.size() < MAX_ERRORS_KEPT; i++) {
+            report.errors.add("line " + (linesBefore + chunk.errorLines.get(i)) + ": " + chunk.errors.get(i));
+        }
+        return linesBefore + chunk.lines;
+    }
+
+    private static Columns parseHeader(String line, Path path) throws IOException {
+        if (line.startsWith("\uFEFF")) {
+            line = line.substring(1); // Byte order mark written by spreadsheet programs
+        }
+        List<String> header = new ArrayList<>();
+        line = line.trim();
+        String[] fields = new String[countFields(line)];
+        String error = splitFields(line, 0, line.length(), fields);
+        if (error != null) {
+            throw new IOException("Invalid CSV header in " + path + ": " + error);
+        }
+        for (String field : fields) {
+            header.add(field.trim().toLowerCase(Locale.ROOT));
+        }
+        Columns columns = new Columns(header);
+        if (columns.name < 0 || columns.age < 0 || columns.priority < 0) {
+            throw new IOException("CSV header of " + path + " needs columns name, age and priority, found " + header);
+        }
+        return columns;
+    }
+
+    // Worker thread: decode one chunk of whole lines and validate its rows
+    private static Chunk parse(byte[] data, int from, int to, Columns columns) {
+        String text = new String(data, from, to - from, StandardCharsets.UTF_8);
+        Chunk chunk = new Chunk();
+        String[] fields = new String[columns.count];
+        int lineStart = 0;
+        while (lineStart < text.length()) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = text.length();
+            }
+            int end = lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            chunk.lines++;
+            if (end > lineStart) {
+                String error = splitFields(text, lineStart, end, fields);
+                if (error == null) {
+                    error = addRow(chunk, fields, columns);
+                }
+                if (error != null) {
+                    chunk.reject(error);
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    // Validate one row with the same rules as the console's typed input
+    private static String addRow(Chunk chunk, String[] fields, Columns columns) {
+        String name = fields[columns.name].trim();
+        String error = AdmissionRequest.checkName(name);
+        if (error != null) {
+            return error;
+        }
+        String ageText = fields[columns.age].trim();
+        int age;
+        try {
+            age = Integer.parseInt(ageText);
+        } catch (NumberFormatException e) {
+            return "age is not a number: " + ageText;
+        }
+        error = AdmissionRequest.checkAge(age);
+        if (error != null) {
+            return error;
+        }
+        String priorityText = fields[columns.priority].trim();
+        int priority;
+        try {
+            priority = Integer.parseInt(priorityText);
+        } catch (NumberFormatException e) {
+            return "priority is not a number: " + priorityText;
+        }
+        error = AdmissionRequest.checkPriority(priority);
+        if (error != null) {
+            return error;
+        }
+        String condition = columns.condition >= 0 ? fields[columns.condition].trim() : "";
+        chunk.admissions.add(new AdmissionRequest(name, age, condition, priority));
+        return null;
+    }
+
+    /**
+     * Split text[from, to) into exactly fields.length fields
+     * Time Complexity: O(line length)
+     *
+     * @return null, or why the line is not a valid row
+     */
+    private static String splitFields(String text, int from, int to, String[] fields) {
+        int field = 0;
+        int i = from;
+        while (true) {
+            if (field == fields.length) {
+                return "expected " + fields.length + " fields, found more";
+            }
+            if (i < to && text.charAt(i) == '"') {
+                StringBuilder value = new StringBuilder();
+                i++;
+                while (true) {
+                    if (i >= to) {
+                        return "unterminated quote";
+                    }
+                    char c = text.charAt(i++);
+                    if (c == '"') {
+                        if (i < to && text.charAt(i) == '"') {
+                            value.append('"'); // "" inside quotes
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        value.append(c);
+                    }
+                }
+                if (i < to && text.charAt(i) != ',') {
+                    return "text after closing quote";
+                }
+                fields[field++] = value.toString();
+            } else {
+                int comma = text.indexOf(',', i);
+                int end = comma < 0 || comma >= to ? to : comma;
+                fields[field++] = text.substring(i, end);
+                i = end;
+            }
+            if (i >= to) {
+                break;
+            }
+            i++; // Skip the comma
+            if (i == to) {
+                if (field == fields.length) {
+                    return "expected " + fields.length + " fields, found more";
+                }
+                fields[field++] = ""; // Trailing empty field
+                break;
+            }
+        }
+        return field == fields.length ? null : "expected " + fields.length + " fields, found " + field;
+    }
+
+    // Fields of a header line: commas outside quotes, plus one
+    private static int countFields(String line) {
+        int count = 1;
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted; // "" toggles twice
+            } else if (c == ',' && !quoted) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int lastLineBreak(byte[] bytes, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // ========== EXPORT ==========
+    /**
+     * Write the waiting patients in treatment order; the file can be imported again
+     * Columns: position, id, name, age, condition, priority, arrival_time (ISO-8601 UTC)
+     * Time Complexity: O(n log n) to order the queue, then O(n) writing
+     *
+     * @return number of patients written
+     */
+    public static int exportQueue(ClinicQueue queue, Path path) throws IOException {
+        List<Patient> order = queue.getPatientQueueOrder();
+        try (BufferedWriter writer = newWriter(path)) {
+            writer.write("position,id,name,age,condition,priority,arrival_time\n");
+            StringBuilder line = new StringBuilder(128);
+            int position = 1;
+            for (Patient patient : order) {
+                line.setLength(0);
+                line.append(position++).append(',').append(patient.getPatientId()).append(',');
+                appendField(line, patient.getName());
+                line.append(',').append(patient.getAge()).append(',');
+                appendField(line, patient.getCondition());
+                line.append(',').append(patient.getPriority()).append(',')
+                    .append(Instant.ofEpochMilli(patient.getArrivalTime())).append('\n');
+                writer.append(line);
+            }
+        }
+        return order.size();
+    }
+
+    /**
+     * Write the queue statistics as metric,value rows (times in milliseconds)
+     * Time Complexity: O(1)
+     */
+    public static void exportStatistics(ClinicQueue queue, Path path) throws IOException {
+        QueueStats stats = queue.getStats(new QueueStats());
+        try (BufferedWriter writer = newWriter(path)) {
+            writer.write("metric,value\n");
+            writer.write("timestamp," + Instant.ofEpochMilli(stats.getTimestamp()) + "\n");
+            writer.write("admitted," + stats.getTotalPatientsAdmitted() + "\n");
+            writer.write("served," + stats.getTotalPatientsServed() + "\n");
+            writer.write("waiting," + stats.getWaiting() + "\n");
+            writer.write("waiting_critical," + stats.getWaiting(1) + "\n");
+            writer.write("waiting_urgent," + stats.getWaiting(2) + "\n");
+            writer.write("waiting_regular," + stats.getWaiting(3) + "\n");
+            writer.write("average_wait_ms," + stats.getAverageWaitMillis() + "\n");
+            writer.write("max_wait_ms," + stats.getMaxWaitMillis() + "\n");
+            writer.write("average_current_wait_ms," + stats.getAverageCurrentWaitMillis() + "\n");
+            writer.write("average_call_interval_ms," + Math.round(queue.getAverageCallIntervalMillis()) + "\n");
+        }
+    }
+
+    private static BufferedWriter newWriter(Path path) throws IOException {
+        return new BufferedWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    // Quote a field if it needs it; line breaks become spaces so every row stays one line
+    private static void appendField(StringBuilder line, String value) {
+        String text = value == null ? "" : value.replace('\r', ' ').replace('\n', ' ');
+        boolean quote = text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || (!text.isEmpty() && (text.charAt(0) == ' ' || text.charAt(text.length() - 1) == ' '));
+        if (!quote) {
+            line.append(text);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    // ========== DEMO ==========
+
+    /**
+     * Usage: java PatientCsv <patients.csv> [rows to generate first]
+     * Imports the file into a new queue, then exports the queue and its statistics
+     * next to it (<name>-queue.csv, <name>-stats.csv).
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java PatientCsv <patients.csv> [rows to generate first]");
+            return;
+        }
+        Path input = Paths.get(args[0]);
+        if (args.length > 1) {
+            int rows = Integer.parseInt(args[1]);
+            writeSample(input, rows);
+            System.out.printf("📝 Generated %,d rows (%,d KB) in %s%n", rows, Files.size(input) / 1024, input);
+        }
+
+        ClinicQueue queue = new ClinicQueue();
+        ImportReport report = importPatients(queue, input);
+        System.out.println("📥 " + report);
+        for (String error : report.getErrors().subList(0, Math.min(5, report.getErrors().size()))) {
+            System.out.println("   ❌ " + error);
+        }
+
+        String base = input.getFileName().toString().replaceFirst("\\.csv$", "");
+        Path queueFile = input.resolveSibling(base + "-queue.csv");
+        Path statsFile = input.resolveSibling(base + "-stats.csv");
+        long start = System.nanoTime();
+        int exported = exportQueue(queue, queueFile);
+        exportStatistics(queue, statsFile);
+        System.out.printf("📤 Exported %,d patient(s) to %s and statistics to %s in %,d ms%n",
+                exported, queueFile, statsFile, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Registration-system style file with a few invalid rows mixed in
+    private static void writeSample(Path path, int rows) throws IOException {
+        String[] first = {"John", "Jane", "Ahmad", "Siti", "Wei", "Priya", "Maria", "Omar"};
+        String[] last = {"Doe", "Tan", "Lim", "Rahman", "Smith, Jr.", "Kumar", "Garcia", "Ali"};
+        String[] conditions = {"Chest Pain", "Fever, cough", "Fracture", "Headache", "Checkup", "Asthma \"mild\""};
+        Random random = new Random(42);
+        try (BufferedWriter writer = newWriter(path)) {
+            writer.write("name,age,condition,priority\n");
+            StringBuilder line = new StringBuilder(96);
+            for (int i = 0; i < rows; i++) {
+                line.setLength(0);
+                appendField(line, first[random.nextInt(first.length)] + " " + last[random.nextInt(last.length)]);
+                line.append(',').append(random.nextInt(90)).append(',');
+                appendField(line, conditions[random.nextInt(conditions.length)]);
+                int priority = 1 + random.nextInt(3);
+                line.append(',').append(i % 100_000 == 99_999 ? priority + 3 : priority).append('\n');
+                writer.append(line);
+            }
+        }
+    }
+}
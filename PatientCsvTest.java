@@ -0,0 +1,201 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * PatientCsvTest - Imports hand-written CSV files and checks every admitted field
+ * Cases:
+ * - quoted fields holding commas, and "" inside quotes
+ * - CRLF line endings (spreadsheet exports on Windows)
+ * - a row straddling the 1 MB chunk boundary of the parallel import
+ * - rows the console would refuse (empty name, negative age, priority 0 or 4,
+ *   age or priority not a number) are rejected with their line number
+ * - export -> import round trip keeps names, ages, conditions and treatment order
+ *
+ * Usage: java PatientCsvTest   (exit code 1 on failure)
+ */
+public class PatientCsvTest {
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("\n🧪 PATIENT CSV IMPORT/EXPORT TEST");
+        System.out.println("════════════════════════════════════════════════════════════════");
+
+        Path directory = Files.createTempDirectory("clinic-csv");
+        boolean allPassed;
+        try {
+            allPassed = report("Quoted commas and \"\" escapes", quoting(directory));
+            allPassed &= report("CRLF line endings", crlf(directory));
+            allPassed &= report("Row across the chunk boundary", chunkBoundary(directory));
+            allPassed &= report("Console rules on invalid rows", invalidRows(directory));
+            allPassed &= report("Export -> import round trip", roundTrip(directory));
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+        System.out.println("════════════════════════════════════════════════════════════════");
+        System.out.println(allPassed ? "✅ All cases passed." : "❌ CSV test FAILED.");
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+
+    // ========== CASES (each returns null on success, otherwise what went wrong) ==========
+
+    private static String quoting(Path directory) throws IOException {
+        ClinicQueue queue = importText(directory, "name,age,condition,priority\n"
+                + "\"Smith, Jane\",30,\"Fever, cough\",3\n"
+                + "\"Ann \"\"Nan\"\" Lee\",41,\"says \"\"ouch\"\", twice\",2\n"
+                + "Plain Name,50,,1\n"
+                + "\"\"\"Quoted\"\"\",7,\"\",2\n");
+        return expect(queue, new String[][] {
+                {"Plain Name", "50", "", "1"},
+                {"Ann \"Nan\" Lee", "41", "says \"ouch\", twice", "2"},
+                {"\"Quoted\"", "7", "", "2"},
+                {"Smith, Jane", "30", "Fever, cough", "3"}});
+    }
+
+    private static String crlf(Path directory) throws IOException {
+        ClinicQueue queue = importText(directory, "name,age,condition,priority\r\n"
+                + "John Doe,45,Chest Pain,1\r\n"
+                + "\"Tan, Wei\",28,\"Fever, cough\",2\r\n"
+                + "\r\n"
+                + "Siti Rahman,33,Checkup,3\r\n");
+        return expect(queue, new String[][] {
+                {"John Doe", "45", "Chest Pain", "1"},
+                {"Tan, Wei", "28", "Fever, cough", "2"},
+                {"Siti Rahman", "33", "Checkup", "3"}});
+    }
+
+    // Fill the first chunk to just before its end so one row is cut in half by the read
+    private static String chunkBoundary(Path directory) throws IOException {
+        StringBuilder text = new StringBuilder("name,age,condition,priority\r\n");
+        int rows = 0;
+        String row = "Filler Patient,30,Checkup,3\r\n";
+        while (text.length() + row.length() < PatientCsv.CHUNK_BYTES - 10) {
+            text.append(row);
+            rows++;
+        }
+        String straddling = "\"Boundary, Case\",64,\"Spans \"\"both\"\" chunks\",1\r\n";
+        int boundaryOffset = PatientCsv.CHUNK_BYTES - text.length();
+        text.append(straddling);
+        text.append("After Boundary,22,Fracture,2\r\n");
+        if (boundaryOffset <= 0 || boundaryOffset >= straddling.length()) {
+            return "test row does not straddle the boundary";
+        }
+
+        Path file = directory.resolve("boundary.csv");
+        Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+        for (int threads : new int[] {1, 4}) {
+            ClinicQueue queue = new ClinicQueue();
+            PatientCsv.ImportReport result = PatientCsv.importPatients(queue, file, threads);
+            if (result.getImported() != rows + 2 || result.getRejected() != 0) {
+                return threads + " thread(s): imported " + result.getImported() + ", rejected "
+                        + result.getRejected() + ", expected " + (rows + 2) + " and 0";
+            }
+            List<Patient> order = queue.getPatientQueueOrder();
+            String failure = compareRow(order.get(0), new String[] {"Boundary, Case", "64", "Spans \"both\" chunks", "1"})
+                    + compareRow(order.get(1), new String[] {"After Boundary", "22", "Fracture", "2"});
+            if (!failure.isEmpty()) {
+                return threads + " thread(s): " + failure;
+            }
+        }
+        return null;
+    }
+
+    private static String invalidRows(Path directory) throws IOException {
+        Path file = directory.resolve("invalid.csv");
+        Files.write(file, ("name,age,condition,priority\n"
+                + "Valid One,30,Fever,2\n"             // line 2
+                + " ,30,Fever,2\n"                     // line 3: empty name
+                + "Negative Age,-1,Fever,2\n"          // line 4
+                + "Priority Zero,30,Fever,0\n"         // line 5
+                + "Priority Four,30,Fever,4\n"         // line 6
+                + "Age Text,forty,Fever,2\n"           // line 7
+                + "\"Unterminated,30,Fever,2\n"        // line 8
+                + "Valid Two,0,,3\n").getBytes(StandardCharsets.UTF_8));
+        ClinicQueue queue = new ClinicQueue();
+        PatientCsv.ImportReport result = PatientCsv.importPatients(queue, file, 2);
+        List<String> expected = List.of(
+                "line 3: " + AdmissionRequest.checkName(""),
+                "line 4: " + AdmissionRequest.checkAge(-1),
+                "line 5: " + AdmissionRequest.checkPriority(0),
+                "line 6: " + AdmissionRequest.checkPriority(4),
+                "line 7: age is not a number: forty",
+                "line 8: unterminated quote");
+        if (!result.getErrors().equals(expected)) {
+            return "errors " + result.getErrors();
+        }
+        return expect(queue, new String[][] {{"Valid One", "30", "Fever", "2"}, {"Valid Two", "0", "", "3"}});
+    }
+
+    private static String roundTrip(Path directory) throws IOException {
+        ClinicQueue original = new ClinicQueue();
+        original.addPatient("Smith, Jr., John", 45, "Chest pain, left arm", 1);
+        original.addPatient("Ann \"Nan\" Lee", 30, "Fever", 3);
+        original.addPatient("Wei Tan", 0, "", 2);
+        original.addPatient("Omar Ali", 67, "Said \"it hurts\"", 2);
+        original.addPatient("Siti Rahman", 28, "Line one\nline two", 1);
+        original.callNextPatient();
+
+        Path file = directory.resolve("export.csv");
+        int exported = PatientCsv.exportQueue(original, file);
+        ClinicQueue imported = new ClinicQueue();
+        PatientCsv.ImportReport result = PatientCsv.importPatients(imported, file, 2);
+        if (result.getImported() != exported || result.getRejected() != 0) {
+            return "exported " + exported + ", imported " + result.getImported() + ", rejected " + result.getRejected();
+        }
+        List<Patient> expected = original.getPatientQueueOrder();
+        List<Patient> actual = imported.getPatientQueueOrder();
+        for (int i = 0; i < expected.size(); i++) {
+            Patient e = expected.get(i);
+            String failure = compareRow(actual.get(i), new String[] {e.getName(), String.valueOf(e.getAge()),
+                    e.getCondition().replace('\n', ' '), String.valueOf(e.getPriority())});
+            if (!failure.isEmpty()) {
+                return "position " + (i + 1) + ": " + failure;
+            }
+        }
+        return null;
+    }
+
+    // ========== HELPERS ==========
+
+    private static ClinicQueue importText(Path directory, String text) throws IOException {
+        Path file = directory.resolve("patients.csv");
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        ClinicQueue queue = new ClinicQueue();
+        PatientCsv.importPatients(queue, file, 2);
+        return queue;
+    }
+
+    // Rows of {name, age, condition, priority} in treatment order
+    private static String expect(ClinicQueue queue, String[][] rows) {
+        List<Patient> order = queue.getPatientQueueOrder();
+        if (order.size() != rows.length) {
+            return "imported " + order.size() + " patient(s), expected " + rows.length;
+        }
+        for (int i = 0; i < rows.length; i++) {
+            String failure = compareRow(order.get(i), rows[i]);
+            if (!failure.isEmpty()) {
+                return "position " + (i + 1) + ": " + failure;
+            }
+        }
+        return null;
+    }
+
+    private static String compareRow(Patient patient, String[] row) {
+        String actual = patient.getName() + "|" + patient.getAge() + "|" + patient.getCondition() + "|" + patient.getPriority();
+        String expected = String.join("|", row);
+        return actual.equals(expected) ? "" : "got [" + actual + "], expected [" + expected + "]";
+    }
+
+    private static boolean report(String label, String failure) {
+        System.out.printf("%-34s | %s%n", label, failure == null ? "✅ OK" : "❌ " + failure);
+        return failure == null;
+    }
+}
@@ -0,0 +1,289 @@
+import java.util.*;
+
+/**
+ * PatientNameIndex Class - N-gram index for partial, case-insensitive name search
+ * Every waiting patient's name is lower-cased once, when indexed, and every distinct
+ * substring of length 1 to 3 (its 1-, 2- and 3-grams) points back to the patient:
+ *
+ *   "emma" -> e, m, a, em, mm, ma, emm, mma
+ *
+ * Lookups:
+ * - Query of 1-3 characters: the posting list IS the answer, O(k) for k matches
+ * - Longer query: take its rarest trigram's posting list and keep the names that
+ *   contain the whole query, O(c) for c candidates (close to k in practice)
+ *
+ * Grams are packed into a long key (length + up to three 16-bit chars) and looked up in
+ * an open-addressing table, so indexing a name builds no substring objects.
+ *
+ * Posting lists are plain arrays in admission order. Removing a patient only marks
+ * its entries as stale; a list is compacted once half of it is stale, so removal
+ * stays O(L) and lookups never scan more than twice the live entries. Each entry
+ * records the indexing "generation" it was added under, so entries left over from
+ * a patient's old name are never mistaken for live ones.
+ */
+public class PatientNameIndex {
+    private static final int MAX_GRAM = 3;
+    private static final long NO_GRAM = 0; // Empty table slot: real keys always have a length
+
+    // Patients whose name contains one n-gram, possibly with stale entries
+    private static final class Posting {
+        Patient[] patients = new Patient[4];
+        int[] generations = new int[4];
+        int size;
+        int stale;
+
+        void add(Patient patient, int generation) {
+            if (size == patients.length) {
+                patients = Arrays.copyOf(patients, size * 2);
+                generations = Arrays.copyOf(generations, size * 2);
+            }
+            patients[size] = patient;
+            generations[size] = generation;
+            size++;
+        }
+
+        int live() {
+            return size - stale;
+        }
+    }
+
+    // n-gram key -> patients whose name contains it (open addressing, linear probing)
+    // Postings are never deleted: the set of grams seen is small and reused all day
+    private long[] gramKeys;
+    private Posting[] gramPostings;
+    private int gramCount;
+
+    // Reused buffer for the distinct gram keys of the name being indexed
+    private long[] scratch;
+
+    // A patient's name as it was indexed (lower-case) and the generation of its posting entries
+    private static final class IndexedName {
+        final String name;
+        final int generation;
+
+        IndexedName(String name, int generation) {
+            this.name = name;
+            this.generation = generation;
+        }
+    }
+
+    // Patient -> current indexed name; a posting entry is live only if its generation matches
+    private final IdentityHashMap<Patient, IndexedName> indexedNames;
+    private int nextGeneration;
+
+    // Constructor
+    public PatientNameIndex() {
+        this.gramKeys = new long[1024];
+        this.gramPostings = new Posting[1024];
+        this.gramCount = 0;
+        this.scratch = new long[3 * 32];
+        this.indexedNames = new IdentityHashMap<>();
+        this.nextGeneration = 0;
+    }
+
+    /**
+     * Index a patient under every n-gram of its name
+     * Time Complexity: O(L), L = name length
+     */
+    public void add(Patient patient) {
+        IndexedName indexed = new IndexedName(patient.getName().toLowerCase(), nextGeneration++);
+        if (indexedNames.put(patient, indexed) != null) {
+            throw new IllegalStateException("Patient " + patient.getPatientId() + " is already indexed");
+        }
+        int grams = distinctGrams(indexed.name);
+        for (int i = 0; i < grams; i++) {
+            postingFor(scratch[i]).add(patient, indexed.generation);
+        }
+    }
+
+    /**
+     * Remove a patient from the index
+     * Time Complexity: O(L) amortized, L = name length
+     */
+    public void remove(Patient patient) {
+        IndexedName indexed = indexedNames.remove(patient);
+        if (indexed == null) {
+            return;
+        }
+        int grams = distinctGrams(indexed.name);
+        for (int i = 0; i < grams; i++) {
+            retire(find(scratch[i]));
+        }
+    }
+
+    /**
+     * Re-index a patient after its name changed
+     * Time Complexity: O(L) amortized
+     */
+    public void update(Patient patient) {
+        remove(patient);
+        add(patient);
+    }
+
+    /**
+     * Find all patients whose name contains the query (already trimmed and lower-cased)
+     * Time Complexity: O(k) for queries up to 3 characters, O(c) for longer ones
+     */
+    public List<Patient> search(String lowerQuery) {
+        List<Patient> results = new ArrayList<>();
+        if (lowerQuery.length() <= MAX_GRAM) {
+            Posting posting = find(gramKey(lowerQuery, 0, lowerQuery.length()));
+            if (posting != null) {
+                collect(posting, lowerQuery, results);
+            }
+            return results;
+        }
+
+        // Every match contains every trigram of the query: scan only the rarest one
+        Posting rarest = null;
+        for (int start = 0; start + MAX_GRAM <= lowerQuery.length(); start++) {
+            Posting posting = find(gramKey(lowerQuery, start, MAX_GRAM));
+            if (posting == null || posting.live() == 0) {
+                return results; // Some trigram appears in no name
+            }
+            if (rarest == null || posting.live() < rarest.live()) {
+                rarest = posting;
+            }
+        }
+        collect(rarest, lowerQuery, results);
+        return results;
+    }
+
+    public int size() {
+        return indexedNames.size();
+    }
+
+    // ========== POSTING MAINTENANCE ==========
+
+    // One entry of this posting went stale: empty or compact the list when needed
+    private void retire(Posting posting) {
+        if (posting == null) {
+            return;
+        }
+        posting.stale++;
+        if (posting.live() == 0) {
+            Arrays.fill(posting.patients, 0, posting.size, null);
+            posting.size = 0;
+            posting.stale = 0;
+        } else if (posting.stale > posting.live()) {
+            compact(posting);
+        }
+    }
+
+    // Drop stale entries, keeping admission order
+    private void compact(Posting posting) {
+        int kept = 0;
+        for (int i = 0; i < posting.size; i++) {
+            if (isLive(posting, i)) {
+                posting.patients[kept] = posting.patients[i];
+                posting.generations[kept] = posting.generations[i];
+                kept++;
+            }
+        }
+        Arrays.fill(posting.patients, kept, posting.size, null);
+        posting.size = kept;
+        posting.stale = 0;
+    }
+
+    // Copy the live entries of a posting whose name contains the query
+    private void collect(Posting posting, String lowerQuery, List<Patient> results) {
+        boolean exactGram = lowerQuery.length() <= MAX_GRAM; // Posting of the query itself
+        for (int i = 0; i < posting.size; i++) {
+            if (isLive(posting, i)
+                    && (exactGram || indexedNames.get(posting.patients[i]).name.contains(lowerQuery))) {
+                results.add(posting.patients[i]);
+            }
+        }
+    }
+
+    // An entry is live if its patient is still indexed under the same generation
+    private boolean isLive(Posting posting, int i) {
+        IndexedName indexed = indexedNames.get(posting.patients[i]);
+        return indexed != null && indexed.generation == posting.generations[i];
+    }
+
+    // ========== GRAM TABLE ==========
+
+    // Pack 1-3 chars into one key: [length][char][char][char], 16 bits each
+    private static long gramKey(String text, int start, int length) {
+        long key = length;
+        for (int i = start; i < start + length; i++) {
+            key = (key << 16) | text.charAt(i);
+        }
+        return key;
+    }
+
+    // Fill scratch with the distinct gram keys of name (each gram is indexed once per name)
+    private int distinctGrams(String name) {
+        int length = name.length();
+        if (scratch.length < length * MAX_GRAM) {
+            scratch = new long[length * MAX_GRAM];
+        }
+        int count = 0;
+        for (int start = 0; start < length; start++) {
+            for (int gram = 1; gram <= MAX_GRAM && start + gram <= length; gram++) {
+                scratch[count++] = gramKey(name, start, gram);
+            }
+        }
+        Arrays.sort(scratch, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || scratch[i] != scratch[distinct - 1]) {
+                scratch[distinct++] = scratch[i];
+            }
+        }
+        return distinct;
+    }
+
+    private int slotOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & (gramKeys.length - 1);
+    }
+
+    // Posting of a gram, or null if no name ever contained it
+    private Posting find(long key) {
+        int mask = gramKeys.length - 1;
+        for (int slot = slotOf(key); gramKeys[slot] != NO_GRAM; slot = (slot + 1) & mask) {
+            if (gramKeys[slot] == key) {
+                return gramPostings[slot];
+            }
+        }
+        return null;
+    }
+
+    // Posting of a gram, created on first use
+    private Posting postingFor(long key) {
+        int mask = gramKeys.length - 1;
+        int slot = slotOf(key);
+        for (; gramKeys[slot] != NO_GRAM; slot = (slot + 1) & mask) {
+            if (gramKeys[slot] == key) {
+                return gramPostings[slot];
+            }
+        }
+        Posting posting = new Posting();
+        gramKeys[slot] = key;
+        gramPostings[slot] = posting;
+        if (++gramCount * 2 > gramKeys.length) {
+            growTable();
+        }
+        return posting;
+    }
+
+    private void growTable() {
+        long[] oldKeys = gramKeys;
+        Posting[] oldPostings = gramPostings;
+        gramKeys = new long[oldKeys.length * 2];
+        gramPostings = new Posting[oldKeys.length * 2];
+        int mask = gramKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != NO_GRAM) {
+                int slot = slotOf(oldKeys[i]);
+                while (gramKeys[slot] != NO_GRAM) {
+                    slot = (slot + 1) & mask;
+                }
+                gramKeys[slot] = oldKeys[i];
+                gramPostings[slot] = oldPostings[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+import java.util.List;
+
+/**
+ * PatientPriorityQueue Interface - Strategy for the data structure behind ClinicQueue
+ * Implementations must serve patients by priority (1 = Critical first) and
+ * FIFO by arrival within the same priority.
+ *
+ * Available strategies:
+ * - IndexedPatientHeap: general binary heap, O(log n) for every operation
+ * - TriageBucketQueue : one FIFO lane per priority level, O(1) add/call/peek
+ */
+public interface PatientPriorityQueue {
+    /**
+     * Insert a patient
+     */
+    void offer(Patient patient);
+    
+    /**
+     * Insert several patients at once (bulk admission)
+     */
+    void offerAll(List<Patient> patients);
+    
+    /**
+     * Remove and return the highest priority patient, or null if empty
+     */
+    Patient poll();
+    
+    /**
+     * Remove and return up to count highest priority patients, in treatment order (a new, mutable list)
+     */
+    List<Patient> poll(int count);
+    
+    /**
+     * Return the highest priority patient without removing it, or null if empty
+     */
+    Patient peek();
+    
+    /**
+     * Remove a specific patient, returns false if the patient is not queued
+     */
+    boolean remove(Patient patient);
+    
+    /**
+     * Change a queued patient's priority and re-position it, returns false if not queued
+     */
+    boolean changePriority(Patient patient, int newPriority);
+    
+    /**
+     * Check whether a patient is currently queued
+     */
+    boolean contains(Patient patient);
+    
+    int size();
+    
+    boolean isEmpty();
+    
+    /**
+     * Return all queued patients in treatment order without modifying the queue (a new, mutable list)
+     */
+    List<Patient> toSortedList();
+    
+    /**
+     * Return up to limit patients in treatment order, starting at position offset (0 = next),
+     * without modifying the queue or ordering the patients after the page (a new, mutable list)
+     */
+    List<Patient> view(int offset, int limit);
+}
@@ -0,0 +1,84 @@
+import java.util.List;
+
+/**
+ * QueueChange Class - One item of a QueueChangeFeed
+ * A subscriber first receives a SNAPSHOT of everybody waiting, then one delta per
+ * change. Applying the deltas in order to the snapshot keeps a copy of the waiting
+ * room that matches the queue, which is all a display board needs.
+ *
+ * Every change has a sequence number from the feed; a snapshot carries the number of
+ * the last change it already contains, so deltas continue at sequence + 1.
+ */
+public class QueueChange {
+    /**
+     * What changed
+     */
+    public enum Type {
+        SNAPSHOT,      // patients: everybody waiting, in treatment order
+        ADMITTED,      // patient joined the queue
+        CALLED,        // patient was called by a doctor and left the queue
+        REMOVED,       // patient left the queue without being called
+        REPRIORITIZED, // patient's priority changed (previous = before), so their place moved
+        UPDATED        // name, age or condition changed, same priority (previous = before)
+    }
+
+    private final Type type;
+    private final long sequence;
+    private final long timestamp;
+    private final Patient patient;        // null for SNAPSHOT
+    private final Patient previous;       // REPRIORITIZED and UPDATED only
+    private final List<Patient> patients; // SNAPSHOT only
+    private final int queueSize;
+
+    QueueChange(Type type, long sequence, long timestamp, Patient patient, Patient previous,
+                List<Patient> patients, int queueSize) {
+        this.type = type;
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.patient = patient;
+        this.previous = previous;
+        this.patients = patients;
+        this.queueSize = queueSize;
+    }
+
+    // Getters
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    // Time of the queue operation (epoch milliseconds); for a SNAPSHOT, when it was taken
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    // Detached copy of the patient after the change, null for a SNAPSHOT
+    public Patient getPatient() {
+        return patient;
+    }
+
+    // Detached copy of the patient before a REPRIORITIZED or UPDATED change, otherwise null
+    public Patient getPrevious() {
+        return previous;
+    }
+
+    // Everybody waiting, in treatment order (SNAPSHOT only, otherwise null)
+    public List<Patient> getPatients() {
+        return patients;
+    }
+
+    // Patients waiting right after this change
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    @Override
+    public String toString() {
+        String subject = patient != null ? " " + patient.getPatientId() : " (" + queueSize + " waiting)";
+        return "#" + sequence + " " + type + subject;
+    }
+}
@@ -0,0 +1,427 @@
+import java.io.Closeable;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * QueueChangeFeed Class - Reactive feed of queue changes for waiting-room displays
+ * A Flow.Publisher fed by the queue's events: it listens on the QueueEventDispatcher,
+ * keeps its own copy of who is waiting, and sends each subscriber
+ *
+ *   SNAPSHOT (everybody waiting) ──► ADMITTED / CALLED / REMOVED / REPRIORITIZED / UPDATED ...
+ *
+ * Back-pressure: a subscriber only receives as many changes as it request()ed. The rest
+ * wait in its own buffer, where they are coalesced so a slow display catches up quickly:
+ * - repeated updates of one patient become one change (latest state wins)
+ * - an update followed by a call or removal leaves only the call or removal
+ * - an admission followed by a removal leaves nothing at all (a call is kept, with its admission)
+ * - if the buffer still exceeds maxBuffered changes, it is replaced by a fresh SNAPSHOT
+ *
+ * Subscribers are called on the executor (ForkJoinPool.commonPool() by default), never on
+ * the dispatcher thread, so a slow display does not hold up the other listeners.
+ */
+public class QueueChangeFeed implements Flow.Publisher<QueueChange>, QueueEventListener, Closeable {
+    public static final int DEFAULT_MAX_BUFFERED = 1024;
+
+    private final QueueEventDispatcher events;
+    private final Executor executor;
+    private final int maxBuffered;
+
+    // Guarded by this
+    private final Map<Integer, Patient> waiting;      // Patient ID -> latest copy
+    private final List<FeedSubscription> subscriptions;
+    private long sequence;                             // Number of the last change
+    private long resyncs;                              // Buffers replaced by a snapshot
+    private boolean closed;
+
+    // Constructor with the default executor and buffer size
+    public QueueChangeFeed(ClinicQueue queue, QueueEventDispatcher events) {
+        this(queue, events, ForkJoinPool.commonPool(), DEFAULT_MAX_BUFFERED);
+    }
+
+    /**
+     * Start a feed for a queue that publishes to events
+     * Call it from the thread that changes the queue (or under the queue's lock): the
+     * feed starts from the queue's current patients and follows the events after them.
+     * Time Complexity: O(n)
+     */
+    public QueueChangeFeed(ClinicQueue queue, QueueEventDispatcher events, Executor executor, int maxBuffered) {
+        if (maxBuffered < 1) {
+            throw new IllegalArgumentException("maxBuffered must be at least 1");
+        }
+        this.events = events;
+        this.executor = executor;
+        this.maxBuffered = maxBuffered;
+        this.waiting = new HashMap<>();
+        this.subscriptions = new ArrayList<>();
+        this.sequence = 0;
+        this.resyncs = 0;
+        this.closed = false;
+
+        events.awaitIdle(); // Older events are already part of the queue we copy
+        for (Patient patient : queue.view(0, queue.getSize())) {
+            waiting.put(patient.getId(), patient.copy());
+        }
+        events.addListener(this);
+    }
+
+    // ========== PUBLISHER ==========
+
+    /**
+     * Add a subscriber; its first item is a snapshot of everybody waiting
+     * Time Complexity: O(n log n) for the snapshot
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super QueueChange> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        FeedSubscription subscription = new FeedSubscription(subscriber);
+        synchronized (this) {
+            subscription.enqueue(snapshot());
+            if (closed) {
+                subscription.complete();
+            } else {
+                subscriptions.add(subscription);
+            }
+        }
+        subscriber.onSubscribe(subscription);
+        subscription.start();
+    }
+
+    public synchronized int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    // Number of the last change seen by the feed
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    // How often a slow subscriber's buffer overflowed and was replaced by a snapshot
+    public synchronized long getResyncCount() {
+        return resyncs;
+    }
+
+    /**
+     * Deliver the events published so far, stop listening and complete every subscriber
+     * Subscribers still get their buffered changes before onComplete.
+     */
+    @Override
+    public void close() {
+        events.awaitIdle();
+        events.removeListener(this);
+        List<FeedSubscription> toComplete;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toComplete = new ArrayList<>(subscriptions);
+            subscriptions.clear();
+        }
+        for (FeedSubscription subscription : toComplete) {
+            subscription.complete();
+            subscription.schedule();
+        }
+    }
+
+    // ========== EVENT LISTENER (dispatcher thread) ==========
+
+    @Override
+    public synchronized void onEvent(QueueEvent event) {
+        switch (event.getType()) {
+            case ADDED:
+                admitted(event.getPatient(), event.getTimestamp());
+                break;
+            case ADDED_BATCH:
+                for (Patient patient : event.getPatients()) {
+                    admitted(patient, event.getTimestamp());
+                }
+                break;
+            case CALLED:
+                left(QueueChange.Type.CALLED, event.getId(), event.getTimestamp());
+                break;
+            case CALLED_BATCH:
+                for (Patient patient : event.getPatients()) {
+                    left(QueueChange.Type.CALLED, patient.getId(), event.getTimestamp());
+                }
+                break;
+            case REMOVED:
+                left(QueueChange.Type.REMOVED, event.getId(), event.getTimestamp());
+                break;
+            case UPDATED:
+                updated(event.getPrevious(), event.getPatient(), event.getTimestamp());
+                break;
+            default:
+                break; // Searches and misses change nothing
+        }
+    }
+
+    // Hand the batch's changes to the subscribers once per batch, not once per event
+    @Override
+    public void onBatchEnd() {
+        List<FeedSubscription> current;
+        synchronized (this) {
+            current = new ArrayList<>(subscriptions);
+        }
+        for (FeedSubscription subscription : current) {
+            subscription.schedule();
+        }
+    }
+
+    private void admitted(Patient patient, long timestamp) {
+        waiting.put(patient.getId(), patient);
+        publish(new QueueChange(QueueChange.Type.ADMITTED, ++sequence, timestamp, patient, null, null, waiting.size()));
+    }
+
+    private void left(QueueChange.Type type, int id, long timestamp) {
+        Patient patient = waiting.remove(id);
+        if (patient == null) {
+            return; // Left before the feed started
+        }
+        publish(new QueueChange(type, ++sequence, timestamp, patient, null, null, waiting.size()));
+    }
+
+    private void updated(Patient previous, Patient patient, long timestamp) {
+        if (waiting.put(patient.getId(), patient) == null) {
+            waiting.remove(patient.getId()); // Not waiting: nothing to show
+            return;
+        }
+        QueueChange.Type type = previous.getPriority() != patient.getPriority()
+                ? QueueChange.Type.REPRIORITIZED : QueueChange.Type.UPDATED;
+        publish(new QueueChange(type, ++sequence, timestamp, patient, previous, null, waiting.size()));
+    }
+
+    // Caller holds this
+    private void publish(QueueChange change) {
+        for (FeedSubscription subscription : subscriptions) {
+            subscription.enqueue(change);
+        }
+    }
+
+    // Caller holds this. Time Complexity: O(n log n)
+    private QueueChange snapshot() {
+        List<Patient> patients = new ArrayList<>(waiting.values());
+        Collections.sort(patients);
+        return new QueueChange(QueueChange.Type.SNAPSHOT, sequence, System.currentTimeMillis(), null, null,
+                Collections.unmodifiableList(patients), patients.size());
+    }
+
+    private synchronized void unsubscribe(FeedSubscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    // ========== SUBSCRIPTION ==========
+
+    // A pending change; coalescing empties or replaces it instead of searching the buffer
+    private static final class Slot {
+        QueueChange change;
+
+        Slot(QueueChange change) {
+            this.change = change;
+        }
+    }
+
+    private final class FeedSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super QueueChange> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger(); // Drain requests; only 0 -> 1 starts a drain
+        private volatile boolean started;   // onSubscribe has returned
+        private volatile boolean cancelled;
+
+        // Guarded by this subscription
+        private final ArrayDeque<Slot> pending = new ArrayDeque<>();
+        private final Map<Integer, Slot> pendingByPatient = new HashMap<>(); // Last coalescable slot per patient
+        private int live;           // Non-empty slots in pending
+        private boolean completed;  // No more changes will be enqueued
+        private Throwable error;    // Signal onError instead of anything else
+        private boolean terminated; // onComplete or onError was sent
+
+        FeedSubscription(Flow.Subscriber<? super QueueChange> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                synchronized (this) {
+                    error = new IllegalArgumentException("request(" + n + "): demand must be positive");
+                }
+                unsubscribe(this);
+            } else {
+                demand.accumulateAndGet(n, (current, added) -> {
+                    long sum = current + added;
+                    return sum < 0 ? Long.MAX_VALUE : sum; // Saturate: Long.MAX_VALUE means unbounded
+                });
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            unsubscribe(this);
+            synchronized (this) {
+                pending.clear();
+                pendingByPatient.clear();
+                live = 0;
+            }
+        }
+
+        // Called with the feed's lock held, on the dispatcher (or subscribing) thread
+        synchronized void enqueue(QueueChange change) {
+            if (cancelled || completed) {
+                return;
+            }
+            if (change.getType() != QueueChange.Type.SNAPSHOT && coalesce(change)) {
+                return;
+            }
+            Slot slot = new Slot(change);
+            pending.addLast(slot);
+            live++;
+            QueueChange.Type type = change.getType();
+            if (type == QueueChange.Type.ADMITTED || type == QueueChange.Type.REPRIORITIZED
+                    || type == QueueChange.Type.UPDATED) {
+                pendingByPatient.put(change.getPatient().getId(), slot);
+            }
+            if (live > maxBuffered) {
+                resync();
+            }
+        }
+
+        // Fold change into this patient's pending change; true if nothing is left to add
+        private boolean coalesce(QueueChange change) {
+            Slot earlier = pendingByPatient.remove(change.getPatient().getId());
+            if (earlier == null) {
+                return false;
+            }
+            QueueChange before = earlier.change;
+            boolean admission = before.getType() == QueueChange.Type.ADMITTED;
+            if (change.getType() == QueueChange.Type.CALLED && admission) {
+                return false; // A display announces the call, so it must know the patient first
+            }
+            earlier.change = null;
+            live--;
+            switch (change.getType()) {
+                case REMOVED:
+                    return admission; // Never shown: drop both
+                case CALLED:
+                    return false;
+                default:
+                    QueueChange merged = admission
+                            ? new QueueChange(QueueChange.Type.ADMITTED, change.getSequence(), change.getTimestamp(),
+                                              change.getPatient(), null, null, change.getQueueSize())
+                            : mergeUpdates(before, change);
+                    Slot slot = new Slot(merged);
+                    pending.addLast(slot); // Later position keeps the sequence numbers increasing
+                    live++;
+                    pendingByPatient.put(merged.getPatient().getId(), slot);
+                    return true;
+            }
+        }
+
+        private QueueChange mergeUpdates(QueueChange first, QueueChange second) {
+            Patient previous = first.getPrevious();
+            QueueChange.Type type = previous.getPriority() != second.getPatient().getPriority()
+                    ? QueueChange.Type.REPRIORITIZED : QueueChange.Type.UPDATED;
+            return new QueueChange(type, second.getSequence(), second.getTimestamp(), second.getPatient(),
+                    previous, null, second.getQueueSize());
+        }
+
+        // Too far behind: a snapshot is smaller than the backlog. Caller holds the feed's lock
+        private void resync() {
+            pending.clear();
+            pendingByPatient.clear();
+            pending.addLast(new Slot(snapshot()));
+            live = 1;
+            resyncs++;
+        }
+
+        synchronized void complete() {
+            completed = true;
+        }
+
+        void start() {
+            started = true;
+            schedule();
+        }
+
+        // Run a drain on the executor unless one is already running
+        void schedule() {
+            if (!started || wip.getAndIncrement() != 0) {
+                return;
+            }
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                cancelled = true;
+                unsubscribe(this);
+                System.err.println("❌ Queue change feed executor rejected a delivery: " + e);
+            }
+        }
+
+        // Only one drain runs at a time, so the subscriber is never called concurrently
+        private void drain() {
+            int missed = 1;
+            while (true) {
+                emit();
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void emit() {
+            QueueChange next;
+            while ((next = take()) != null) {
+                try {
+                    subscriber.onNext(next);
+                } catch (RuntimeException e) {
+                    cancel(); // A throwing subscriber is broken (Reactive Streams rule 2.13)
+                    System.err.println("❌ Queue change subscriber failed: " + e);
+                    return;
+                }
+            }
+            Throwable failure;
+            synchronized (this) {
+                if (terminated || cancelled || (error == null && !(completed && live == 0))) {
+                    return;
+                }
+                terminated = true;
+                failure = error;
+            }
+            if (failure != null) {
+                subscriber.onError(failure);
+            } else {
+                subscriber.onComplete();
+            }
+        }
+
+        // Next change the subscriber has asked for, or null
+        private synchronized QueueChange take() {
+            if (cancelled || error != null || demand.get() == 0) {
+                return null;
+            }
+            Slot slot;
+            while ((slot = pending.pollFirst()) != null) {
+                QueueChange change = slot.change;
+                if (change == null) {
+                    continue; // Coalesced away
+                }
+                live--;
+                if (change.getPatient() != null && pendingByPatient.get(change.getPatient().getId()) == slot) {
+                    pendingByPatient.remove(change.getPatient().getId());
+                }
+                if (demand.get() != Long.MAX_VALUE) {
+                    demand.decrementAndGet();
+                }
+                return change;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * QueueEvent Class - Immutable record of one ClinicQueue operation
+ * Events are delivered to listeners on another thread, after the queue may already
+ * have changed again, so each event carries detached copies of the patients it is
+ * about instead of the live Patient objects.
+ */
+public class QueueEvent {
+    /**
+     * What happened
+     */
+    public enum Type {
+        ADDED,         // patient, queueSize
+        ADDED_BATCH,   // patients (consecutive IDs from id, resultCount of them), queueSize
+        CALLED,        // patient, queueSize
+        CALLED_BATCH,  // patients in treatment order, queueSize
+        QUEUE_EMPTY,   // call next on an empty queue
+        REMOVED,       // id, queueSize
+        UPDATED,       // previous and patient (before and after), queueSize
+        NOT_FOUND,     // ID text of a remove/update that matched nobody
+        NAME_SEARCH,   // query, resultCount (query is empty for an invalid search)
+        PRIORITY_SEARCH // priority, resultCount
+    }
+
+    private final Type type;
+    private final long timestamp;
+    private final int id;           // Numeric patient ID, 0 if the event has none
+    private final String unknownId; // NOT_FOUND only: the text that matched no patient
+    private final Patient patient;
+    private final Patient previous;
+    private final List<Patient> patients; // ADDED_BATCH and CALLED_BATCH only
+    private final int queueSize;
+    private final String query;
+    private final int priority;
+    private final int resultCount;
+
+    private QueueEvent(Type type, int id, String unknownId, Patient patient, Patient previous, int queueSize,
+                       String query, int priority, int resultCount) {
+        this(type, id, unknownId, patient, previous, null, queueSize, query, priority, resultCount);
+    }
+
+    private QueueEvent(Type type, int id, String unknownId, Patient patient, Patient previous,
+                       List<Patient> patients, int queueSize, String query, int priority, int resultCount) {
+        this.type = type;
+        this.timestamp = System.currentTimeMillis();
+        this.id = id;
+        this.unknownId = unknownId;
+        this.patient = patient;
+        this.previous = previous;
+        this.patients = patients;
+        this.queueSize = queueSize;
+        this.query = query;
+        this.priority = priority;
+        this.resultCount = resultCount;
+    }
+
+    // ========== FACTORIES (used by ClinicQueue) ==========
+
+    static QueueEvent added(Patient patient, int queueSize) {
+        return new QueueEvent(Type.ADDED, patient.getId(), null, patient.copy(), null, queueSize, null, 0, 0);
+    }
+
+    static QueueEvent addedBatch(List<Patient> added, int queueSize) {
+        List<Patient> copies = copyAll(added);
+        return new QueueEvent(Type.ADDED_BATCH, added.get(0).getId(), null, null, null, copies,
+                queueSize, null, 0, copies.size());
+    }
+
+    static QueueEvent called(Patient patient, int queueSize) {
+        return new QueueEvent(Type.CALLED, patient.getId(), null, patient.copy(), null, queueSize, null, 0, 0);
+    }
+
+    static QueueEvent calledBatch(List<Patient> called, int queueSize) {
+        List<Patient> copies = copyAll(called);
+        return new QueueEvent(Type.CALLED_BATCH, 0, null, null, null, copies, queueSize, null, 0, copies.size());
+    }
+
+    static QueueEvent queueEmpty() {
+        return new QueueEvent(Type.QUEUE_EMPTY, 0, null, null, null, 0, null, 0, 0);
+    }
+
+    static QueueEvent removed(int id, int queueSize) {
+        return new QueueEvent(Type.REMOVED, id, null, null, null, queueSize, null, 0, 0);
+    }
+
+    // previous must already be a copy taken before the change
+    static QueueEvent updated(Patient previous, Patient patient, int queueSize) {
+        return new QueueEvent(Type.UPDATED, patient.getId(), null, patient.copy(), previous, queueSize, null, 0, 0);
+    }
+
+    static QueueEvent notFound(String patientId) {
+        return new QueueEvent(Type.NOT_FOUND, 0, patientId, null, null, 0, null, 0, 0);
+    }
+
+    static QueueEvent nameSearch(String query, int resultCount) {
+        return new QueueEvent(Type.NAME_SEARCH, 0, null, null, null, 0, query, 0, resultCount);
+    }
+
+    static QueueEvent prioritySearch(int priority, int resultCount) {
+        return new QueueEvent(Type.PRIORITY_SEARCH, 0, null, null, null, 0, null, priority, resultCount);
+    }
+
+    private static List<Patient> copyAll(List<Patient> patients) {
+        List<Patient> copies = new ArrayList<>(patients.size());
+        for (Patient patient : patients) {
+            copies.add(patient.copy());
+        }
+        return Collections.unmodifiableList(copies);
+    }
+
+    // Getters
+
+    public Type getType() {
+        return type;
+    }
+
+    // Time the operation happened (epoch milliseconds)
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    // Display form of the patient ID ("P001"), or null if the event is not about one patient
+    public String getPatientId() {
+        if (unknownId != null) {
+            return unknownId;
+        }
+        return id == 0 ? null : Patient.formatId(id);
+    }
+
+    // Patient as it was right after the operation (ADDED, CALLED, UPDATED), otherwise null
+    public Patient getPatient() {
+        return patient;
+    }
+
+    // Patient as it was right before an UPDATE, otherwise null
+    public Patient getPrevious() {
+        return previous;
+    }
+
+    // Patients admitted by an ADDED_BATCH (in the order given) or called by a CALLED_BATCH
+    // (in treatment order), otherwise null
+    public List<Patient> getPatients() {
+        return patients;
+    }
+
+    // Patients waiting right after the operation
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public int getResultCount() {
+        return resultCount;
+    }
+
+    @Override
+    public String toString() {
+        String patientId = getPatientId();
+        return type + (patientId != null ? " " + patientId : "") + " @" + timestamp;
+    }
+}
@@ -0,0 +1,172 @@
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * QueueEventDispatcher Class - Delivers ClinicQueue events to listeners on a background thread
+ * publish() only hands the event to a bounded queue; one daemon thread drains it in
+ * batches of up to MAX_BATCH events and passes each batch to every listener:
+ *
+ *   ClinicQueue ──publish──► [ event queue ] ──drain batch──► listener 1, listener 2, ...
+ *
+ * When the dispatcher wakes up from an empty queue it lingers for a millisecond so a
+ * burst of operations becomes one batch. Waking the thread (and switching to it)
+ * once per event would cost more than delivering the event.
+ *
+ * A full queue makes publish() wait (back-pressure) rather than drop events.
+ * awaitIdle() waits until everything published so far has been delivered, e.g.
+ * before a console prompt that must appear after the operation's messages.
+ */
+public class QueueEventDispatcher implements Closeable {
+    private static final int DEFAULT_CAPACITY = 64 * 1024;
+    private static final int MAX_BATCH = 256;
+    private static final long BATCH_LINGER_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final BlockingQueue<QueueEvent> events;
+    private final List<QueueEventListener> listeners;
+    private final Thread worker;
+    private final Object idleLock = new Object();
+
+    private final AtomicLong published;
+    private long delivered; // Guarded by idleLock
+    private volatile boolean closed;
+
+    // Constructor
+    public QueueEventDispatcher() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Constructor with a custom queue capacity (events buffered before publish() waits)
+    public QueueEventDispatcher(int capacity) {
+        this.events = new LinkedBlockingQueue<>(capacity);
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.published = new AtomicLong();
+        this.delivered = 0;
+        this.closed = false;
+        this.worker = new Thread(this::run, "queue-event-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public void addListener(QueueEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(QueueEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    // ClinicQueue skips building events when nobody listens
+    boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Queue an event for delivery
+     * Time Complexity: O(1), waits only when the event queue is full
+     */
+    public void publish(QueueEvent event) {
+        if (closed) {
+            throw new IllegalStateException("Event dispatcher is closed");
+        }
+        published.incrementAndGet();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                events.put(event);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true; // Never lose an event; restore the flag afterwards
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Wait until every event published so far has been delivered to all listeners
+     */
+    public void awaitIdle() {
+        if (Thread.currentThread() == worker) {
+            return; // A listener waiting for itself would never wake up
+        }
+        boolean interrupted = false;
+        synchronized (idleLock) {
+            while (delivered < published.get() && worker.isAlive()) {
+                try {
+                    idleLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Deliver the remaining events, then stop the dispatcher thread
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        awaitIdle();
+        worker.interrupt();
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========== DISPATCHER THREAD ==========
+
+    private void run() {
+        List<QueueEvent> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            if (events.isEmpty()) {
+                try {
+                    batch.add(events.take()); // Idle: sleep until the next event
+                } catch (InterruptedException e) {
+                    if (closed && events.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                LockSupport.parkNanos(BATCH_LINGER_NANOS); // Let the rest of the burst arrive
+            }
+            events.drainTo(batch, MAX_BATCH - batch.size());
+            deliver(batch);
+            synchronized (idleLock) {
+                delivered += batch.size();
+                idleLock.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    // One failing listener must not stop the others or the dispatcher
+    private void deliver(List<QueueEvent> batch) {
+        for (QueueEventListener listener : listeners) {
+            try {
+                for (QueueEvent event : batch) {
+                    listener.onEvent(event);
+                }
+                listener.onBatchEnd();
+            } catch (RuntimeException e) {
+                System.err.println("❌ Queue event listener failed: " + e);
+            }
+        }
+    }
+}
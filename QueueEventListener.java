@@ -0,0 +1,18 @@
+/**
+ * QueueEventListener Interface - Subscriber to ClinicQueue events
+ * Listeners are called by the QueueEventDispatcher thread, never by the thread that
+ * changed the queue, so a slow listener (console, network, disk) does not slow down
+ * admissions and calls. Events arrive in the order the operations happened.
+ */
+public interface QueueEventListener {
+    /**
+     * Handle one event
+     */
+    void onEvent(QueueEvent event);
+
+    /**
+     * Called after each batch of events, e.g. to flush buffered output once per batch
+     */
+    default void onBatchEnd() {
+    }
+}
@@ -0,0 +1,197 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * QueueFollower Class - Hot standby copy of a leader's ClinicQueue
+ * Receives the leader's journal records from a QueueReplicator and applies them to
+ * its own ClinicQueue as they arrive, so the heap, patient map and statistics are
+ * always built and only a few records behind. Failover is promote(): the receiver
+ * stops and the warm queue becomes the new leader, with no replay.
+ *
+ * The standby queue is only changed by the receiver thread. Other threads may read it
+ * through read(), which holds the same lock as the receiver; after promote() the queue
+ * belongs to the caller like any ClinicQueue.
+ */
+public class QueueFollower implements Closeable {
+    private final Socket socket;
+    private final Thread receiver;
+    private final CRC32 crc;
+    private final ClinicQueue queue;
+    private long appliedSequence;
+    private volatile boolean connected;
+    private IOException failure; // Why the stream ended, if it did not end by close() or promote()
+
+    private QueueFollower(Socket socket) {
+        this.socket = socket;
+        this.crc = new CRC32();
+        this.queue = new ClinicQueue();
+        this.connected = true;
+        this.receiver = new Thread(this::receive, "queue-follower");
+        receiver.setDaemon(true);
+    }
+
+    /**
+     * Connect to a leader's QueueReplicator and start following it
+     */
+    public static QueueFollower connect(String host, int port) throws IOException {
+        Socket socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        QueueFollower follower = new QueueFollower(socket);
+        follower.receiver.start();
+        return follower;
+    }
+
+    // Sequence number of the last leader record applied here
+    public synchronized long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    // False once the leader is gone (or after close/promote)
+    public boolean isConnected() {
+        return connected;
+    }
+
+    // Error that ended the stream, or null
+    public synchronized IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Run a read-only query against the standby queue (e.g. a second front-desk screen)
+     */
+    public synchronized <T> T read(Function<ClinicQueue, T> reader) {
+        return reader.apply(queue);
+    }
+
+    /**
+     * Wait until every leader record up to sequence has been applied here
+     *
+     * @return false if that did not happen within timeoutMillis (or the leader went away)
+     */
+    public synchronized boolean awaitSequence(long sequence, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (appliedSequence < sequence) {
+            long wait = deadline - System.currentTimeMillis();
+            if (wait <= 0 || !connected) {
+                return false;
+            }
+            wait(wait);
+        }
+        return true;
+    }
+
+    // ========== FAILOVER ==========
+    /**
+     * Stop following and return the queue to serve as the new in-memory leader
+     * Records the old leader sealed but never sent are lost; awaitAcknowledged on the
+     * leader is how a caller makes sure an operation reached the standbys.
+     * Time Complexity: O(1) - the queue is already built
+     */
+    public ClinicQueue promote() throws IOException {
+        stopReceiving();
+        synchronized (this) {
+            return queue;
+        }
+    }
+
+    /**
+     * Promote, and journal every later change so the new leader can recover and be
+     * replicated in turn (QueueReplicator.start). Replaces any journal and snapshot at
+     * these paths with a snapshot of the current state and an empty journal that
+     * continues the old leader's sequence numbers.
+     * Time Complexity: O(n log n) for the snapshot
+     */
+    public ClinicQueue promote(Path journalPath, Path snapshotPath, QueueJournal.FsyncPolicy policy)
+            throws IOException {
+        ClinicQueue leader = promote();
+        QueueJournal journal = QueueJournal.create(journalPath, policy, getAppliedSequence());
+        leader.continueWithJournal(journal, snapshotPath);
+        return leader;
+    }
+
+    @Override
+    public void close() throws IOException {
+        stopReceiving();
+    }
+
+    private void stopReceiving() throws IOException {
+        connected = false;
+        socket.close(); // Unblocks the receiver
+        try {
+            receiver.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while stopping the follower", e);
+        }
+    }
+
+    // ========== RECEIVER THREAD ==========
+
+    private void receive() {
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            if (in.readInt() != QueueReplicator.MAGIC) {
+                throw new IOException("Not a clinic queue replication stream");
+            }
+            int version = in.readInt();
+            if (version != QueueReplicator.VERSION) {
+                throw new IOException("Unsupported replication version " + version);
+            }
+            byte[] frame = new byte[64 * 1024];
+            while (true) {
+                byte type = in.readByte();
+                int length = in.readInt();
+                if (length < 0) {
+                    throw new IOException("Invalid replication frame length " + length);
+                }
+                if (length > frame.length) {
+                    frame = new byte[Math.max(length, frame.length * 2)];
+                }
+                in.readFully(frame, 0, length);
+                long applied = apply(type, ByteBuffer.wrap(frame, 0, length).slice());
+                out.writeLong(applied); // One acknowledgement per frame
+                out.flush();
+            }
+        } catch (EOFException e) {
+            // Leader closed the stream
+        } catch (IOException e) {
+            if (connected) {
+                synchronized (this) {
+                    failure = e;
+                }
+            }
+        } finally {
+            synchronized (this) {
+                connected = false;
+                notifyAll();
+            }
+        }
+    }
+
+    private synchronized long apply(byte type, ByteBuffer data) throws IOException {
+        if (type == QueueReplicator.SNAPSHOT) {
+            if (data.capacity() > 0) {
+                appliedSequence = QueueSnapshot.load(data, "replication snapshot", queue);
+            }
+        } else if (type == QueueReplicator.RECORDS) {
+            appliedSequence = QueueJournal.applyRecords(data, queue, appliedSequence, crc);
+            if (data.hasRemaining()) {
+                throw new IOException("Corrupted record in replication stream after sequence " + appliedSequence);
+            }
+        } else {
+            throw new IOException("Unknown replication frame type " + type);
+        }
+        notifyAll();
+        return appliedSequence;
+    }
+}
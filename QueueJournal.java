@@ -0,0 +1,539 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * QueueJournal Class - Append-only write-ahead journal of ClinicQueue events
+ * Every admission, call, removal and update is written here before it changes the
+ * in-memory queue. After a crash or restart, replaying the journal rebuilds the
+ * heap, the patient map and the statistics exactly as they were.
+ *
+ * File layout:
+ *   [int MAGIC][int VERSION] then records:
+ *   [int length][long sequence][byte type][payload ...][int CRC32]
+ *
+ * length covers sequence + type + payload. A record whose length or checksum does
+ * not match (a write torn by a crash) ends the replay and is cut off the file.
+ *
+ * Records are collected in a buffer and written with one FileChannel call: at the
+ * end of each operation (ALWAYS, NEVER) or once per group-commit interval (GROUP).
+ * The FsyncPolicy decides when the data is written and forced to disk.
+ */
+public class QueueJournal implements Closeable {
+    private static final int MAGIC = 0x434A524E; // "CJRN"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int BUFFER_SIZE = 1024 * 1024; // Always fits MAX_RECORD_SIZE
+    private static final long DEFAULT_GROUP_COMMIT_MILLIS = 20;
+
+    // Event types
+    static final byte ADD = 1;
+    static final byte CALL = 2;
+    static final byte REMOVE = 3;
+    static final byte UPDATE = 4;
+
+    /**
+     * When journal data is forced to stable storage
+     */
+    public enum FsyncPolicy {
+        ALWAYS, // fsync after every event: nothing is lost, slowest
+        GROUP,  // fsync batched events every group-commit interval: loses at most one interval
+        NEVER   // write each event to the OS, never fsync: survives a JVM crash or kill -9, not a power loss
+    }
+
+    private final Path path;
+    private FileChannel channel; // Replaced when compact keeps a tail of newer records
+    private final FsyncPolicy policy;
+    private final ByteBuffer buffer;
+    private final CRC32 crc;
+    private final ScheduledExecutorService flusher; // Only used by the GROUP policy
+
+    private long lastSequence;
+    private boolean replayed;
+    private QueueReplicator replicator; // Gets a copy of each record as it is sealed (null = none)
+    private boolean dirty; // Written to the channel but not yet forced
+
+    private QueueJournal(Path path, FileChannel channel, FsyncPolicy policy, long groupCommitMillis) {
+        this.path = path;
+        this.channel = channel;
+        this.policy = policy;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.crc = new CRC32();
+        this.lastSequence = 0;
+        this.replayed = false;
+        this.dirty = false;
+
+        if (policy == FsyncPolicy.GROUP) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "queue-journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::groupCommit, groupCommitMillis, groupCommitMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Open (or create) a journal file
+     */
+    public static QueueJournal open(Path path, FsyncPolicy policy) throws IOException {
+        return open(path, policy, DEFAULT_GROUP_COMMIT_MILLIS);
+    }
+
+    /**
+     * Open (or create) a journal file with a custom group-commit interval
+     */
+    public static QueueJournal open(Path path, FsyncPolicy policy, long groupCommitMillis) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new QueueJournal(path, channel, policy, groupCommitMillis);
+    }
+
+    /**
+     * Start a new, empty journal whose records continue after sequence (replaces any file
+     * at path). Used when a promoted follower becomes the leader: its queue already holds
+     * every event up to sequence.
+     */
+    static QueueJournal create(Path path, FsyncPolicy policy, long sequence) throws IOException {
+        QueueJournal journal = open(path, policy);
+        synchronized (journal) {
+            journal.resetToHeader();
+            journal.lastSequence = sequence;
+            journal.replayed = true;
+        }
+        return journal;
+    }
+
+    // ========== RECOVERY ==========
+    /**
+     * Replay every intact record after a snapshot into the queue and position the journal for appending
+     * Records with a sequence number up to afterSequence are already in the snapshot and are skipped.
+     * Time Complexity: O(e), e = events in the journal (one sequential mapped read)
+     *
+     * @return number of events replayed
+     */
+    synchronized int replay(ClinicQueue queue, long afterSequence) throws IOException {
+        if (replayed) {
+            throw new IllegalStateException("Journal " + path + " has already been replayed");
+        }
+        replayed = true;
+        lastSequence = afterSequence;
+
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE) {
+            // New (or never completed) journal: start fresh with a header
+            resetToHeader();
+            return 0;
+        }
+
+        MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        if (data.getInt() != MAGIC) {
+            throw new IOException(path + " is not a clinic queue journal");
+        }
+        int version = data.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported journal version " + version + " in " + path);
+        }
+
+        lastSequence = applyRecords(data, queue, afterSequence, crc);
+        int events = (int) (lastSequence - afterSequence); // Sequence numbers have no gaps
+        long validEnd = data.position();
+
+        if (validEnd < fileSize) {
+            channel.truncate(validEnd); // Drop the torn tail so new records follow good ones
+            channel.force(true);
+        }
+        channel.position(validEnd);
+        return events;
+    }
+
+    /**
+     * Apply the records in data (from its position) to the queue, skipping those up to
+     * afterSequence. Stops at a torn or corrupted record; data is left just after the last
+     * intact one. Shared by replay and by QueueFollower, which receives the same records.
+     * Time Complexity: O(e)
+     *
+     * @return sequence number of the last record applied (afterSequence if none)
+     */
+    static long applyRecords(ByteBuffer data, ClinicQueue queue, long afterSequence, CRC32 crc)
+            throws IOException {
+        long lastApplied = afterSequence;
+        int validEnd = data.position();
+        while (data.remaining() >= Integer.BYTES) {
+            int length = data.getInt();
+            if (length < Long.BYTES + 1 || data.remaining() < length + Integer.BYTES) {
+                break; // Torn write at the tail
+            }
+            ByteBuffer record = data.slice(data.position(), length);
+            data.position(data.position() + length);
+            crc.reset();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != data.getInt()) {
+                break; // Corrupted record: stop at the last good one
+            }
+
+            long sequence = record.getLong();
+            if (sequence > lastApplied) {
+                apply(queue, record.get(), record);
+                lastApplied = sequence;
+            }
+            validEnd = data.position();
+        }
+        data.position(validEnd);
+        return lastApplied;
+    }
+
+    // Re-apply one event to the queue without journaling it again
+    private static void apply(ClinicQueue queue, byte type, ByteBuffer record) throws IOException {
+        int patientId = getPatientId(record);
+        switch (type) {
+            case ADD:
+                queue.applyAdd(patientId, getString(record), record.getInt(), getString(record),
+                        record.getInt(), record.getLong());
+                break;
+            case CALL:
+                // Call time was added later: records without it count as zero wait
+                queue.applyCall(patientId, record.remaining() >= Long.BYTES ? record.getLong() : 0);
+                break;
+            case REMOVE:
+                queue.applyRemove(patientId);
+                break;
+            case UPDATE:
+                queue.applyUpdate(patientId, getString(record), record.getInt(), getString(record),
+                        record.getInt());
+                break;
+            default:
+                throw new IOException("Unknown journal event type " + type);
+        }
+    }
+
+    // ========== APPEND ==========
+
+    synchronized void logAdd(Patient patient) {
+        putAddRecord(patient);
+        endRecord();
+    }
+
+    // One record per patient, but a single write (and fsync with ALWAYS) for the whole batch
+    synchronized void logAddAll(List<Patient> patients) {
+        for (Patient patient : patients) {
+            putAddRecord(patient);
+            sealRecord();
+        }
+        commit();
+    }
+
+    synchronized void logCall(int patientId, long callTime) {
+        beginRecord(CALL);
+        putPatientId(buffer, patientId);
+        buffer.putLong(callTime);
+        endRecord();
+    }
+
+    // One CALL record per patient, with a single write (and fsync with ALWAYS) for the whole group
+    synchronized void logCallAll(List<Patient> patients, long callTime) {
+        for (Patient patient : patients) {
+            beginRecord(CALL);
+            putPatientId(buffer, patient.getId());
+            buffer.putLong(callTime);
+            sealRecord();
+        }
+        commit();
+    }
+
+    synchronized void logRemove(int patientId) {
+        beginRecord(REMOVE);
+        putPatientId(buffer, patientId);
+        endRecord();
+    }
+
+    synchronized void logUpdate(int patientId, String name, int age, String condition, int priority) {
+        beginRecord(UPDATE);
+        putPatientId(buffer, patientId);
+        putString(name);
+        buffer.putInt(age);
+        putString(condition);
+        buffer.putInt(priority);
+        endRecord();
+    }
+
+    /**
+     * Write buffered events and force them to disk
+     */
+    public synchronized void sync() throws IOException {
+        writeBuffer();
+        if (dirty) {
+            channel.force(false);
+            dirty = false;
+        }
+    }
+
+    /**
+     * Drop every journaled event once a snapshot covers them
+     * Sequence numbers keep counting from where they were.
+     */
+    synchronized void compact() throws IOException {
+        compact(lastSequence);
+    }
+
+    /**
+     * Drop the journaled events up to throughSequence once a snapshot covers them
+     * Newer events (appended while a background snapshot was written) are copied to a
+     * new file that replaces the journal with an atomic rename, so a crash leaves either
+     * the old journal or the new one; replay skips what the snapshot already holds.
+     * Time Complexity: O(e), e = events in the journal
+     */
+    synchronized void compact(long throughSequence) throws IOException {
+        sync();
+        if (throughSequence >= lastSequence) {
+            resetToHeader(); // Nothing newer to keep
+            return;
+        }
+        ByteBuffer records = ByteBuffer.wrap(readRecords());
+        while (records.remaining() >= Integer.BYTES + Long.BYTES) {
+            int length = records.getInt(records.position());
+            if (records.getLong(records.position() + Integer.BYTES) > throughSequence) {
+                break;
+            }
+            records.position(records.position() + Integer.BYTES + length + Integer.BYTES);
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".compact");
+        try (FileChannel tail = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            tail.write(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip());
+            while (records.hasRemaining()) {
+                tail.write(records);
+            }
+            tail.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel.close();
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        dirty = false;
+    }
+
+    // ========== REPLICATION ==========
+
+    synchronized void setReplicator(QueueReplicator replicator) {
+        this.replicator = replicator;
+    }
+
+    /**
+     * Every record in the file, after writing out the buffered ones (the caller holds the
+     * journal lock so nothing is sealed in between)
+     */
+    synchronized byte[] readRecords() throws IOException {
+        writeBuffer();
+        long size = channel.size() - HEADER_SIZE;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Journal " + path + " is too large to send at once");
+        }
+        ByteBuffer records = ByteBuffer.allocate((int) Math.max(0, size));
+        while (records.hasRemaining()) {
+            if (channel.read(records, HEADER_SIZE + records.position()) < 0) {
+                break;
+            }
+        }
+        return records.array();
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        if (!channel.isOpen()) {
+            return;
+        }
+        if (policy == FsyncPolicy.NEVER) {
+            writeBuffer();
+        } else {
+            sync();
+        }
+        channel.close();
+    }
+
+    // ========== RECORD ENCODING ==========
+
+    // Largest record: type + id + name + age + condition + priority + arrival, strings up to 64 KB each
+    private static final int MAX_RECORD_SIZE = 4 + 8 + 1 + 3 * (2 + 0xFFFF) + 4 + 4 + 8 + 4;
+
+    private int recordStart;
+
+    private void beginRecord(byte type) {
+        if (!replayed) {
+            throw new IllegalStateException("Replay journal " + path + " before appending to it");
+        }
+        if (buffer.remaining() < MAX_RECORD_SIZE) {
+            writeOrFail();
+        }
+        recordStart = buffer.position();
+        buffer.putInt(0); // Length, patched in endRecord
+        buffer.putLong(lastSequence + 1);
+        buffer.put(type);
+    }
+
+    private void putAddRecord(Patient patient) {
+        beginRecord(ADD);
+        putPatientId(buffer, patient.getId());
+        putString(patient.getName());
+        buffer.putInt(patient.getAge());
+        putString(patient.getCondition());
+        buffer.putInt(patient.getPriority());
+        buffer.putLong(patient.getArrivalTime());
+    }
+
+    private void endRecord() {
+        sealRecord();
+        commit();
+    }
+
+    // Patch the length and append the checksum of the record started by beginRecord
+    private void sealRecord() {
+        int length = buffer.position() - recordStart - Integer.BYTES;
+        buffer.putInt(recordStart, length);
+        crc.reset();
+        crc.update(buffer.duplicate().position(recordStart + Integer.BYTES).limit(buffer.position()));
+        buffer.putInt((int) crc.getValue());
+        lastSequence++;
+        if (replicator != null) {
+            replicator.ship(buffer, recordStart, buffer.position());
+        }
+    }
+
+    // End of one operation: ALWAYS forces its records to disk, NEVER hands them to the
+    // operating system (one write, no fsync), GROUP leaves both to the flusher
+    private void commit() {
+        if (policy == FsyncPolicy.ALWAYS) {
+            try {
+                sync();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write journal " + path, e);
+            }
+        } else if (policy == FsyncPolicy.NEVER) {
+            writeOrFail();
+        }
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Text too long for the journal (" + bytes.length + " bytes)");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer record) {
+        byte[] bytes = new byte[Short.toUnsignedInt(record.getShort())];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Patient IDs keep their display form on disk ("P001", same bytes as putString), but
+    // are written and read digit by digit without building a String
+    static void putPatientId(ByteBuffer buffer, int id) {
+        int digits = 3; // Zero-padded to at least three digits
+        for (int rest = id / 1000; rest > 0; rest /= 10) {
+            digits++;
+        }
+        buffer.putShort((short) (1 + digits));
+        buffer.put((byte) 'P');
+        int end = buffer.position() + digits;
+        for (int i = end - 1; i >= end - digits; i--) {
+            buffer.put(i, (byte) ('0' + id % 10));
+            id /= 10;
+        }
+        buffer.position(end);
+    }
+
+    static int getPatientId(ByteBuffer record) throws IOException {
+        int length = Short.toUnsignedInt(record.getShort());
+        if (length < 2 || length > 11 || record.get() != 'P') {
+            throw new IOException("Invalid patient ID in record");
+        }
+        long id = 0;
+        for (int i = 1; i < length; i++) {
+            int digit = record.get() - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IOException("Invalid patient ID in record");
+            }
+            id = id * 10 + digit;
+        }
+        if (id <= 0 || id > Integer.MAX_VALUE) {
+            throw new IOException("Invalid patient ID in record: " + id);
+        }
+        return (int) id;
+    }
+
+    // Truncate the file to an empty journal with just the header
+    private void resetToHeader() throws IOException {
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+        header.flip();
+        channel.write(header, 0);
+        channel.force(true);
+        channel.position(HEADER_SIZE);
+        dirty = false;
+    }
+
+    // Hand the buffered records to the OS in one write call
+    private void writeBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        dirty = true;
+    }
+
+    private void writeOrFail() {
+        try {
+            writeBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write journal " + path, e);
+        }
+    }
+
+    // Periodic group commit for the GROUP policy
+    private void groupCommit() {
+        try {
+            synchronized (this) {
+                if (channel.isOpen()) {
+                    sync();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Journal group commit failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * QueueMetrics Class - Point-in-time copy of the ClinicQueue histograms and gauges
+ * Filled by ClinicQueue.getMetrics(QueueMetrics):
+ * - wait-time histograms per priority level (milliseconds from arrival to being called)
+ * - latency histograms per queue operation (nanoseconds, including journal and events)
+ * - queue-depth gauges: waiting now per priority level, and the peak depth
+ *
+ * Like QueueStats, one instance can be reused for every poll: all histograms are
+ * allocated once here and refilled in place.
+ */
+public class QueueMetrics {
+    /**
+     * Timed ClinicQueue operations
+     * searchByID is timed on one call in SEARCH_BY_ID_SAMPLING only: the lookup takes
+     * less time than reading the clock twice.
+     */
+    public enum Operation {
+        ADD_PATIENT("addPatient"),
+        ADD_PATIENTS("addPatients"),
+        CALL_NEXT_PATIENT("callNextPatient"),
+        CALL_NEXT_PATIENTS("callNextPatients"),
+        CALL_NEXT_PATIENT_FOR("callNextPatientFor"),
+        REMOVE_PATIENT("removePatient"),
+        UPDATE_PATIENT("updatePatient"),
+        SEARCH_BY_ID("searchByID"),
+        SEARCH_BY_NAME("searchByName"),
+        SEARCH_BY_PRIORITY("searchByPriority"),
+        VIEW("view");
+
+        private final String methodName;
+
+        Operation(String methodName) {
+            this.methodName = methodName;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+    }
+
+    public static final int SEARCH_BY_ID_SAMPLING = 64;
+
+    private long timestamp;
+    private final LatencyHistogram[] waitMillis;  // [1] = Critical, [2] = Urgent, [3] = Regular
+    private final LatencyHistogram[] latencyNanos; // By Operation.ordinal()
+    private final int[] waiting;                   // Gauge per priority level, same indexes
+    private int depth;
+    private int peakDepth;
+
+    // Constructor
+    public QueueMetrics() {
+        this.waitMillis = newHistograms(QueueStats.LEVELS + 1);
+        this.latencyNanos = newHistograms(Operation.values().length);
+        this.waiting = new int[QueueStats.LEVELS + 1];
+    }
+
+    static LatencyHistogram[] newHistograms(int count) {
+        LatencyHistogram[] histograms = new LatencyHistogram[count];
+        for (int i = 0; i < count; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+    // Called by ClinicQueue.getMetrics
+    void set(long timestamp, LatencyHistogram[] waitMillis, LatencyHistogram[] latencyNanos,
+             int[] waitingByPriority, int depth, int peakDepth) {
+        this.timestamp = timestamp;
+        for (int level = 1; level <= QueueStats.LEVELS; level++) {
+            waitMillis[level].copyInto(this.waitMillis[level]);
+            this.waiting[level] = waitingByPriority[level];
+        }
+        for (int op = 0; op < latencyNanos.length; op++) {
+            latencyNanos[op].copyInto(this.latencyNanos[op]);
+        }
+        this.depth = depth;
+        this.peakDepth = peakDepth;
+    }
+
+    // Getters
+
+    // Time the metrics were taken (epoch milliseconds)
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    // How long served patients of a priority level (1-3) waited, in milliseconds
+    public LatencyHistogram getWaitTimes(int priority) {
+        if (priority < 1 || priority > QueueStats.LEVELS) {
+            throw new IllegalArgumentException("Priority must be 1-" + QueueStats.LEVELS + ": " + priority);
+        }
+        return waitMillis[priority];
+    }
+
+    // How long an operation took, in nanoseconds
+    public LatencyHistogram getLatency(Operation operation) {
+        return latencyNanos[operation.ordinal()];
+    }
+
+    // Patients waiting now
+    public int getDepth() {
+        return depth;
+    }
+
+    // Patients waiting now at a priority level (1-3), 0 for any other level
+    public int getDepth(int priority) {
+        return priority >= 1 && priority <= QueueStats.LEVELS ? waiting[priority] : 0;
+    }
+
+    // Most patients that were waiting at the same time
+    public int getPeakDepth() {
+        return peakDepth;
+    }
+}
@@ -0,0 +1,139 @@
+import java.util.BitSet;
+
+/**
+ * QueuePositionIndex Class - Answers "how many patients are ahead of me?" in O(log n)
+ * Treatment order is (priority, admission number = patient ID), see Patient.sortKey.
+ * So the patients ahead of someone are everybody waiting in a more urgent lane plus
+ * the patients of their own lane with a smaller ID:
+ *
+ *   ahead(P042, Urgent) = waiting Critical + |{ Urgent IDs < 42 }|
+ *                                             └── Fenwick tree of the Urgent lane
+ *
+ * Each lane keeps a Fenwick (binary indexed) tree over a window of patient IDs,
+ * [base, base + capacity): slot i counts 1 if patient base + i waits in the lane.
+ * IDs only grow, so the window slides up as old patients are called; it is rebuilt
+ * (O(capacity)) when an ID falls outside it, with room for twice the live ID span,
+ * which keeps the rebuilds amortized O(1) per patient.
+ *
+ * Like the heap's key, this index does not depend on the queue strategy: IndexedPatientHeap
+ * and TriageBucketQueue serve patients in the same order. Priorities outside 1..LEVELS
+ * are not indexed (they are not counted in the statistics either).
+ */
+class QueuePositionIndex {
+    private static final int MIN_CAPACITY = 1024;
+
+    // One priority lane: a Fenwick tree over an ID window, plus which IDs are in it
+    private static final class Lane {
+        int base = 1;                  // ID of slot 0
+        int[] tree = new int[MIN_CAPACITY + 1]; // 1-based Fenwick array
+        BitSet members = new BitSet(); // Slot i set = patient base + i waits here (for rebuilds)
+        int size;
+
+        int capacity() {
+            return tree.length - 1;
+        }
+    }
+
+    private final Lane[] lanes;
+
+    QueuePositionIndex() {
+        lanes = new Lane[QueueStats.LEVELS + 1];
+        for (int level = 1; level <= QueueStats.LEVELS; level++) {
+            lanes[level] = new Lane();
+        }
+    }
+
+    /**
+     * A patient started waiting in a lane
+     * Time Complexity: O(log c) amortized, c = lane window
+     */
+    void add(int priority, int id) {
+        Lane lane = lane(priority);
+        if (lane == null) {
+            return;
+        }
+        if (lane.size == 0) {
+            lane.base = id; // Empty lane: start the window here, nothing to move
+        } else if (id < lane.base || id - lane.base >= lane.capacity()) {
+            rebuild(lane, id);
+        }
+        int slot = id - lane.base;
+        lane.members.set(slot);
+        lane.size++;
+        update(lane.tree, slot + 1, +1);
+    }
+
+    /**
+     * A patient stopped waiting in a lane (called, removed or moved to another lane)
+     * Time Complexity: O(log c)
+     */
+    void remove(int priority, int id) {
+        Lane lane = lane(priority);
+        if (lane == null) {
+            return;
+        }
+        int slot = id - lane.base;
+        if (slot < 0 || slot >= lane.capacity() || !lane.members.get(slot)) {
+            return;
+        }
+        lane.members.clear(slot);
+        lane.size--;
+        update(lane.tree, slot + 1, -1);
+    }
+
+    /**
+     * Patients of a lane waiting with a smaller ID (ahead within the lane)
+     * Time Complexity: O(log c)
+     */
+    int countBefore(int priority, int id) {
+        Lane lane = lane(priority);
+        if (lane == null || lane.size == 0 || id <= lane.base) {
+            return 0;
+        }
+        int slots = Math.min(id - lane.base, lane.capacity());
+        int count = 0;
+        for (int i = slots; i > 0; i -= i & -i) {
+            count += lane.tree[i];
+        }
+        return count;
+    }
+
+    private Lane lane(int priority) {
+        return priority >= 1 && priority <= QueueStats.LEVELS ? lanes[priority] : null;
+    }
+
+    // Move the window so it covers every member and newId, with room to grow. O(capacity)
+    private static void rebuild(Lane lane, int newId) {
+        int first = lane.base + lane.members.nextSetBit(0);
+        int last = lane.base + lane.members.length() - 1;
+        int low = Math.min(first, newId);
+        long span = (long) Math.max(last, newId) - low + 1;
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2 * span && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        BitSet members = new BitSet(capacity);
+        int[] tree = new int[capacity + 1];
+        int shift = lane.base - low;
+        for (int slot = lane.members.nextSetBit(0); slot >= 0; slot = lane.members.nextSetBit(slot + 1)) {
+            members.set(slot + shift);
+            tree[slot + shift + 1] = 1;
+        }
+        // Linear-time Fenwick construction: push each node's sum into its parent
+        for (int i = 1; i <= capacity; i++) {
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+        lane.base = low;
+        lane.tree = tree;
+        lane.members = members;
+    }
+
+    private static void update(int[] tree, int index, int delta) {
+        for (int i = index; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * QueueReplicationTest - Replicates a journaled ClinicQueue over loopback and compares
+ * A leader runs random admissions, group admissions, calls, removals and re-triages
+ * with automatic snapshots while followers connect to its QueueReplicator:
+ *
+ *   1. one follower from the start, a second one joining mid-stream (it catches up
+ *      from the snapshot file, the journal file and then the live records)
+ *   2. awaitAcknowledged for records both followers applied, and not for records
+ *      that do not exist yet or for more followers than are connected
+ *   3. failover: the leader goes away, a follower is promoted with its own journal,
+ *      and a new follower replicates the promoted queue
+ *
+ * Checks after every step:
+ * - each follower holds the same patients in the same treatment order as its leader
+ * - admitted/served counters and the next patient ID match
+ * - the promoted queue continues the old leader's journal sequence numbers
+ *
+ * Usage: java QueueReplicationTest [operations]   (exit code 1 on failure)
+ */
+public class QueueReplicationTest {
+    private static final int DEFAULT_OPERATIONS = 20_000;
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_OPERATIONS;
+
+        System.out.println("\n🧪 QUEUE REPLICATION TEST (" + operations + " operations per step)");
+        System.out.println("════════════════════════════════════════════════════════════════");
+        System.out.printf("%-28s | %9s | %9s | %s%n", "Step", "Sequence", "Time (ms)", "Result");
+        System.out.println("════════════════════════════════════════════════════════════════");
+
+        Path directory = Files.createTempDirectory("clinic-replication");
+        boolean allPassed;
+        try {
+            allPassed = run(directory, operations);
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+        System.out.println("════════════════════════════════════════════════════════════════");
+        System.out.println(allPassed ? "✅ All steps passed: followers match their leaders."
+                                     : "❌ Replication test FAILED.");
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(Path directory, int operations) throws Exception {
+        Random random = new Random(7);
+        ClinicQueue leader = new ClinicQueue();
+        QueueJournal journal = QueueJournal.open(directory.resolve("leader.journal"), QueueJournal.FsyncPolicy.NEVER);
+        leader.attachJournal(journal, directory.resolve("leader.snapshot"));
+        leader.setSnapshotInterval(operations / 7 + 1); // The late follower starts from a snapshot plus a journal tail
+        operate(leader, random, operations);
+
+        // 1. An early follower and one that joins while the leader keeps changing
+        long start = System.nanoTime();
+        QueueReplicator replicator = QueueReplicator.start(leader, 0);
+        QueueFollower early = QueueFollower.connect("localhost", replicator.getPort());
+        operate(leader, random, operations);
+        QueueFollower late = QueueFollower.connect("localhost", replicator.getPort());
+        operate(leader, random, operations);
+        long sequence = replicator.getLastSequence();
+        boolean acknowledged = replicator.awaitAcknowledged(sequence, 2, TIMEOUT_MILLIS);
+        String failure = !acknowledged ? "not acknowledged by both followers"
+                : firstFailure(compareFollower(leader, early, "early follower"),
+                               compareFollower(leader, late, "late follower"));
+        boolean passed = report("Mid-stream join", sequence, start, failure);
+
+        // 2. awaitAcknowledged only succeeds for records that were really applied
+        start = System.nanoTime();
+        failure = null;
+        if (!replicator.awaitAcknowledged(sequence, 2, 0)) {
+            failure = "applied records not acknowledged";
+        } else if (replicator.awaitAcknowledged(sequence + 1, 1, 200)) {
+            failure = "acknowledged a record that does not exist";
+        } else if (replicator.awaitAcknowledged(sequence, 3, 200)) {
+            failure = "acknowledged by more followers than connected";
+        } else if (replicator.getMaxLag() != 0) {
+            failure = "lag " + replicator.getMaxLag() + " after acknowledgement";
+        }
+        passed &= report("awaitAcknowledged", sequence, start, failure);
+
+        // 3. Failover: promote the early follower, then replicate the new leader
+        start = System.nanoTime();
+        replicator.close();
+        late.close();
+        ClinicQueue promoted = early.promote(directory.resolve("promoted.journal"),
+                directory.resolve("promoted.snapshot"), QueueJournal.FsyncPolicy.NEVER);
+        failure = compare(leader, promoted);
+        leader.awaitSnapshot(); // Automatic snapshots are written in the background
+        journal.close();
+        if (failure == null && promoted.getJournal().getLastSequence() != sequence) {
+            failure = "promoted journal starts at " + promoted.getJournal().getLastSequence() + ", expected " + sequence;
+        }
+        QueueReplicator promotedReplicator = QueueReplicator.start(promoted, 0);
+        QueueFollower standby = QueueFollower.connect("localhost", promotedReplicator.getPort());
+        promoted.addPatient("After Failover", 50, "Chest Pain", 1);
+        if (failure == null && promotedReplicator.getLastSequence() != sequence + 1) {
+            failure = "first record after failover is " + promotedReplicator.getLastSequence()
+                    + ", expected " + (sequence + 1);
+        }
+        operate(promoted, random, operations);
+        long promotedSequence = promotedReplicator.getLastSequence();
+        if (failure == null && !promotedReplicator.awaitAcknowledged(promotedSequence, 1, TIMEOUT_MILLIS)) {
+            failure = "new follower did not acknowledge";
+        }
+        failure = firstFailure(failure, compareFollower(promoted, standby, "new follower"));
+        standby.close();
+        promotedReplicator.close();
+        promoted.awaitSnapshot();
+        promoted.getJournal().close();
+        passed &= report("Promote and replicate again", promotedSequence, start, failure);
+        return passed;
+    }
+
+    // Random clinic traffic on the leader
+    private static void operate(ClinicQueue queue, Random random, int operations) {
+        String[] conditions = {"Chest Pain", "Fever", "Fracture", "Headache", "Checkup"};
+        for (int i = 0; i < operations; i++) {
+            int roll = random.nextInt(100);
+            int lastId = queue.getPatientIdCounter() - 1;
+            String someId = Patient.formatId(1 + random.nextInt(Math.max(1, lastId)));
+            if (roll < 40) {
+                queue.addPatient("Patient " + i, random.nextInt(90), conditions[random.nextInt(conditions.length)],
+                        1 + random.nextInt(3));
+            } else if (roll < 45) {
+                List<AdmissionRequest> group = new ArrayList<>();
+                for (int k = random.nextInt(8); k >= 0; k--) {
+                    group.add(new AdmissionRequest("Group " + i + "-" + k, 30, "Accident", 1 + random.nextInt(3)));
+                }
+                queue.addPatients(group);
+            } else if (roll < 70) {
+                queue.callNextPatient();
+            } else if (roll < 75) {
+                queue.callNextPatients(random.nextInt(4));
+            } else if (roll < 82) {
+                queue.removePatient(someId);
+            } else {
+                Patient patient = queue.searchByID(someId);
+                if (patient != null) {
+                    queue.updatePatient(someId, patient.getName(), patient.getAge(), "Re-triaged", 1 + random.nextInt(3));
+                }
+            }
+        }
+    }
+
+    // Wait for the follower to apply everything the leader sealed, then compare
+    private static String compareFollower(ClinicQueue leader, QueueFollower follower, String label)
+            throws InterruptedException {
+        long sequence = leader.getJournal().getLastSequence();
+        if (!follower.awaitSequence(sequence, TIMEOUT_MILLIS)) {
+            return label + " stopped at " + follower.getAppliedSequence() + " of " + sequence
+                    + (follower.getFailure() == null ? "" : " (" + follower.getFailure().getMessage() + ")");
+        }
+        String failure = follower.read(standby -> compare(leader, standby));
+        return failure == null ? null : label + ": " + failure;
+    }
+
+    // null if both queues hold the same state, otherwise the first difference
+    private static String compare(ClinicQueue original, ClinicQueue copy) {
+        List<Patient> expected = original.getPatientQueueOrder();
+        List<Patient> actual = copy.getPatientQueueOrder();
+        if (expected.size() != actual.size()) {
+            return "waiting " + actual.size() + ", expected " + expected.size();
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            Patient e = expected.get(i);
+            Patient a = actual.get(i);
+            if (e.getId() != a.getId() || e.getPriority() != a.getPriority() || !e.getName().equals(a.getName())
+                    || !e.getCondition().equals(a.getCondition()) || e.getArrivalTime() != a.getArrivalTime()) {
+                return "position " + (i + 1) + " is " + a.getPatientId() + ", expected " + e.getPatientId();
+            }
+        }
+        if (original.getTotalPatientsAdmitted() != copy.getTotalPatientsAdmitted()
+                || original.getTotalPatientsServed() != copy.getTotalPatientsServed()
+                || original.getPatientIdCounter() != copy.getPatientIdCounter()) {
+            return "counters differ";
+        }
+        return null;
+    }
+
+    private static String firstFailure(String first, String second) {
+        return first != null ? first : second;
+    }
+
+    private static boolean report(String step, long sequence, long startNanos, String failure) {
+        long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+        System.out.printf("%-28s | %9d | %9d | %s%n", step, sequence, elapsedMs,
+                failure == null ? "✅ OK" : "❌ " + failure);
+        return failure == null;
+    }
+}
@@ -0,0 +1,322 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * QueueReplicator Class - Leader side of queue replication to hot standbys
+ * The leader's QueueJournal hands every record it seals to the replicator, which
+ * streams the very same bytes (sequence number, event, CRC) to each connected
+ * QueueFollower. Followers apply them with the journal's replay code, so a standby
+ * holds the same heap, patient map and counters as the leader, a few records behind.
+ *
+ * Per follower:
+ *
+ *   journal.sealRecord ──copy──► backlog ──sender thread──► socket ──► QueueFollower
+ *                                                           acks ◄──── (last sequence applied)
+ *
+ * - Pipelined, batched shipping: the sender writes everything sealed since its last
+ *   write as one frame and never waits for an acknowledgement before the next one.
+ * - Acknowledgements: after each frame the follower replies with the last sequence it
+ *   applied; awaitAcknowledged waits for them (e.g. before telling a desk "saved").
+ * - Catch-up: a new follower first gets the leader's snapshot file and journal file,
+ *   read under the journal lock together with joining the live stream, so no record
+ *   is missed or sent twice. The queue itself is never read off its own thread.
+ * - A follower whose backlog grows past MAX_BACKLOG is dropped; it can reconnect and
+ *   catch up from the files again.
+ *
+ * Wire format (big-endian): leader sends [int MAGIC][int VERSION], then frames
+ * [byte type][int length][bytes]: SNAPSHOT (QueueSnapshot bytes, empty if none) once,
+ * then RECORDS (whole journal records). The follower sends [long sequence] acks.
+ *
+ * The leader queue must have a journal attached (FsyncPolicy.NEVER is enough when
+ * the standbys cover a power loss: every record still reaches the OS when it is sealed).
+ */
+public class QueueReplicator implements Closeable {
+    static final int MAGIC = 0x43524550; // "CREP"
+    static final int VERSION = 1;
+    static final byte SNAPSHOT = 1;
+    static final byte RECORDS = 2;
+    private static final int MAX_BACKLOG = 64 * 1024 * 1024; // Bytes waiting for one follower
+
+    private final QueueJournal journal;
+    private final Path snapshotPath;
+    private final ServerSocket server;
+    private final Thread acceptor;
+    private final List<Session> sessions;
+    private volatile boolean closed;
+
+    private QueueReplicator(QueueJournal journal, Path snapshotPath, ServerSocket server) {
+        this.journal = journal;
+        this.snapshotPath = snapshotPath;
+        this.server = server;
+        this.sessions = new CopyOnWriteArrayList<>();
+        this.acceptor = new Thread(this::acceptFollowers, "queue-replicator-accept");
+        acceptor.setDaemon(true);
+    }
+
+    /**
+     * Start accepting followers for a journaled queue on a port (0 = any free port)
+     */
+    public static QueueReplicator start(ClinicQueue queue, int port) throws IOException {
+        return start(queue, InetAddress.getLoopbackAddress(), port);
+    }
+
+    public static QueueReplicator start(ClinicQueue queue, InetAddress address, int port) throws IOException {
+        QueueJournal journal = queue.getJournal();
+        if (journal == null) {
+            throw new IllegalStateException("Attach a journal to the leader queue before replicating it");
+        }
+        QueueReplicator replicator = new QueueReplicator(journal, queue.getSnapshotPath(),
+                new ServerSocket(port, 50, address));
+        journal.setReplicator(replicator);
+        replicator.acceptor.start();
+        return replicator;
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public int getFollowerCount() {
+        return sessions.size();
+    }
+
+    // Sequence number of the last record sealed by the leader
+    public long getLastSequence() {
+        return journal.getLastSequence();
+    }
+
+    /**
+     * Wait until at least followers followers have applied every record up to sequence
+     * Time Complexity: O(f) per acknowledgement received
+     *
+     * @return false if that did not happen within timeoutMillis
+     */
+    public boolean awaitAcknowledged(long sequence, int followers, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (this) {
+            while (countAcknowledged(sequence) < followers) {
+                long wait = deadline - System.currentTimeMillis();
+                if (wait <= 0 || closed) {
+                    return false;
+                }
+                wait(wait);
+            }
+        }
+        return true;
+    }
+
+    // Largest number of records any connected follower has not acknowledged yet
+    public long getMaxLag() {
+        long last = journal.getLastSequence();
+        long lag = 0;
+        for (Session session : sessions) {
+            lag = Math.max(lag, last - session.acknowledged);
+        }
+        return lag;
+    }
+
+    /**
+     * Stop accepting followers and disconnect the connected ones
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        journal.setReplicator(null);
+        server.close();
+        for (Session session : sessions) {
+            session.close();
+        }
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    // ========== SHIPPING (called by QueueJournal, under its lock) ==========
+
+    void ship(ByteBuffer buffer, int from, int to) {
+        for (Session session : sessions) {
+            session.append(buffer, from, to);
+        }
+    }
+
+    private int countAcknowledged(long sequence) {
+        int count = 0;
+        for (Session session : sessions) {
+            if (session.acknowledged >= sequence) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // ========== FOLLOWERS ==========
+
+    private void acceptFollowers() {
+        while (!closed) {
+            try {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                join(socket);
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("❌ Replication: follower could not join: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Read the files and join the live stream atomically with respect to new records
+    private void join(Socket socket) throws IOException {
+        byte[] snapshot;
+        byte[] records;
+        Session session;
+        synchronized (journal) {
+            records = journal.readRecords();
+            snapshot = snapshotPath != null && Files.exists(snapshotPath) ? Files.readAllBytes(snapshotPath)
+                                                                          : new byte[0];
+            session = new Session(socket);
+            sessions.add(session);
+        }
+        session.start(snapshot, records);
+    }
+
+    // One connected follower: a backlog of records, a sender thread and an ack reader thread
+    private final class Session {
+        private final Socket socket;
+        private final DataOutputStream out;
+        private byte[] backlog = new byte[64 * 1024];
+        private int backlogSize;
+        private volatile boolean stopped;
+        volatile long acknowledged;
+
+        Session(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+        }
+
+        void start(byte[] snapshot, byte[] records) {
+            Thread sender = new Thread(() -> send(snapshot, records), "queue-replicator-send");
+            Thread acks = new Thread(this::readAcks, "queue-replicator-acks");
+            sender.setDaemon(true);
+            acks.setDaemon(true);
+            sender.start();
+            acks.start();
+        }
+
+        // Copy one sealed record into the backlog. O(record size)
+        synchronized void append(ByteBuffer buffer, int from, int to) {
+            if (stopped) {
+                return;
+            }
+            int length = to - from;
+            if (backlogSize + length > backlog.length) {
+                if (backlogSize + length > MAX_BACKLOG) {
+                    System.err.println("❌ Replication: follower " + socket.getRemoteSocketAddress()
+                            + " is too far behind, disconnecting it");
+                    closeLater();
+                    return;
+                }
+                backlog = Arrays.copyOf(backlog, Math.max(backlogSize + length, backlog.length * 2));
+            }
+            buffer.get(from, backlog, backlogSize, length);
+            backlogSize += length;
+            notifyAll();
+        }
+
+        private void send(byte[] snapshot, byte[] records) {
+            byte[] spare = new byte[backlog.length];
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeFrame(SNAPSHOT, snapshot, snapshot.length);
+                writeFrame(RECORDS, records, records.length);
+                out.flush();
+                while (true) {
+                    byte[] batch;
+                    int size;
+                    synchronized (this) {
+                        while (backlogSize == 0 && !stopped) {
+                            wait();
+                        }
+                        if (stopped) {
+                            break;
+                        }
+                        // Swap buffers: records sealed while this batch is on the wire go to the other one
+                        batch = backlog;
+                        size = backlogSize;
+                        backlog = spare.length >= batch.length ? spare : new byte[batch.length];
+                        backlogSize = 0;
+                    }
+                    writeFrame(RECORDS, batch, size);
+                    out.flush();
+                    spare = batch;
+                }
+            } catch (IOException | InterruptedException e) {
+                // Follower gone or replicator closed
+            }
+            close();
+        }
+
+        private void writeFrame(byte type, byte[] bytes, int length) throws IOException {
+            out.writeByte(type);
+            out.writeInt(length);
+            out.write(bytes, 0, length);
+        }
+
+        private void readAcks() {
+            try {
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                while (true) {
+                    acknowledged = in.readLong();
+                    synchronized (QueueReplicator.this) {
+                        QueueReplicator.this.notifyAll();
+                    }
+                }
+            } catch (EOFException e) {
+                // Follower disconnected
+            } catch (IOException e) {
+                if (!stopped && !closed) {
+                    System.err.println("❌ Replication: lost follower " + socket.getRemoteSocketAddress()
+                            + ": " + e.getMessage());
+                }
+            }
+            close();
+        }
+
+        // Called under the journal lock by append: the sender thread closes the socket
+        private void closeLater() {
+            stopped = true;
+            sessions.remove(this);
+            notifyAll();
+        }
+
+        void close() {
+            synchronized (this) {
+                stopped = true;
+                notifyAll();
+            }
+            sessions.remove(this);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+            synchronized (QueueReplicator.this) {
+                QueueReplicator.this.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * QueueSnapshot Class - Compact binary image of the whole ClinicQueue state
+ * Loading a snapshot and replaying only the journal events written after it is
+ * much faster than replaying the whole day's journal.
+ *
+ * File layout (version 2, big-endian):
+ *   [int MAGIC][int VERSION][long journalSequence]
+ *   [int patientIdCounter][int totalPatientsAdmitted][int totalPatientsServed]
+ *   [long totalWaitMillis][long maxWaitMillis]   (added in version 2)
+ *   [int patientCount]
+ *   patientCount x [id][name][int age][condition][int priority][long arrivalTime][status]
+ *   [int CRC32 of everything before it]
+ *
+ * Text fields are [unsigned short length][UTF-8 bytes]. Patients are stored in
+ * treatment order, so loading them back into a heap needs no sifting.
+ */
+public class QueueSnapshot {
+    private static final int MAGIC = 0x43534E50; // "CSNP"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 * 3 + 8 * 2 + 4;
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final int MAX_PATIENT_SIZE = 4 * (2 + 0xFFFF) + 4 + 4 + 8;
+
+    private QueueSnapshot() {
+    }
+
+    /**
+     * Everything a snapshot holds, copied off a queue so that sorting and writing can
+     * happen on another thread while the queue keeps changing
+     */
+    static final class Image {
+        private final long journalSequence;
+        private final int patientIdCounter;
+        private final int totalPatientsAdmitted;
+        private final int totalPatientsServed;
+        private final long totalWaitMillis;
+        private final long maxWaitMillis;
+        private final Patient[] patients; // Not shared with the queue; any order
+
+        /**
+         * Take the counters from queue; patients must be copies (or no longer change)
+         * Time Complexity: O(1)
+         */
+        Image(ClinicQueue queue, Patient[] patients, long journalSequence) {
+            this.journalSequence = journalSequence;
+            this.patientIdCounter = queue.getPatientIdCounter();
+            this.totalPatientsAdmitted = queue.getTotalPatientsAdmitted();
+            this.totalPatientsServed = queue.getTotalPatientsServed();
+            this.totalWaitMillis = queue.getTotalWaitMillis();
+            this.maxWaitMillis = queue.getMaxWaitMillis();
+            this.patients = patients;
+        }
+
+        /**
+         * Write atomically: temp file, fsync, then rename over the old snapshot
+         * Time Complexity: O(n log n) to put patients in treatment order (O(n) if they already are)
+         */
+        void write(Path path) throws IOException {
+            Arrays.sort(patients); // Treatment order, so loading needs no sifting
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                buffer.putInt(MAGIC);
+                buffer.putInt(VERSION);
+                buffer.putLong(journalSequence);
+                buffer.putInt(patientIdCounter);
+                buffer.putInt(totalPatientsAdmitted);
+                buffer.putInt(totalPatientsServed);
+                buffer.putLong(totalWaitMillis);
+                buffer.putLong(maxWaitMillis);
+                buffer.putInt(patients.length);
+
+                for (Patient patient : patients) {
+                    if (buffer.remaining() < MAX_PATIENT_SIZE) {
+                        flush(channel, buffer, crc);
+                    }
+                    QueueJournal.putPatientId(buffer, patient.getId());
+                    putString(buffer, patient.getName());
+                    buffer.putInt(patient.getAge());
+                    putString(buffer, patient.getCondition());
+                    buffer.putInt(patient.getPriority());
+                    buffer.putLong(patient.getArrivalTime());
+                    putString(buffer, patient.getStatus());
+                }
+                flush(channel, buffer, crc);
+
+                buffer.putInt((int) crc.getValue());
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Write the queue state atomically on the calling thread
+     * Time Complexity: O(n) for patients already in treatment order
+     */
+    static void write(ClinicQueue queue, List<Patient> patients, long journalSequence, Path path) throws IOException {
+        new Image(queue, patients.toArray(new Patient[0]), journalSequence).write(path);
+    }
+
+    /**
+     * Load a snapshot into an empty queue with one memory-mapped sequential read
+     * Time Complexity: O(n)
+     *
+     * @return the last journal sequence number contained in the snapshot
+     */
+    static long load(Path path, ClinicQueue queue) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE - 2 * Long.BYTES + Integer.BYTES || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + path + " has an invalid size: " + fileSize);
+            }
+            return load(channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize), path.toString(), queue);
+        }
+    }
+
+    // Load a snapshot held in memory (e.g. received by a QueueFollower); source names it in errors
+    static long load(ByteBuffer data, String source, ClinicQueue queue) throws IOException {
+        if (data.capacity() < HEADER_SIZE - 2 * Long.BYTES + Integer.BYTES) {
+            throw new IOException("Snapshot " + source + " has an invalid size: " + data.capacity());
+        }
+
+        // Verify the checksum before touching the queue
+        int bodySize = data.capacity() - Integer.BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(data.slice(0, bodySize));
+        if ((int) crc.getValue() != data.getInt(bodySize)) {
+            throw new IOException("Snapshot " + source + " is corrupted (checksum mismatch)");
+        }
+
+        if (data.getInt() != MAGIC) {
+            throw new IOException(source + " is not a clinic queue snapshot");
+        }
+        int version = data.getInt();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + " in " + source);
+        }
+        long journalSequence = data.getLong();
+        int patientIdCounter = data.getInt();
+        int totalPatientsAdmitted = data.getInt();
+        int totalPatientsServed = data.getInt();
+        long totalWaitMillis = version >= 2 ? data.getLong() : 0;
+        long maxWaitMillis = version >= 2 ? data.getLong() : 0;
+        int patientCount = data.getInt();
+
+        for (int i = 0; i < patientCount; i++) {
+            Patient patient = new Patient(QueueJournal.getPatientId(data), getString(data), data.getInt(),
+                    getString(data), data.getInt(), data.getLong());
+            patient.setStatus(getString(data));
+            queue.restorePatient(patient);
+        }
+        queue.restoreCounters(patientIdCounter, totalPatientsAdmitted, totalPatientsServed,
+                totalWaitMillis, maxWaitMillis);
+        return journalSequence;
+    }
+
+    // ========== ENCODING HELPERS ==========
+
+    private static void flush(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Text too long for a snapshot (" + bytes.length + " bytes)");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer data) {
+        byte[] bytes = new byte[Short.toUnsignedInt(data.getShort())];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
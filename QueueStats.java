@@ -0,0 +1,88 @@
+/**
+ * QueueStats Class - Point-in-time copy of the ClinicQueue statistics
+ * Filled by ClinicQueue.getStats(QueueStats) from counters that every operation keeps
+ * up to date, so reading statistics never scans the queue. A dashboard that polls
+ * every second can reuse one instance and allocate nothing.
+ */
+public class QueueStats {
+    // Number of triage levels: 1 = Critical, 2 = Urgent, 3 = Regular
+    static final int LEVELS = 3;
+
+    private long timestamp;
+    private int totalPatientsAdmitted;
+    private int totalPatientsServed;
+    private int criticalWaiting;
+    private int urgentWaiting;
+    private int regularWaiting;
+    private int waiting;
+    private long waitingArrivalSum;
+    private long totalWaitMillis;
+    private long maxWaitMillis;
+
+    // Called by ClinicQueue.getStats
+    void set(long timestamp, int totalPatientsAdmitted, int totalPatientsServed,
+             int criticalWaiting, int urgentWaiting, int regularWaiting, int waiting,
+             long waitingArrivalSum, long totalWaitMillis, long maxWaitMillis) {
+        this.timestamp = timestamp;
+        this.totalPatientsAdmitted = totalPatientsAdmitted;
+        this.totalPatientsServed = totalPatientsServed;
+        this.criticalWaiting = criticalWaiting;
+        this.urgentWaiting = urgentWaiting;
+        this.regularWaiting = regularWaiting;
+        this.waiting = waiting;
+        this.waitingArrivalSum = waitingArrivalSum;
+        this.totalWaitMillis = totalWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    // Getters
+
+    // Time the statistics were taken (epoch milliseconds)
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getTotalPatientsAdmitted() {
+        return totalPatientsAdmitted;
+    }
+
+    public int getTotalPatientsServed() {
+        return totalPatientsServed;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    // Waiting patients at a priority level (1-3), 0 for any other level
+    public int getWaiting(int priority) {
+        switch (priority) {
+            case 1: return criticalWaiting;
+            case 2: return urgentWaiting;
+            case 3: return regularWaiting;
+            default: return 0;
+        }
+    }
+
+    // Average time served patients waited before being called
+    public long getAverageWaitMillis() {
+        return totalPatientsServed == 0 ? 0 : totalWaitMillis / totalPatientsServed;
+    }
+
+    // Longest time a served patient waited before being called
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    // Average time the patients still in the queue have waited so far
+    public long getAverageCurrentWaitMillis() {
+        return waiting == 0 ? 0 : Math.max(0, timestamp - waitingArrivalSum / waiting);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Admitted: %d | Served: %d | Waiting: %d (C:%d U:%d R:%d) | Avg wait: %d ms | Max wait: %d ms",
+                totalPatientsAdmitted, totalPatientsServed, waiting, criticalWaiting, urgentWaiting,
+                regularWaiting, getAverageWaitMillis(), maxWaitMillis);
+    }
+}
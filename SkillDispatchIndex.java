@@ -0,0 +1,191 @@
+import java.util.*;
+
+/**
+ * SkillDispatchIndex Class - Sub-queues of waiting patients by required doctor skills
+ * Patients are grouped by their exact requirement mask (one lane per distinct mask,
+ * usually one per specialty plus "any"). Each lane is a min-heap of packed sort keys
+ * (Patient.sortKey), so the best patient a doctor may see is the smallest lane head
+ * among the lanes whose requirements the doctor covers:
+ *
+ *   Dr. Lim (cardiology + pediatrics)
+ *     lane "any"          [ (2,P007) (3,P002) ... ]  ◄── eligible
+ *     lane "cardiology"   [ (1,P011) (2,P004) ... ]  ◄── eligible, head wins
+ *     lane "orthopedics"  [ (1,P009) ... ]               skipped
+ *
+ * Entries are never removed when a patient leaves or changes: like the aging timers,
+ * a lane head is checked against the patient map when it is looked at and dropped if
+ * it no longer matches (patient gone, priority or requirements changed). The lanes
+ * are compacted once they hold twice the entries left by the last compaction.
+ *
+ * Time Complexity: add O(log n); next O(l log n) amortized, l = lanes.
+ */
+class SkillDispatchIndex {
+    private static final int MIN_COMPACT_ENTRIES = 1024;
+
+    // Waiting patients with one requirement mask, as a min-heap of sort keys
+    private static final class Lane {
+        final long required;
+        long[] keys = new long[16];
+        int size;
+
+        Lane(long required) {
+            this.required = required;
+        }
+    }
+
+    private final SkillTable table;
+    private final IntPatientMap patients; // The queue's map of waiting patients
+    private final List<Lane> lanes;
+    private final Map<Long, Lane> byRequirement;
+    private int entries; // Keys in all lanes, stale ones included
+    private int compactAt; // Entries that trigger the next compaction
+
+    SkillDispatchIndex(SkillTable table, IntPatientMap patients) {
+        this.table = table;
+        this.patients = patients;
+        this.lanes = new ArrayList<>();
+        this.byRequirement = new HashMap<>();
+        this.compactAt = MIN_COMPACT_ENTRIES;
+    }
+
+    /**
+     * A patient started waiting: look up their requirements once and queue them
+     * Time Complexity: O(log n)
+     */
+    void add(Patient patient) {
+        patient.setRequiredSkills(table.requiredSkills(patient.getCondition()));
+        push(patient);
+    }
+
+    /**
+     * A waiting patient's priority or condition changed: queue them again under the
+     * new key or requirements (the old entry goes stale). A new condition needing the
+     * same skills at the same priority keeps the entry it has.
+     * Time Complexity: O(log n)
+     */
+    void update(Patient patient, boolean conditionChanged, boolean priorityChanged) {
+        long previous = patient.getRequiredSkills();
+        if (conditionChanged) {
+            patient.setRequiredSkills(table.requiredSkills(patient.getCondition()));
+        }
+        if (priorityChanged || patient.getRequiredSkills() != previous) {
+            push(patient);
+        }
+    }
+
+    /**
+     * The most urgent waiting patient a doctor with these skills may see, or null
+     * The patient stays queued; the caller takes them off the queue.
+     * Time Complexity: O(l log n) amortized
+     */
+    Patient next(long doctorSkills) {
+        Patient best = null;
+        long bestKey = Long.MAX_VALUE;
+        for (Lane lane : lanes) {
+            if ((lane.required & ~doctorSkills) != 0) {
+                continue;
+            }
+            Patient head = head(lane);
+            if (head != null && lane.keys[0] < bestKey) {
+                best = head;
+                bestKey = lane.keys[0];
+            }
+        }
+        return best;
+    }
+
+    // Drop stale heads; return the patient at the head, or null if the lane is empty
+    private Patient head(Lane lane) {
+        while (lane.size > 0) {
+            long key = lane.keys[0];
+            if (isCurrent(lane, key)) {
+                return patients.get((int) key);
+            }
+            pop(lane);
+            entries--;
+        }
+        return null;
+    }
+
+    // Entry still describes a waiting patient: same key and same requirements
+    private boolean isCurrent(Lane lane, long key) {
+        Patient patient = patients.get((int) key); // Low 32 bits are the ID
+        return patient != null && patient.getSortKey() == key && patient.getRequiredSkills() == lane.required;
+    }
+
+    // Lane for the patient's current requirements, created on first use
+    private Lane lane(Patient patient) {
+        long required = patient.getRequiredSkills();
+        Lane lane = byRequirement.get(required);
+        if (lane == null) {
+            lane = new Lane(required);
+            byRequirement.put(required, lane);
+            lanes.add(lane);
+        }
+        return lane;
+    }
+
+    private void push(Patient patient) {
+        Lane lane = lane(patient);
+        if (lane.size == lane.keys.length) {
+            lane.keys = Arrays.copyOf(lane.keys, lane.size * 2);
+        }
+        long key = patient.getSortKey();
+        int index = lane.size++;
+        while (index > 0) { // Sift up
+            int parent = (index - 1) >>> 1;
+            if (lane.keys[parent] <= key) {
+                break;
+            }
+            lane.keys[index] = lane.keys[parent];
+            index = parent;
+        }
+        lane.keys[index] = key;
+        entries++;
+        if (entries > compactAt) {
+            compact();
+        }
+    }
+
+    private static void pop(Lane lane) {
+        long last = lane.keys[--lane.size];
+        if (lane.size > 0) {
+            siftDown(lane, 0, last);
+        }
+    }
+
+    private static void siftDown(Lane lane, int index, long key) {
+        int half = lane.size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < lane.size && lane.keys[child + 1] < lane.keys[child]) {
+                child++;
+            }
+            if (key <= lane.keys[child]) {
+                break;
+            }
+            lane.keys[index] = lane.keys[child];
+            index = child;
+        }
+        lane.keys[index] = key;
+    }
+
+    // Keep only current entries and rebuild each heap bottom-up. O(e)
+    private void compact() {
+        entries = 0;
+        for (Lane lane : lanes) {
+            int kept = 0;
+            for (int i = 0; i < lane.size; i++) {
+                if (isCurrent(lane, lane.keys[i])) {
+                    lane.keys[kept++] = lane.keys[i];
+                }
+            }
+            lane.size = kept;
+            for (int i = (kept >>> 1) - 1; i >= 0; i--) {
+                siftDown(lane, i, lane.keys[i]);
+            }
+            entries += kept;
+        }
+        compactAt = Math.max(MIN_COMPACT_ENTRIES, 2 * entries); // Amortized O(1) per entry
+    }
+}
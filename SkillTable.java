@@ -0,0 +1,104 @@
+import java.util.*;
+
+/**
+ * SkillTable Class - Which doctor skills each condition needs
+ * Every skill name gets one bit (at most 64 skills), so both a doctor's skills and a
+ * condition's requirements are a long mask, and "may this doctor see this patient?"
+ * is a single AND:
+ *
+ *   required & ~doctorSkills == 0
+ *
+ *   cardiology = bit 0, pediatrics = bit 1, orthopedics = bit 2, ...
+ *   "Chest Pain" -> 0b001        Dr. Lim (cardiology, pediatrics) -> 0b011
+ *
+ * Conditions are looked up by their text, ignoring case and surrounding spaces, once
+ * when a patient is admitted or their condition changes; calling a patient only
+ * compares masks. Conditions not in the table need no special skill, so every doctor
+ * may see them.
+ *
+ * Build the table before handing it to ClinicQueue.setSkillTable: patients already
+ * waiting keep the requirements they were given until the table is set again.
+ */
+public class SkillTable {
+    public static final int MAX_SKILLS = 64;
+
+    private final List<String> skills;         // Bit i = skills.get(i)
+    private final Map<String, Integer> bits;    // Skill name -> bit
+    private final Map<String, Long> conditions; // Normalized condition -> required mask
+
+    // Constructor
+    public SkillTable() {
+        this.skills = new ArrayList<>();
+        this.bits = new HashMap<>();
+        this.conditions = new HashMap<>();
+    }
+
+    /**
+     * Declare that a condition needs all of these skills (defining new skill names)
+     * Time Complexity: O(s), s = skills listed
+     */
+    public SkillTable require(String condition, String... skillNames) {
+        conditions.put(normalize(condition), mask(skillNames));
+        return this;
+    }
+
+    /**
+     * Mask of these skills, e.g. for a Doctor; new skill names are defined
+     * Time Complexity: O(s)
+     */
+    public long mask(String... skillNames) {
+        long mask = 0;
+        for (String skill : skillNames) {
+            mask |= 1L << bit(skill);
+        }
+        return mask;
+    }
+
+    /**
+     * Skills a condition needs (0 = any doctor)
+     * Time Complexity: O(length of the condition) for the lookup
+     */
+    public long requiredSkills(String condition) {
+        if (condition == null) {
+            return 0;
+        }
+        Long mask = conditions.get(normalize(condition));
+        return mask == null ? 0 : mask;
+    }
+
+    public int getSkillCount() {
+        return skills.size();
+    }
+
+    // Skill names of a mask, e.g. "cardiology + pediatrics" ("any" for 0)
+    public String describe(long mask) {
+        if (mask == 0) {
+            return "any";
+        }
+        StringJoiner names = new StringJoiner(" + ");
+        for (int bit = 0; bit < skills.size(); bit++) {
+            if ((mask & (1L << bit)) != 0) {
+                names.add(skills.get(bit));
+            }
+        }
+        return names.toString();
+    }
+
+    private int bit(String skill) {
+        String name = normalize(skill);
+        Integer bit = bits.get(name);
+        if (bit != null) {
+            return bit;
+        }
+        if (skills.size() == MAX_SKILLS) {
+            throw new IllegalArgumentException("A skill table holds at most " + MAX_SKILLS + " skills");
+        }
+        bits.put(name, skills.size());
+        skills.add(name);
+        return skills.size() - 1;
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,136 @@
+import java.util.function.Consumer;
+
+/**
+ * TimerWheel Class - Hierarchical timing wheel for many timers with coarse deadlines
+ * Time is cut into ticks of tickMillis. Level 0 has one slot per tick for the next 64
+ * ticks; each higher level has 64 slots that each cover a whole turn of the level
+ * below it:
+ *
+ *   level 0: 64 x 1 tick      level 1: 64 x 64 ticks      level 2: 64 x 4096 ticks   ...
+ *
+ * A timer is pushed onto the slot its deadline falls into. When level 0 completes a
+ * turn, the next slot of level 1 is emptied and its timers move down to the level
+ * that now matches their distance (cascading), so each timer is touched at most once
+ * per level on its way to firing.
+ *
+ * Time Complexity: schedule O(1); advance O(t + e), t = ticks passed (skipped while the
+ * wheel is empty), e = timers fired or cascaded. Timers cannot be cancelled: the owner
+ * checks on expiry whether the timer still matters.
+ */
+public class TimerWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS; // 64 slots per level
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;             // 64^4 ticks: ~194 days at 1 s per tick
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    // One scheduled timer, linked into its slot
+    private static final class Timer<T> {
+        final long tick;
+        final T payload;
+        Timer<T> next;
+
+        Timer(long tick, T payload) {
+            this.tick = tick;
+            this.payload = payload;
+        }
+    }
+
+    private final long tickMillis;
+    private final Timer<T>[][] slots; // [level][slot], each a singly linked list
+    private long currentTick;          // Last tick processed
+    private int size;
+
+    // Constructor: ticks of tickMillis, starting at nowMillis
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimerWheel(long tickMillis, long nowMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Tick must be at least 1 ms: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.slots = (Timer<T>[][]) new Timer[LEVELS][SLOTS];
+        this.currentTick = nowMillis / tickMillis;
+        this.size = 0;
+    }
+
+    /**
+     * Schedule payload to expire at the first advance at or after deadlineMillis
+     * (rounded up to a whole tick). A deadline already passed expires at the next tick.
+     * Time Complexity: O(1)
+     */
+    public void schedule(long deadlineMillis, T payload) {
+        long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        place(new Timer<>(tick, payload));
+        size++;
+    }
+
+    /**
+     * Move the wheel forward to nowMillis and hand every expired payload to onExpired,
+     * in deadline order (by tick). onExpired may schedule new timers.
+     * Time Complexity: O(t + e)
+     *
+     * @return number of payloads expired
+     */
+    public int advance(long nowMillis, Consumer<? super T> onExpired) {
+        long target = nowMillis / tickMillis;
+        int expired = 0;
+        while (currentTick < target) {
+            if (size == 0) {
+                currentTick = target; // Nothing to fire or cascade: skip the idle ticks
+                break;
+            }
+            currentTick++;
+            cascade();
+            int slot = (int) (currentTick & MASK);
+            Timer<T> timer = slots[0][slot];
+            slots[0][slot] = null;
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                size--;
+                expired++;
+                onExpired.accept(timer.payload);
+                timer = next;
+            }
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // ========== SLOTS ==========
+
+    // At the start of a turn of level l, move its current level-l slot down; highest level first,
+    // so timers that land in a lower slot about to be emptied are moved again right away
+    private void cascade() {
+        int top = 0;
+        while (top + 1 < LEVELS && (currentTick & ((1L << (SLOT_BITS * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            int slot = (int) ((currentTick >>> (SLOT_BITS * level)) & MASK);
+            Timer<T> timer = slots[level][slot];
+            slots[level][slot] = null;
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                place(timer);
+                timer = next;
+            }
+        }
+    }
+
+    // Push a timer onto the slot of the lowest level whose range covers its distance
+    private void place(Timer<T> timer) {
+        long tick = Math.max(timer.tick, currentTick);
+        long delta = Math.min(tick - currentTick, SPAN - 1); // Beyond the top level: park in its farthest slot
+        int level = 0;
+        while (level + 1 < LEVELS && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        long placedTick = currentTick + delta;
+        int slot = (int) ((placedTick >>> (SLOT_BITS * level)) & MASK);
+        timer.next = slots[level][slot];
+        slots[level][slot] = timer;
+    }
+}
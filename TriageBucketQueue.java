@@ -0,0 +1,235 @@
+import java.util.*;
+
+/**
+ * TriageBucketQueue Class - Bucketed priority queue with one FIFO lane per triage level
+ * Priority only has three values (1 = Critical, 2 = Urgent, 3 = Regular), and patients
+ * within a level are served in arrival order, so no comparisons are needed:
+ *
+ *   Lane 1 (CRITICAL): [P004] -> [P009]
+ *   Lane 2 (URGENT)  : [P003] -> [P005] -> [P010]
+ *   Lane 3 (REGULAR) : [P002] -> [P006]
+ *
+ * The next patient is always the head of the first non-empty lane.
+ *
+ * Trade-off versus IndexedPatientHeap:
+ * - offer / poll / peek are O(1)
+ * - remove / changePriority are O(k), k = patients in the affected lane
+ */
+public class TriageBucketQueue implements PatientPriorityQueue {
+    private static final int LEVELS = 3;
+
+    // lanes[0] = Critical, lanes[1] = Urgent, lanes[2] = Regular
+    private final ArrayDeque<Patient>[] lanes;
+    private int size;
+
+    // Constructor
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TriageBucketQueue() {
+        this.lanes = new ArrayDeque[LEVELS];
+        for (int i = 0; i < LEVELS; i++) {
+            lanes[i] = new ArrayDeque<>();
+        }
+        this.size = 0;
+    }
+
+    /**
+     * Append a patient to the tail of its priority lane
+     * Time Complexity: O(1)
+     */
+    @Override
+    public void offer(Patient patient) {
+        if (patient.getQueueIndex() != Patient.NOT_QUEUED) {
+            throw new IllegalStateException("Patient " + patient.getPatientId() + " is already queued");
+        }
+        int lane = laneOf(patient.getPriority());
+        lanes[lane].addLast(patient); // New arrivals are always the latest in their lane
+        patient.setQueueIndex(lane);
+        size++;
+    }
+
+    /**
+     * Append a batch of patients to their lanes, keeping the batch order inside each lane
+     * Time Complexity: O(k)
+     */
+    @Override
+    public void offerAll(List<Patient> patients) {
+        for (Patient patient : patients) {
+            offer(patient);
+        }
+    }
+
+    /**
+     * Remove and return the head of the first non-empty lane
+     * Time Complexity: O(1) - at most three lanes are checked
+     */
+    @Override
+    public Patient poll() {
+        for (ArrayDeque<Patient> lane : lanes) {
+            Patient patient = lane.pollFirst();
+            if (patient != null) {
+                patient.setQueueIndex(Patient.NOT_QUEUED);
+                size--;
+                return patient;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Remove and return up to count patients by draining the lanes in order
+     * Time Complexity: O(k)
+     */
+    @Override
+    public List<Patient> poll(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+        List<Patient> polled = new ArrayList<>(Math.min(count, size));
+        for (ArrayDeque<Patient> lane : lanes) {
+            while (polled.size() < count && !lane.isEmpty()) {
+                Patient patient = lane.pollFirst();
+                patient.setQueueIndex(Patient.NOT_QUEUED);
+                polled.add(patient);
+            }
+        }
+        size -= polled.size();
+        return polled;
+    }
+
+    /**
+     * Return the head of the first non-empty lane without removing it
+     * Time Complexity: O(1)
+     */
+    @Override
+    public Patient peek() {
+        for (ArrayDeque<Patient> lane : lanes) {
+            Patient patient = lane.peekFirst();
+            if (patient != null) {
+                return patient;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Remove a specific patient from its lane
+     * Time Complexity: O(k), k = patients in the patient's lane
+     */
+    @Override
+    public boolean remove(Patient patient) {
+        if (!contains(patient) || !lanes[patient.getQueueIndex()].removeFirstOccurrence(patient)) {
+            return false;
+        }
+        patient.setQueueIndex(Patient.NOT_QUEUED);
+        size--;
+        return true;
+    }
+
+    /**
+     * Move a patient to the lane of its new priority, keeping arrival order in that lane
+     * Time Complexity: O(k), k = patients in the old and new lanes
+     */
+    @Override
+    public boolean changePriority(Patient patient, int newPriority) {
+        int newLane = laneOf(newPriority);
+        if (!contains(patient)) {
+            return false;
+        }
+        int oldLane = patient.getQueueIndex();
+        patient.setPriority(newPriority);
+        if (oldLane != newLane) {
+            lanes[oldLane].removeFirstOccurrence(patient);
+            insertByArrival(lanes[newLane], patient);
+            patient.setQueueIndex(newLane);
+        }
+        return true;
+    }
+
+    /**
+     * Check whether a patient is currently queued here
+     * Time Complexity: O(1)
+     */
+    @Override
+    public boolean contains(Patient patient) {
+        int lane = patient.getQueueIndex();
+        return lane >= 0 && lane < LEVELS;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Return all queued patients in treatment order: lane 1, then lane 2, then lane 3
+     * Time Complexity: O(n) - lanes are already in order
+     */
+    @Override
+    public List<Patient> toSortedList() {
+        List<Patient> result = new ArrayList<>(size);
+        for (ArrayDeque<Patient> lane : lanes) {
+            result.addAll(lane);
+        }
+        return result;
+    }
+
+    /**
+     * Return one page of patients in treatment order by walking the lanes
+     * Time Complexity: O(offset + limit) - lanes are already in order
+     */
+    @Override
+    public List<Patient> view(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        List<Patient> page = new ArrayList<>(Math.max(0, Math.min(limit, size - offset)));
+        int skip = offset;
+        for (ArrayDeque<Patient> lane : lanes) {
+            if (skip >= lane.size()) {
+                skip -= lane.size(); // Whole lane is before the page
+                continue;
+            }
+            for (Patient patient : lane) {
+                if (page.size() == limit) {
+                    return page;
+                }
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    page.add(patient);
+                }
+            }
+        }
+        return page;
+    }
+
+    // ========== LANE HELPERS ==========
+
+    // Map priority 1-3 to lane index 0-2
+    private static int laneOf(int priority) {
+        if (priority < 1 || priority > LEVELS) {
+            throw new IllegalArgumentException("Priority must be 1, 2 or 3: " + priority);
+        }
+        return priority - 1;
+    }
+
+    // Re-triaged patients keep their admission number (see Patient.sortKey), so walk back from the tail to their spot
+    private static void insertByArrival(ArrayDeque<Patient> lane, Patient patient) {
+        Patient last = lane.peekLast();
+        if (last == null || last.compareTo(patient) <= 0) {
+            lane.addLast(patient); // Common case: newest arrival goes to the back
+            return;
+        }
+        ArrayDeque<Patient> later = new ArrayDeque<>();
+        while (!lane.isEmpty() && lane.peekLast().compareTo(patient) > 0) {
+            later.addFirst(lane.pollLast());
+        }
+        lane.addLast(patient);
+        lane.addAll(later);
+    }
+}
@@ -0,0 +1,549 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * VisitArchive Class - Append-only, column-oriented history of completed visits
+ * ClinicQueue forgets a patient once they are called or removed; attached with
+ * setVisitArchive, it appends one row per finished visit here instead. Each column is
+ * its own file of fixed-width values, so a query reads only the columns it needs:
+ *
+ *   id.col         int    patient ID
+ *   priority.col   byte   priority when the visit ended
+ *   age.col        short  age
+ *   condition.col  int    code into conditions.dict (each condition text stored once)
+ *   arrival.col    long   arrival time (epoch ms)
+ *   end.col        long   call time, or removal time (epoch ms)
+ *   outcome.col    byte   Outcome.ordinal()
+ *
+ * Column files start with [int MAGIC][int VERSION]; row r of a column of width w is
+ * at 8 + r * w. conditions.dict holds [unsigned short length][UTF-8 bytes] entries,
+ * code = entry number. Queries memory-map the columns and read values in place: no
+ * row is ever turned into an object.
+ *
+ * Rows are buffered and written in batches (and before every query). A crash loses at
+ * most the unwritten batch; the journal, not the archive, is the record to recover
+ * the queue from. On open, columns are cut back to the number of complete rows.
+ *
+ * Thread-safety: appends and queries may come from any thread (e.g. several shards of
+ * a ClinicNetwork share one archive). Queries scan without holding the lock.
+ */
+public class VisitArchive implements Closeable {
+    private static final int MAGIC = 0x43564341; // "CVCA"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int BATCH_ROWS = 4096;
+    private static final int MAX_CONDITION_BYTES = 0xFFFF;
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+    private static final long HOUR_MILLIS = 60 * 60 * 1000L;
+
+    /**
+     * How a visit ended
+     */
+    public enum Outcome {
+        TREATED, // Called by a doctor
+        REMOVED  // Left the queue without being seen
+    }
+
+    // Column indexes and widths in bytes
+    private static final int ID = 0, PRIORITY = 1, AGE = 2, CONDITION = 3, ARRIVAL = 4, END = 5, OUTCOME = 6;
+    private static final String[] COLUMN_NAMES = {"id", "priority", "age", "condition", "arrival", "end", "outcome"};
+    private static final int[] WIDTHS = {4, 1, 2, 4, 8, 8, 1};
+
+    private final Path directory;
+    private final FileChannel[] columns;
+    private final ByteBuffer[] pending; // Rows not yet written, one buffer per column
+    private final FileChannel dictionary;
+    private final ByteBuffer pendingDictionary;
+    private final Map<String, Integer> conditionCodes;
+    private final List<String> conditions; // By code
+    private long rows;                     // Rows written to the column files
+    private int pendingRows;
+
+    private VisitArchive(Path directory, FileChannel[] columns, FileChannel dictionary,
+                         List<String> conditions, long rows) {
+        this.directory = directory;
+        this.columns = columns;
+        this.dictionary = dictionary;
+        this.conditions = conditions;
+        this.conditionCodes = new HashMap<>();
+        for (int code = 0; code < conditions.size(); code++) {
+            conditionCodes.put(conditions.get(code), code);
+        }
+        this.pending = new ByteBuffer[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            pending[c] = ByteBuffer.allocate(BATCH_ROWS * WIDTHS[c]);
+        }
+        this.pendingDictionary = ByteBuffer.allocate(2 + MAX_CONDITION_BYTES);
+        this.rows = rows;
+        this.pendingRows = 0;
+    }
+
+    /**
+     * Open (or create) the archive in a directory
+     * Time Complexity: O(d), d = distinct conditions (the dictionary is read into memory)
+     */
+    public static VisitArchive open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel[] columns = new FileChannel[COLUMN_NAMES.length];
+        FileChannel dictionary = null;
+        try {
+            long rows = Long.MAX_VALUE;
+            for (int c = 0; c < columns.length; c++) {
+                columns[c] = openFile(directory.resolve(COLUMN_NAMES[c] + ".col"));
+                rows = Math.min(rows, (columns[c].size() - HEADER_SIZE) / WIDTHS[c]);
+            }
+            for (int c = 0; c < columns.length; c++) {
+                // A crash between column writes leaves some columns longer: drop the partial rows
+                long end = HEADER_SIZE + rows * WIDTHS[c];
+                if (columns[c].size() > end) {
+                    columns[c].truncate(end);
+                }
+                columns[c].position(end);
+            }
+            dictionary = openFile(directory.resolve("conditions.dict"));
+            List<String> conditions = readDictionary(dictionary);
+            return new VisitArchive(directory, columns, dictionary, conditions, rows);
+        } catch (IOException | RuntimeException e) {
+            for (FileChannel channel : columns) {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+            if (dictionary != null) {
+                dictionary.close();
+            }
+            throw e;
+        }
+    }
+
+    // ========== APPEND ==========
+    /**
+     * Add one finished visit
+     * Time Complexity: O(1) amortized (a batch write every BATCH_ROWS rows)
+     */
+    public synchronized void append(Patient patient, long endTime, Outcome outcome) {
+        putRow(patient, endTime, outcome);
+        if (pendingRows == BATCH_ROWS) {
+            writeOrFail();
+        }
+    }
+
+    /**
+     * Add a group of visits that ended together (e.g. ClinicQueue.callNextPatients)
+     * Time Complexity: O(k) amortized
+     */
+    public synchronized void appendAll(List<Patient> patients, long endTime, Outcome outcome) {
+        for (Patient patient : patients) {
+            putRow(patient, endTime, outcome);
+            if (pendingRows == BATCH_ROWS) {
+                writeOrFail();
+            }
+        }
+    }
+
+    /**
+     * Write buffered rows to the column files
+     */
+    public synchronized void flush() throws IOException {
+        writeFully(dictionary, pendingDictionary); // Before the rows that use the new codes
+        for (int c = 0; c < columns.length; c++) {
+            writeFully(columns[c], pending[c]);
+        }
+        rows += pendingRows;
+        pendingRows = 0;
+    }
+
+    // Rows in the archive, written or still buffered
+    public synchronized long size() {
+        return rows + pendingRows;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!dictionary.isOpen()) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            for (FileChannel channel : columns) {
+                channel.close();
+            }
+            dictionary.close();
+        }
+    }
+
+    // ========== QUERIES ==========
+    // A visit belongs to the period its end time (call or removal) falls in: [fromMillis, toMillis)
+
+    /**
+     * Hand every visit of the period to visitor, in the order they were archived
+     * The Visit passed in is a cursor over the mapped columns and moves on after each
+     * call; copy out what you need to keep.
+     * Time Complexity: O(r), r = rows in the archive
+     */
+    public void scan(long fromMillis, long toMillis, Consumer<? super Visit> visitor) throws IOException {
+        Visit visit = new Visit(mapColumns(ID, PRIORITY, AGE, CONDITION, ARRIVAL, END, OUTCOME), conditionTable());
+        ByteBuffer end = visit.data[END];
+        int count = end.capacity() / Long.BYTES;
+        for (int row = 0; row < count; row++) {
+            long time = end.getLong(row * Long.BYTES);
+            if (time >= fromMillis && time < toMillis) {
+                visit.row = row;
+                visitor.accept(visit);
+            }
+        }
+    }
+
+    /**
+     * Patients treated per day, per priority level
+     * Reads only the end, outcome and priority columns.
+     * Time Complexity: O(r)
+     *
+     * @return day -> counts indexed by priority ([1] = Critical ... [3] = Regular), days in order
+     */
+    public SortedMap<LocalDate, long[]> throughputByDay(long fromMillis, long toMillis, ZoneId zone)
+            throws IOException {
+        ByteBuffer[] data = mapColumns(PRIORITY, END, OUTCOME);
+        ZoneClock clock = new ZoneClock(zone);
+        SortedMap<LocalDate, long[]> days = new TreeMap<>();
+        long currentDay = Long.MIN_VALUE;
+        long[] counts = null;
+        int count = data[END].capacity() / Long.BYTES;
+        for (int row = 0; row < count; row++) {
+            long time = data[END].getLong(row * Long.BYTES);
+            if (time < fromMillis || time >= toMillis || data[OUTCOME].get(row) != Outcome.TREATED.ordinal()) {
+                continue;
+            }
+            long day = Math.floorDiv(clock.localMillis(time), DAY_MILLIS);
+            if (day != currentDay) {
+                currentDay = day;
+                counts = days.computeIfAbsent(LocalDate.ofEpochDay(day), d -> new long[QueueStats.LEVELS + 1]);
+            }
+            int priority = data[PRIORITY].get(row);
+            if (priority >= 1 && priority <= QueueStats.LEVELS) {
+                counts[priority]++;
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Waits (arrival to call, in milliseconds) of treated patients of one priority level,
+     * or of every level for priority 0; read percentiles from the returned histogram
+     * Time Complexity: O(r)
+     */
+    public LatencyHistogram waitTimes(int priority, long fromMillis, long toMillis) throws IOException {
+        if (priority < 0 || priority > QueueStats.LEVELS) {
+            throw new IllegalArgumentException("Priority must be 0-" + QueueStats.LEVELS + ": " + priority);
+        }
+        ByteBuffer[] data = mapColumns(PRIORITY, ARRIVAL, END, OUTCOME);
+        LatencyHistogram waits = new LatencyHistogram();
+        int count = data[END].capacity() / Long.BYTES;
+        for (int row = 0; row < count; row++) {
+            long time = data[END].getLong(row * Long.BYTES);
+            if (time < fromMillis || time >= toMillis || data[OUTCOME].get(row) != Outcome.TREATED.ordinal()
+                    || (priority != 0 && data[PRIORITY].get(row) != priority)) {
+                continue;
+            }
+            waits.record(time - data[ARRIVAL].getLong(row * Long.BYTES));
+        }
+        return waits;
+    }
+
+    /**
+     * Arrivals per hour of the day (0-23, local time), to find the busiest hours
+     * Time Complexity: O(r)
+     */
+    public long[] arrivalsByHour(long fromMillis, long toMillis, ZoneId zone) throws IOException {
+        ByteBuffer[] data = mapColumns(ARRIVAL, END);
+        ZoneClock clock = new ZoneClock(zone);
+        long[] hours = new long[24];
+        int count = data[END].capacity() / Long.BYTES;
+        for (int row = 0; row < count; row++) {
+            long time = data[END].getLong(row * Long.BYTES);
+            if (time >= fromMillis && time < toMillis) {
+                long local = clock.localMillis(data[ARRIVAL].getLong(row * Long.BYTES));
+                hours[(int) (Math.floorMod(local, DAY_MILLIS) / HOUR_MILLIS)]++;
+            }
+        }
+        return hours;
+    }
+
+    /**
+     * One archived visit, read straight from the mapped columns (see scan)
+     */
+    public static final class Visit {
+        private final ByteBuffer[] data;
+        private final String[] conditions;
+        private int row;
+
+        private Visit(ByteBuffer[] data, String[] conditions) {
+            this.data = data;
+            this.conditions = conditions;
+        }
+
+        public int getId() {
+            return data[ID].getInt(row * 4);
+        }
+
+        public String getPatientId() {
+            return Patient.formatId(getId());
+        }
+
+        public int getPriority() {
+            return data[PRIORITY].get(row);
+        }
+
+        public int getAge() {
+            return data[AGE].getShort(row * 2);
+        }
+
+        public int getConditionCode() {
+            return data[CONDITION].getInt(row * 4);
+        }
+
+        public String getCondition() {
+            return conditions[getConditionCode()];
+        }
+
+        public long getArrivalTime() {
+            return data[ARRIVAL].getLong(row * 8);
+        }
+
+        // Call time for a treated patient, removal time otherwise
+        public long getEndTime() {
+            return data[END].getLong(row * 8);
+        }
+
+        public long getWaitMillis() {
+            return getEndTime() - getArrivalTime();
+        }
+
+        public Outcome getOutcome() {
+            return Outcome.values()[data[OUTCOME].get(row)];
+        }
+    }
+
+    // ========== COLUMNS ==========
+
+    private void putRow(Patient patient, long endTime, Outcome outcome) {
+        int condition = conditionCode(patient.getCondition()); // May write a batch: before the row starts
+        pending[ID].putInt(patient.getId());
+        pending[PRIORITY].put((byte) patient.getPriority());
+        pending[AGE].putShort((short) patient.getAge());
+        pending[CONDITION].putInt(condition);
+        pending[ARRIVAL].putLong(patient.getArrivalTime());
+        pending[END].putLong(endTime);
+        pending[OUTCOME].put((byte) outcome.ordinal());
+        pendingRows++;
+    }
+
+    // Code of a condition text, adding it to the dictionary the first time it is seen. O(1)
+    private int conditionCode(String condition) {
+        Integer code = conditionCodes.get(condition);
+        if (code != null) {
+            return code;
+        }
+        byte[] bytes = condition.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_CONDITION_BYTES); // Longer text is cut, like a display would
+        if (pendingDictionary.remaining() < 2 + length) {
+            writeOrFail(); // Also writes the rows buffered so far, which only use older codes
+        }
+        pendingDictionary.putShort((short) length);
+        pendingDictionary.put(bytes, 0, length);
+        code = conditions.size();
+        conditions.add(condition);
+        conditionCodes.put(condition, code);
+        return code;
+    }
+
+    // Write everything buffered, then map the requested columns over the rows written so far
+    private ByteBuffer[] mapColumns(int... wanted) throws IOException {
+        long count;
+        synchronized (this) {
+            flush();
+            count = rows;
+        }
+        ByteBuffer[] data = new ByteBuffer[columns.length];
+        for (int c : wanted) {
+            long bytes = count * WIDTHS[c];
+            if (bytes > Integer.MAX_VALUE) {
+                throw new IOException("Archive column " + COLUMN_NAMES[c] + " is too large to map at once");
+            }
+            MappedByteBuffer mapped = columns[c].map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, bytes);
+            data[c] = mapped;
+        }
+        return data;
+    }
+
+    private synchronized String[] conditionTable() {
+        return conditions.toArray(new String[0]);
+    }
+
+    private void writeOrFail() {
+        try {
+            flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write visit archive " + directory, e);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Open a column or dictionary file, writing the header if it is new
+    private static FileChannel openFile(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_SIZE) {
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            channel.write(header, 0);
+            return channel;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            channel.close();
+            throw new IOException(path + " is not a visit archive file");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            channel.close();
+            throw new IOException("Unsupported visit archive version " + version + " in " + path);
+        }
+        return channel;
+    }
+
+    // Read every whole dictionary entry and cut off a torn last one
+    private static List<String> readDictionary(FileChannel channel) throws IOException {
+        long size = channel.size();
+        MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        data.position(HEADER_SIZE);
+        List<String> conditions = new ArrayList<>();
+        while (data.remaining() >= Short.BYTES) {
+            int length = Short.toUnsignedInt(data.getShort(data.position()));
+            if (data.remaining() < Short.BYTES + length) {
+                break;
+            }
+            data.getShort();
+            byte[] bytes = new byte[length];
+            data.get(bytes);
+            conditions.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        if (data.position() < size) {
+            channel.truncate(data.position());
+        }
+        channel.position(data.position());
+        return conditions;
+    }
+
+    // Epoch milliseconds to local wall-clock milliseconds, looking up the zone offset only
+    // when a daylight-saving transition is crossed (rows are mostly in time order)
+    private static final class ZoneClock {
+        private final ZoneRules rules;
+        private long validFrom = Long.MAX_VALUE;
+        private long validUntil = Long.MIN_VALUE;
+        private long offsetMillis;
+
+        ZoneClock(ZoneId zone) {
+            this.rules = zone.getRules();
+        }
+
+        long localMillis(long epochMillis) {
+            if (epochMillis < validFrom || epochMillis >= validUntil) {
+                Instant instant = Instant.ofEpochMilli(epochMillis);
+                offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000L;
+                ZoneOffsetTransition next = rules.nextTransition(instant);
+                validFrom = epochMillis;
+                validUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond() * 1000;
+            }
+            return epochMillis + offsetMillis;
+        }
+    }
+
+    // ========== REPORT ==========
+    /**
+     * Print a report of the last days of an archive
+     * Usage: java VisitArchive <directory> [days]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java VisitArchive <directory> [days]");
+            return;
+        }
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        ZoneId zone = ZoneId.systemDefault();
+        long to = System.currentTimeMillis() + 1;
+        long from = to - days * DAY_MILLIS;
+
+        try (VisitArchive archive = open(Paths.get(args[0]))) {
+            long start = System.nanoTime();
+            SortedMap<LocalDate, long[]> throughput = archive.throughputByDay(from, to, zone);
+            LatencyHistogram[] waits = new LatencyHistogram[QueueStats.LEVELS + 1];
+            for (int priority = 0; priority <= QueueStats.LEVELS; priority++) {
+                waits[priority] = archive.waitTimes(priority, from, to);
+            }
+            long[] hours = archive.arrivalsByHour(from, to, zone);
+            double millis = (System.nanoTime() - start) / 1e6;
+
+            System.out.println("\n" + "=".repeat(60));
+            System.out.println("📚 VISIT ARCHIVE: last " + days + " days (" + archive.size() + " visits archived)");
+            System.out.println("=".repeat(60));
+            System.out.println("\n📅 Treated per Day       Critical   Urgent  Regular");
+            for (Map.Entry<LocalDate, long[]> day : throughput.entrySet()) {
+                long[] counts = day.getValue();
+                System.out.printf("   %-20s %8d %8d %8d%n", day.getKey(), counts[1], counts[2], counts[3]);
+            }
+            System.out.println("\n⏱️  Wait (min)             p50      p90      p99      max  patients");
+            String[] labels = {"All", "Critical", "Urgent", "Regular"};
+            for (int priority = 0; priority <= QueueStats.LEVELS; priority++) {
+                LatencyHistogram wait = waits[priority];
+                System.out.printf("   %-20s %8.1f %8.1f %8.1f %8.1f %9d%n", labels[priority],
+                        wait.getValueAtPercentile(50) / 60000.0, wait.getValueAtPercentile(90) / 60000.0,
+                        wait.getValueAtPercentile(99) / 60000.0, wait.getMax() / 60000.0, wait.getCount());
+            }
+            System.out.println("\n🕐 Busiest Hours (arrivals)");
+            Integer[] order = new Integer[24];
+            for (int hour = 0; hour < 24; hour++) {
+                order[hour] = hour;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(hours[b], hours[a]));
+            for (int i = 0; i < 3; i++) {
+                System.out.printf("   %02d:00-%02d:59 %10d%n", order[i], order[i], hours[order[i]]);
+            }
+            System.out.printf("%n✅ Scanned in %.1f ms%n", millis);
+        }
+    }
+}
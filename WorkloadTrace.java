@@ -0,0 +1,309 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * WorkloadTrace Class - Timed list of queue operations that ClinicWorkload can replay
+ * A trace is recorded from a live queue (Recorder listens to its QueueEvents) or
+ * written by ClinicWorkload from a generated day. File format, one operation per line,
+ * fields separated by tabs, times in milliseconds since the start of the trace:
+ *
+ *   # clinic workload trace v1
+ *   0       ADD      P001  2  45  John Doe  Chest Pain      (id, priority, age, name, condition)
+ *   1200    CALL     1                                      (patients called together)
+ *   5300    UPDATE   P001  1  45  John Doe  Chest Pain
+ *   9000    REMOVE   P001
+ *   9500    SEARCH_NAME      john                           (name query)
+ *   9600    SEARCH_PRIORITY  1
+ *
+ * IDs are the ones the traced queue handed out; a replay maps them to the IDs its own
+ * queue assigns. Tabs and line breaks inside names are written as spaces.
+ */
+public class WorkloadTrace {
+    private static final String HEADER = "# clinic workload trace v1";
+
+    /**
+     * Kinds of traced operations
+     */
+    public enum Type {
+        ADD, CALL, REMOVE, UPDATE, SEARCH_NAME, SEARCH_PRIORITY
+    }
+
+    /**
+     * One traced operation
+     */
+    public static final class Operation {
+        private final long time;
+        private final Type type;
+        private final int id;       // ADD, REMOVE, UPDATE
+        private final int number;   // Priority (ADD, UPDATE, SEARCH_PRIORITY) or patients called (CALL)
+        private final int age;
+        private final String name;  // Patient name, or the query of SEARCH_NAME
+        private final String condition;
+
+        Operation(long time, Type type, int id, int number, int age, String name, String condition) {
+            this.time = time;
+            this.type = type;
+            this.id = id;
+            this.number = number;
+            this.age = age;
+            this.name = name;
+            this.condition = condition;
+        }
+
+        static Operation add(long time, Patient patient) {
+            return patientOperation(time, Type.ADD, patient);
+        }
+
+        static Operation update(long time, Patient patient) {
+            return patientOperation(time, Type.UPDATE, patient);
+        }
+
+        static Operation call(long time, int count) {
+            return new Operation(time, Type.CALL, 0, count, 0, null, null);
+        }
+
+        static Operation remove(long time, int id) {
+            return new Operation(time, Type.REMOVE, id, 0, 0, null, null);
+        }
+
+        private static Operation patientOperation(long time, Type type, Patient patient) {
+            return new Operation(time, type, patient.getId(), patient.getPriority(), patient.getAge(),
+                    patient.getName(), patient.getCondition());
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getPriority() {
+            return number;
+        }
+
+        public int getCount() {
+            return number;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getQuery() {
+            return name;
+        }
+
+        public String getCondition() {
+            return condition;
+        }
+
+        // One line of the trace file (without the line break)
+        String toLine() {
+            StringBuilder line = new StringBuilder().append(time).append('\t').append(type);
+            switch (type) {
+                case ADD:
+                case UPDATE:
+                    line.append('\t').append(Patient.formatId(id)).append('\t').append(number)
+                        .append('\t').append(age).append('\t').append(clean(name))
+                        .append('\t').append(clean(condition));
+                    break;
+                case CALL:
+                case SEARCH_PRIORITY:
+                    line.append('\t').append(number);
+                    break;
+                case REMOVE:
+                    line.append('\t').append(Patient.formatId(id));
+                    break;
+                case SEARCH_NAME:
+                    line.append('\t').append(clean(name));
+                    break;
+            }
+            return line.toString();
+        }
+
+        static Operation parse(String line) {
+            String[] fields = line.split("\t", -1);
+            long time = Long.parseLong(fields[0]);
+            Type type = Type.valueOf(fields[1]);
+            switch (type) {
+                case ADD:
+                case UPDATE:
+                    return new Operation(time, type, Patient.parseId(fields[2]), Integer.parseInt(fields[3]),
+                            Integer.parseInt(fields[4]), fields[5], fields[6]);
+                case CALL:
+                case SEARCH_PRIORITY:
+                    return new Operation(time, type, 0, Integer.parseInt(fields[2]), 0, null, null);
+                case REMOVE:
+                    return remove(time, Patient.parseId(fields[2]));
+                default:
+                    return new Operation(time, type, 0, 0, 0, fields[2], null);
+            }
+        }
+
+        private static String clean(String text) {
+            return text.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+        }
+    }
+
+    private final List<Operation> operations;
+
+    // Constructor: operations in time order
+    WorkloadTrace(List<Operation> operations) {
+        this.operations = Collections.unmodifiableList(new ArrayList<>(operations));
+    }
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    public int size() {
+        return operations.size();
+    }
+
+    // Time of the last operation (ms after the first)
+    public long getDurationMillis() {
+        return operations.isEmpty() ? 0 : operations.get(operations.size() - 1).getTime();
+    }
+
+    // ========== FILES ==========
+    /**
+     * Read a trace file
+     * Time Complexity: O(e), e = operations
+     */
+    public static WorkloadTrace read(Path path) throws IOException {
+        List<Operation> operations = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    operations.add(Operation.parse(line));
+                } catch (RuntimeException e) {
+                    throw new IOException("Invalid trace line " + lineNumber + " in " + path + ": " + line, e);
+                }
+            }
+        }
+        return new WorkloadTrace(operations);
+    }
+
+    public void write(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Operation operation : operations) {
+                writer.write(operation.toLine());
+                writer.newLine();
+            }
+        }
+    }
+
+    // ========== RECORDING ==========
+    /**
+     * Record the operations of a live queue into a trace file
+     * Register with the queue's QueueEventDispatcher; lines are flushed once per event
+     * batch, on the dispatcher thread. Lookups by ID and paging are not events, so they
+     * are not traced; everything that changes the queue is.
+     */
+    public static final class Recorder implements QueueEventListener, Closeable {
+        private final BufferedWriter writer;
+        private long startTime = -1;
+        private long operations;
+
+        public Recorder(Path path) throws IOException {
+            this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+            writer.write(HEADER);
+            writer.newLine();
+        }
+
+        @Override
+        public void onEvent(QueueEvent event) {
+            if (startTime < 0) {
+                startTime = event.getTimestamp();
+            }
+            long time = event.getTimestamp() - startTime;
+            switch (event.getType()) {
+                case ADDED:
+                    write(Operation.add(time, event.getPatient()));
+                    break;
+                case ADDED_BATCH:
+                    for (Patient patient : event.getPatients()) {
+                        write(Operation.add(time, patient));
+                    }
+                    break;
+                case CALLED:
+                case QUEUE_EMPTY:
+                    write(Operation.call(time, 1));
+                    break;
+                case CALLED_BATCH:
+                    write(Operation.call(time, event.getResultCount()));
+                    break;
+                case REMOVED:
+                    write(Operation.remove(time, event.getId()));
+                    break;
+                case UPDATED:
+                    write(Operation.update(time, event.getPatient()));
+                    break;
+                case NAME_SEARCH:
+                    write(new Operation(time, Type.SEARCH_NAME, 0, 0, 0, event.getQuery(), null));
+                    break;
+                case PRIORITY_SEARCH:
+                    write(new Operation(time, Type.SEARCH_PRIORITY, 0, event.getPriority(), 0, null, null));
+                    break;
+                default:
+                    break; // NOT_FOUND changed nothing
+            }
+        }
+
+        @Override
+        public void onBatchEnd() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write trace", e);
+            }
+        }
+
+        // Operations recorded so far
+        public long getOperations() {
+            return operations;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        private void write(Operation operation) {
+            try {
+                writer.write(operation.toLine());
+                writer.newLine();
+                operations++;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write trace", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package clinic;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * ClinicDayBenchmark - A whole simulated clinic day (ClinicWorkload) per operation
+ * Poisson arrivals with bursts, doctors calling patients, cancellations and re-triages
+ * on a simulated clock, against a new ClinicQueue each time. The doctors parameter
+ * sets how deep the queue gets: fewer doctors, longer queue.
+ *
+ * Run: gradle jmh -Pjmh.args="ClinicDayBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ClinicDayBenchmark {
+    private static final double HOURS = 12;
+
+    @Param({"3", "5", "10"})
+    int doctors;
+
+    private ClinicWorkload workload;
+
+    @Setup(Level.Trial)
+    public void setUpDay() {
+        workload = new ClinicWorkload();
+        workload.setHours(HOURS);
+        workload.setDoctors(doctors);
+        for (int priority = 1; priority <= QueueStats.LEVELS; priority++) {
+            workload.setArrivalsPerHour(priority, 50.0 * priority); // A busy day: 300 arrivals an hour
+        }
+    }
+
+    @Benchmark
+    public ClinicWorkload.Report clinicDay() {
+        return workload.run(new ClinicQueue(), 0);
+    }
+}
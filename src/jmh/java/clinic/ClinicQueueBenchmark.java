@@ -0,0 +1,302 @@
+package clinic;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * ClinicQueueBenchmark - Every ClinicQueue operation at 100 to 1M waiting patients
+ * Each benchmark leaves the queue at size patients so the score does not drift with
+ * the iteration length. Operations that change the size are measured together with
+ * the cheap replay-path step that undoes them (applyAdd / applyRemove):
+ *
+ *   addPatient       addPatient + applyRemove of the new patient
+ *   addPatients      a group of GROUP_SIZE (ns per patient) + applyRemove of each
+ *   callNextPatient  callNextPatient + applyAdd of an arrival
+ *   callNextPatients DOCTORS at a time (ns per patient) + applyAdd of as many arrivals
+ *   removePatient    removePatient of a random waiting patient + applyAdd of an arrival
+ *
+ * The rest do not change the size. The mixes (clinic day, triage-heavy, front desk)
+ * pick operations by weight from a schedule drawn at set-up; arrivals balance
+ * departures and the queue is brought back to size between iterations.
+ *
+ * Console output of the display operations goes to a null stream.
+ *
+ * Run: gradle jmh -Pjmh.args="ClinicQueueBenchmark -p size=1000,100000"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ClinicQueueBenchmark {
+    static final int GROUP_SIZE = 100; // Patients per addPatients call
+    static final int DOCTORS = 10;     // Patients per callNextPatients call
+    private static final int RING = 1 << 14; // Pre-drawn random choices, used round-robin
+    private static final long SEED = 42L;
+
+    private static final String[] FIRST_NAMES = {"John", "Sarah", "Mike", "Emma", "David", "Aisha", "Wei",
+            "Maria", "Omar", "Lucy", "Raj", "Nur", "Hana", "Ali", "Grace", "Tom"};
+    private static final String[] LAST_NAMES = {"Doe", "Smith", "Johnson", "Wilson", "Brown", "Tan", "Lee",
+            "Garcia", "Rahman", "Kumar", "Ahmad", "Chen", "Lim", "Walker", "Young", "Abdullah"};
+    private static final String[] NAME_QUERIES = {"emma", "smith", "son", "li", "wei tan", "rahman", "grace y"};
+    // A receptionist looking someone up types most of the name, so mixes use selective queries
+    private static final String[] DESK_QUERIES = {"emma smith", "wei tan", "omar rahman", "grace young", "raj kum"};
+    private static final String[] CONDITIONS = {"Fever", "Chest Pain", "Checkup", "Fracture", "Cough"};
+
+    // Mix operations: weights are percentages in this order
+    private static final int ADD = 0, CALL = 1, REMOVE = 2, UPDATE = 3, BY_ID = 4, BY_NAME = 5, STATS = 6, PAGE = 7;
+    private static final int[] CLINIC_DAY = {40, 36, 4, 5, 10, 3, 1, 1};
+    private static final int[] TRIAGE_HEAVY = {30, 25, 5, 30, 10, 0, 0, 0};
+    private static final int[] FRONT_DESK = {20, 18, 2, 0, 30, 20, 5, 5};
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    int size;
+
+    private ClinicQueue queue;
+    private WaitingIds waiting;
+    private Random random;
+    private PrintStream console;
+    private List<AdmissionRequest> group;
+    private int[] ringIds;        // Random waiting patients (repeats allowed)
+    private String[] ringTexts;   // Their ID text
+    private int cursor;
+    private int[] clinicDaySchedule;   // Mix operations drawn by weight
+    private int[] triageHeavySchedule;
+    private int[] frontDeskSchedule;
+
+    @Setup(Level.Trial)
+    public void setUpQueue() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        random = new Random(SEED + size);
+        queue = new ClinicQueue();
+        waiting = new WaitingIds();
+        admit(size);
+        group = new ArrayList<>(GROUP_SIZE);
+        for (int i = 0; i < GROUP_SIZE; i++) {
+            group.add(new AdmissionRequest(name(i), 30, CONDITIONS[i % CONDITIONS.length], 1 + i % 3));
+        }
+        ringIds = new int[RING];
+        ringTexts = new String[RING];
+        clinicDaySchedule = schedule(CLINIC_DAY);
+        triageHeavySchedule = schedule(TRIAGE_HEAVY);
+        frontDeskSchedule = schedule(FRONT_DESK);
+    }
+
+    // Random picks are redrawn each iteration from the patients waiting now
+    @Setup(Level.Iteration)
+    public void drawPatients() {
+        for (int i = 0; i < RING; i++) {
+            ringIds[i] = waiting.random(random);
+            ringTexts[i] = Patient.formatId(ringIds[i]);
+        }
+    }
+
+    // Mixes let the size wander; bring it back to size for the next iteration
+    @TearDown(Level.Iteration)
+    public void restoreSize() {
+        while (waiting.size() > size) {
+            queue.applyRemove(waiting.removeRandom(random));
+        }
+        admit(size - waiting.size());
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreConsole() {
+        System.setOut(console);
+    }
+
+    // ========== SINGLE OPERATIONS ==========
+
+    @Benchmark
+    public boolean addPatient() {
+        int i = next();
+        boolean added = queue.addPatient(name(i), 30, CONDITIONS[i % CONDITIONS.length], 1 + i % 3);
+        queue.applyRemove(queue.getPatientIdCounter() - 1);
+        return added;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GROUP_SIZE)
+    public int addPatients() {
+        List<Patient> admitted = queue.addPatients(group);
+        for (Patient patient : admitted) {
+            queue.applyRemove(patient.getId());
+        }
+        return admitted.size();
+    }
+
+    @Benchmark
+    public Patient callNextPatient() {
+        Patient called = queue.callNextPatient();
+        waiting.remove(called.getId());
+        admit(1);
+        return called;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCTORS)
+    public List<Patient> callNextPatients() {
+        List<Patient> called = queue.callNextPatients(DOCTORS);
+        for (Patient patient : called) {
+            waiting.remove(patient.getId());
+        }
+        admit(called.size());
+        return called;
+    }
+
+    @Benchmark
+    public boolean removePatient() {
+        boolean removed = queue.removePatient(Patient.formatId(waiting.removeRandom(random)));
+        admit(1);
+        return removed;
+    }
+
+    // Re-triage a random patient (same name, new priority)
+    @Benchmark
+    public boolean updatePatient() {
+        int i = next();
+        Patient patient = queue.searchByID(ringIds[i]);
+        return queue.updatePatient(ringTexts[i], patient.getName(), 31, "Re-triaged", 1 + (i + ringIds[i]) % 3);
+    }
+
+    @Benchmark
+    public Patient searchByID() {
+        return queue.searchByID(ringTexts[next()]);
+    }
+
+    @Benchmark
+    public List<Patient> searchByName() {
+        return queue.searchByName(NAME_QUERIES[next() % NAME_QUERIES.length]);
+    }
+
+    @Benchmark
+    public List<Patient> searchByPriority() {
+        return queue.searchByPriority(1 + next() % 3);
+    }
+
+    @Benchmark
+    public void displayStatistics() {
+        queue.displayStatistics();
+    }
+
+    @Benchmark
+    public void displayQueue() {
+        queue.displayQueue();
+    }
+
+    // ========== MIXED WORKLOADS ==========
+
+    // Typical day: admissions, calls, a few cancellations and re-triages
+    @Benchmark
+    public void clinicDay(Blackhole blackhole) {
+        mixStep(clinicDaySchedule, blackhole);
+    }
+
+    // Many priority changes (busy emergency department)
+    @Benchmark
+    public void triageHeavy(Blackhole blackhole) {
+        mixStep(triageHeavySchedule, blackhole);
+    }
+
+    // Many lookups, searches and screen refreshes
+    @Benchmark
+    public void frontDesk(Blackhole blackhole) {
+        mixStep(frontDeskSchedule, blackhole);
+    }
+
+    private void mixStep(int[] schedule, Blackhole blackhole) {
+        int i = next();
+        switch (schedule[i]) {
+            case ADD:
+                queue.addPatient(name(i), 40, CONDITIONS[i % CONDITIONS.length], 1 + i % 3);
+                waiting.add(queue.getPatientIdCounter() - 1);
+                break;
+            case CALL:
+                Patient called = queue.callNextPatient();
+                if (called != null) {
+                    waiting.remove(called.getId());
+                }
+                blackhole.consume(called);
+                break;
+            case REMOVE:
+                if (waiting.size() > 0) {
+                    blackhole.consume(queue.removePatient(Patient.formatId(waiting.removeRandom(random))));
+                }
+                break;
+            case UPDATE:
+                if (waiting.size() > 0) {
+                    Patient patient = queue.searchByID(waiting.random(random));
+                    blackhole.consume(queue.updatePatient(patient.getPatientId(), patient.getName(),
+                            patient.getAge(), patient.getCondition(), 1 + random.nextInt(3)));
+                }
+                break;
+            case BY_ID:
+                if (waiting.size() > 0) {
+                    blackhole.consume(queue.searchByID(Patient.formatId(waiting.random(random))));
+                }
+                break;
+            case BY_NAME:
+                blackhole.consume(queue.searchByName(DESK_QUERIES[i % DESK_QUERIES.length]));
+                break;
+            case STATS:
+                queue.displayStatistics();
+                break;
+            case PAGE:
+                queue.displayQueue();
+                break;
+            default:
+                throw new IllegalStateException("Unknown mix operation " + schedule[i]);
+        }
+    }
+
+    // ========== HELPERS ==========
+
+    private int next() {
+        int i = cursor;
+        cursor = (i + 1) & (RING - 1);
+        return i;
+    }
+
+    private static String name(int i) {
+        return FIRST_NAMES[i & 15] + " " + LAST_NAMES[(i >> 4) & 15];
+    }
+
+    // Admit count patients through the replay path with a realistic mix: 10% Critical, 30% Urgent, 60% Regular
+    private void admit(int count) {
+        for (int i = 0; i < count; i++) {
+            int roll = random.nextInt(10);
+            int priority = roll == 0 ? 1 : (roll < 4 ? 2 : 3);
+            int id = queue.getPatientIdCounter();
+            queue.applyAdd(id, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                            + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    1 + random.nextInt(90), CONDITIONS[random.nextInt(CONDITIONS.length)], priority, System.currentTimeMillis());
+            waiting.add(id);
+        }
+    }
+
+    // RING operations drawn by weight (percentages in mix operation order)
+    private int[] schedule(int[] weights) {
+        int[] cumulative = new int[weights.length];
+        int total = 0;
+        for (int op = 0; op < weights.length; op++) {
+            total += weights[op];
+            cumulative[op] = total;
+        }
+        int[] schedule = new int[RING];
+        for (int i = 0; i < RING; i++) {
+            int roll = random.nextInt(total);
+            int op = 0;
+            while (roll >= cumulative[op]) {
+                op++;
+            }
+            schedule[i] = op;
+        }
+        return schedule;
+    }
+}
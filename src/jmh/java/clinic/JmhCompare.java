@@ -0,0 +1,220 @@
+package clinic;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * JmhCompare - Compares two JMH JSON result files (-rf json), e.g. from two commits
+ * A benchmark regressed when it got more than THRESHOLD worse and the difference is
+ * larger than both runs' error margins together, so noise alone does not fail a build.
+ *
+ * Usage: gradle jmhCompare -Pbaseline=baseline.json   (exit code 1 on a regression)
+ *        java -cp <jmh classpath> clinic.JmhCompare baseline.json results.json
+ */
+public class JmhCompare {
+    private static final double THRESHOLD = 0.20; // 20% worse fails a comparison
+
+    // One benchmark result: score with its 99.9% error margin
+    private static final class Result {
+        final double score;
+        final double error;
+        final String unit;
+        final boolean higherIsBetter;
+
+        Result(double score, double error, String unit, boolean higherIsBetter) {
+            this.score = score;
+            this.error = Double.isNaN(error) ? 0 : error;
+            this.unit = unit;
+            this.higherIsBetter = higherIsBetter;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: java clinic.JmhCompare baseline.json results.json");
+            System.exit(2);
+        }
+        Map<String, Result> baseline = read(args[0]);
+        Map<String, Result> results = read(args[1]);
+
+        System.out.println("\n📈 JMH COMPARISON WITH BASELINE (regression = more than "
+                + Math.round(THRESHOLD * 100) + "% worse, beyond the error margins)");
+        System.out.println("════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
+        System.out.printf("%-68s | %12s | %12s | %8s | %s%n", "Benchmark", "baseline", "now", "change", "unit");
+        System.out.println("════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue; // New benchmark or parameter: nothing to compare with
+            }
+            Result now = entry.getValue();
+            double change = (now.score - before.score) / before.score;
+            double worse = now.higherIsBetter ? -change : change;
+            boolean regressed = worse > THRESHOLD
+                    && Math.abs(now.score - before.score) > before.error + now.error;
+            regressions += regressed ? 1 : 0;
+            System.out.printf("%-68s | %12.1f | %12.1f | %+7.1f%% | %s %s%n", entry.getKey(), before.score,
+                    now.score, change * 100, now.unit, regressed ? "❌" : "");
+        }
+        System.out.println("════════════════════════════════════════════════════════════════════════════════════════════════════════════════");
+        System.out.println(regressions == 0 ? "✅ No regressions." : "❌ " + regressions + " benchmark(s) regressed.");
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Benchmark name with its parameters ("ClinicQueueBenchmark.addPatient size=1000") -> result
+    private static Map<String, Result> read(String file) throws IOException {
+        String text = new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8);
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (Object item : (List<?>) new Parser(text).value()) {
+            Map<?, ?> run = (Map<?, ?>) item;
+            String name = (String) run.get("benchmark");
+            StringBuilder key = new StringBuilder(name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1));
+            Object params = run.get("params");
+            if (params instanceof Map) {
+                for (Map.Entry<?, ?> param : new TreeMap<>((Map<?, ?>) params).entrySet()) {
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue());
+                }
+            }
+            Map<?, ?> metric = (Map<?, ?>) run.get("primaryMetric");
+            boolean higherIsBetter = "thrpt".equals(run.get("mode"));
+            results.put(key.toString(), new Result(number(metric.get("score")), number(metric.get("scoreError")),
+                    (String) metric.get("scoreUnit"), higherIsBetter));
+        }
+        return results;
+    }
+
+    // JMH writes "NaN" as a string when there were too few iterations for an error margin
+    private static double number(Object value) {
+        return value instanceof Double ? (Double) value : Double.NaN;
+    }
+
+    // ========== MINIMAL JSON PARSER ==========
+
+    // Objects become LinkedHashMaps, arrays ArrayLists, numbers Doubles
+    private static final class Parser {
+        private final String text;
+        private int at;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Object value() {
+            skipSpace();
+            char c = text.charAt(at);
+            switch (c) {
+                case '{':
+                    return object();
+                case '[':
+                    return array();
+                case '"':
+                    return string();
+                case 't':
+                    return literal("true", Boolean.TRUE);
+                case 'f':
+                    return literal("false", Boolean.FALSE);
+                case 'n':
+                    return literal("null", null);
+                default:
+                    return number();
+            }
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            at++; // {
+            skipSpace();
+            if (text.charAt(at) == '}') {
+                at++;
+                return object;
+            }
+            while (true) {
+                skipSpace();
+                String name = string();
+                skipSpace();
+                expect(':');
+                object.put(name, value());
+                skipSpace();
+                if (text.charAt(at++) == '}') {
+                    return object;
+                }
+            }
+        }
+
+        private List<Object> array() {
+            List<Object> array = new ArrayList<>();
+            at++; // [
+            skipSpace();
+            if (text.charAt(at) == ']') {
+                at++;
+                return array;
+            }
+            while (true) {
+                array.add(value());
+                skipSpace();
+                if (text.charAt(at++) == ']') {
+                    return array;
+                }
+            }
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder out = new StringBuilder();
+            for (char c = text.charAt(at++); c != '"'; c = text.charAt(at++)) {
+                if (c == '\\') {
+                    c = text.charAt(at++);
+                    switch (c) {
+                        case 'n': out.append('\n'); break;
+                        case 't': out.append('\t'); break;
+                        case 'r': out.append('\r'); break;
+                        case 'b': out.append('\b'); break;
+                        case 'f': out.append('\f'); break;
+                        case 'u': out.append((char) Integer.parseInt(text.substring(at, at + 4), 16)); at += 4; break;
+                        default: out.append(c); break; // \" \\ \/
+                    }
+                } else {
+                    out.append(c);
+                }
+            }
+            return out.toString();
+        }
+
+        private Double number() {
+            int start = at;
+            while (at < text.length() && "+-0123456789.eE".indexOf(text.charAt(at)) >= 0) {
+                at++;
+            }
+            if (start == at) {
+                throw new IllegalArgumentException("Unexpected '" + text.charAt(at) + "' at offset " + at);
+            }
+            return Double.parseDouble(text.substring(start, at));
+        }
+
+        private Object literal(String word, Object value) {
+            if (!text.startsWith(word, at)) {
+                throw new IllegalArgumentException("Expected " + word + " at offset " + at);
+            }
+            at += word.length();
+            return value;
+        }
+
+        private void expect(char c) {
+            if (text.charAt(at++) != c) {
+                throw new IllegalArgumentException("Expected '" + c + "' at offset " + (at - 1));
+            }
+        }
+
+        private void skipSpace() {
+            while (at < text.length() && Character.isWhitespace(text.charAt(at))) {
+                at++;
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package clinic;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * PatientQueueBenchmark - The PatientPriorityQueue strategies behind ClinicQueue
+ * - peek  : look at the next patient
+ * - page  : first page of the queue in order (ClinicQueue.DISPLAY_PAGE_SIZE rows)
+ * - churn : steady state at size waiting patients (call one, admit a new arrival)
+ * - fill  : admit size patients into an empty queue, then call them all (time per pass)
+ *
+ * Run: gradle jmh -Pjmh.args="PatientQueueBenchmark -p size=10000,1000000"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PatientQueueBenchmark {
+    private static final long SEED = 42L;
+
+    @Param({"IndexedPatientHeap", "TriageBucketQueue"})
+    String strategy;
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    int size;
+
+    private PatientPriorityQueue queue;
+    private Patient[] patients;
+    private Patient[] arrivals; // Admitted during churn, in turn with the called patients
+    private int nextArrival;
+
+    @Setup(Level.Trial)
+    public void setUpQueue() {
+        patients = createPatients(size, 0);
+        arrivals = createPatients(size, size);
+        queue = newQueue();
+        for (Patient patient : patients) {
+            queue.offer(patient);
+        }
+    }
+
+    @Benchmark
+    public Patient peek() {
+        return queue.peek();
+    }
+
+    @Benchmark
+    public int page() {
+        return queue.view(0, ClinicQueue.DISPLAY_PAGE_SIZE).size();
+    }
+
+    // The called patient becomes the next spare arrival, so churn never runs out
+    @Benchmark
+    public Patient churn() {
+        Patient called = queue.poll();
+        queue.offer(arrivals[nextArrival]);
+        arrivals[nextArrival] = called;
+        nextArrival = nextArrival + 1 == size ? 0 : nextArrival + 1;
+        return called;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void fill(Blackhole blackhole) {
+        PatientPriorityQueue empty = newQueue();
+        for (Patient patient : arrivals) {
+            empty.offer(patient);
+        }
+        while (!empty.isEmpty()) {
+            blackhole.consume(empty.poll());
+        }
+    }
+
+    private PatientPriorityQueue newQueue() {
+        return strategy.equals("TriageBucketQueue") ? new TriageBucketQueue() : new IndexedPatientHeap();
+    }
+
+    // Patients with a realistic triage mix: 10% Critical, 30% Urgent, 60% Regular
+    static Patient[] createPatients(int n, int firstId) {
+        Random random = new Random(SEED + firstId);
+        Patient[] patients = new Patient[n];
+        for (int i = 0; i < n; i++) {
+            int roll = random.nextInt(10);
+            int priority = roll == 0 ? 1 : (roll < 4 ? 2 : 3);
+            int id = firstId + i + 1;
+            patients[i] = new Patient(id, "Patient " + id, 30, "Benchmark", priority);
+        }
+        return patients;
+    }
+}
@@ -0,0 +1,66 @@
+package clinic;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * SnapshotBenchmark - Writing and loading the snapshot of a full waiting room
+ *
+ * Run: gradle jmh -Pjmh.args="SnapshotBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SnapshotBenchmark {
+    @Param({"100000", "1000000"})
+    int size;
+
+    private ClinicQueue queue;
+    private List<Patient> order;
+    private Path directory;
+    private Path written; // Written by write(), read by load()
+
+    @Setup(Level.Trial)
+    public void setUpQueue() throws IOException {
+        queue = new ClinicQueue();
+        for (Patient patient : PatientQueueBenchmark.createPatients(size, 0)) {
+            queue.applyAdd(patient.getId(), patient.getName(), patient.getAge(),
+                    patient.getCondition(), patient.getPriority(), patient.getArrivalTime());
+        }
+        order = queue.getPatientQueueOrder();
+        directory = Files.createTempDirectory("clinic-snapshot");
+        written = directory.resolve("loaded.snapshot");
+        QueueSnapshot.write(queue, order, 0, written);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Path write() throws IOException {
+        Path path = directory.resolve("written.snapshot");
+        QueueSnapshot.write(queue, order, 0, path);
+        return path;
+    }
+
+    @Benchmark
+    public ClinicQueue load() throws IOException {
+        ClinicQueue restored = new ClinicQueue();
+        QueueSnapshot.load(written, restored);
+        return restored;
+    }
+}
@@ -0,0 +1,52 @@
+package clinic;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * WaitingIds - IDs a benchmark knows are waiting, with O(1) add, remove and random pick
+ */
+final class WaitingIds {
+    private int[] ids = new int[1024];
+    private int[] slotOf = new int[1024]; // Patient ID -> index in ids, -1 if not waiting
+    private int size;
+
+    WaitingIds() {
+        Arrays.fill(slotOf, -1);
+    }
+
+    void add(int id) {
+        if (id >= slotOf.length) {
+            int oldLength = slotOf.length;
+            slotOf = Arrays.copyOf(slotOf, Math.max(id + 1, oldLength * 2));
+            Arrays.fill(slotOf, oldLength, slotOf.length, -1);
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        slotOf[id] = size;
+        ids[size++] = id;
+    }
+
+    void remove(int id) {
+        int slot = slotOf[id];
+        int last = ids[--size];
+        ids[slot] = last;
+        slotOf[last] = slot;
+        slotOf[id] = -1;
+    }
+
+    int random(Random random) {
+        return ids[random.nextInt(size)];
+    }
+
+    int removeRandom(Random random) {
+        int id = random(random);
+        remove(id);
+        return id;
+    }
+
+    int size() {
+        return size;
+    }
+}